@@ -3,19 +3,50 @@ package com.devappliance.ninjadoc;
 
 import com.devappliance.ninjadoc.annotations.RouterOperation;
 import com.devappliance.ninjadoc.annotations.RouterOperations;
+import com.devappliance.ninjadoc.api.annotations.DocumentReturnType;
+import com.devappliance.ninjadoc.cache.DiskSpecCache;
+import com.devappliance.ninjadoc.cache.OpenApiIndex;
+import com.devappliance.ninjadoc.cache.OpenApiSnapshot;
+import com.devappliance.ninjadoc.cache.OpenApiView;
+import com.devappliance.ninjadoc.cache.RenderedSpec;
+import com.devappliance.ninjadoc.cache.RenderedSpecCache;
+import com.devappliance.ninjadoc.cache.SchemaResolutionCache;
+import com.devappliance.ninjadoc.cache.SpecFormat;
+import com.devappliance.ninjadoc.cache.SpecHistory;
 import com.devappliance.ninjadoc.customizers.OpenApiCustomiser;
 import com.devappliance.ninjadoc.customizers.OperationCustomizer;
 import com.devappliance.ninjadoc.fn.AbstractRouterFunctionVisitor;
 import com.devappliance.ninjadoc.fn.RouterFunctionData;
+import com.devappliance.ninjadoc.metrics.BuildPhase;
+import com.devappliance.ninjadoc.metrics.BuildTimer;
+import com.devappliance.ninjadoc.metrics.NinjaDocMetrics;
+import com.devappliance.ninjadoc.util.JsonPatchGenerator;
+import com.devappliance.ninjadoc.util.PackageMatcher;
+import com.devappliance.ninjadoc.util.PathPatternMatcher;
 import com.devappliance.ninjadoc.wrappers.ApplicationContext;
 import com.devappliance.ninjadoc.wrappers.HandlerMethod;
 import com.devappliance.ninjadoc.wrappers.RequestMethod;
+import com.devappliance.ninjadoc.wrappers.RouteRegistry;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator.Feature;
 import com.google.inject.Injector;
 import io.swagger.v3.core.filter.SpecFilter;
+import io.swagger.v3.core.util.Json;
 import io.swagger.v3.core.util.ReflectionUtils;
 import io.swagger.v3.core.util.Yaml;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -26,6 +57,10 @@ import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import io.swagger.v3.oas.models.media.StringSchema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.oas.models.servers.Server;
+import ninja.Route;
+import ninja.lifecycle.Dispose;
+import ninja.utils.NinjaProperties;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -36,13 +71,40 @@ import org.springframework.util.AntPathMatcher;
 import org.springframework.util.CollectionUtils;
 
 import javax.inject.Provider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.devappliance.ninjadoc.converters.SchemaPropertyDeprecatingConverter.isDeprecated;
@@ -63,6 +125,43 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * The constant HIDDEN_REST_CONTROLLERS.
 	 */
 	private static final List<Class<?>> HIDDEN_REST_CONTROLLERS = new ArrayList<>();
+
+	/**
+	 * The pool of the parallel builds, created on first use.
+	 */
+	private static volatile ForkJoinPool parallelBuildPool;
+
+	/**
+	 * The digests of the bytecode of the controller and model classes, computed once per class.
+	 */
+	private static final ClassValue<String> CLASS_DIGESTS = new ClassValue<String>() {
+		@Override
+		protected String computeValue(Class<?> type) {
+			return DiskSpecCache.digestOf(type);
+		}
+	};
+
+	/**
+	 * The server url rendered in the templates of the documents served with the server url of the caller,
+	 * replaced by the server url of each request.
+	 */
+	private static final String SERVER_URL_PLACEHOLDER = "http://ninjadoc.server-url.invalid";
+
+	/**
+	 * The server urls spliced into the templates: rendered verbatim in json and yaml, with nothing to escape or quote.
+	 */
+	private static final Pattern SPLICEABLE_SERVER_URL = Pattern.compile("[A-Za-z][A-Za-z0-9+.-]*://[A-Za-z0-9._~:/?=;+$()%-]*[A-Za-z0-9._~/?=;+$()%-]");
+
+	/**
+	 * The constant SMILE_FACTORY. Its generators leave the output stream open.
+	 */
+	private static final JsonFactory SMILE_FACTORY = SmileFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+	/**
+	 * The constant CBOR_FACTORY. Its generators leave the output stream open.
+	 */
+	private static final JsonFactory CBOR_FACTORY = CBORFactory.builder().disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
 	/**
 	 * The Spring doc config properties.
 	 */
@@ -91,6 +190,10 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * The Operation customizers.
 	 */
 	private final Optional<Set<OperationCustomizer>> operationCustomizers;
+	/**
+	 * The Metrics.
+	 */
+	private final NinjaDocMetrics metrics;
 	/**
 	 * The Ant path matcher.
 	 */
@@ -99,11 +202,68 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * The Group name.
 	 */
 	private final String groupName;
+	/**
+	 * The build in flight, shared by every caller waiting for a snapshot.
+	 */
+	private final AtomicReference<CompletableFuture<OpenApiSnapshot>> inFlightBuild = new AtomicReference<>();
+	/**
+	 * The published open api snapshot.
+	 */
+	private volatile OpenApiSnapshot openApiSnapshot;
+	/**
+	 * The inputs of the build of the published snapshot, when the cache is disabled with change detection.
+	 */
+	private volatile BuildInputs openApiSnapshotInputs;
+	/**
+	 * The time of the last build, or of the last refresh attempt, in nanoseconds. A refresh is claimed by moving it.
+	 */
+	private final AtomicLong lastRefresh = new AtomicLong();
+	/**
+	 * The executor of the background refreshes, a single daemon thread created on first use.
+	 */
+	private ExecutorService refreshExecutor;
+	/**
+	 * The Disposed.
+	 */
+	private boolean disposed;
+	/**
+	 * The number of failed builds.
+	 */
+	private final AtomicLong failedBuildCount = new AtomicLong();
+	/**
+	 * The Package matcher, compiled on first use.
+	 */
+	private volatile PackageMatcher packageMatcher;
+	/**
+	 * The Path pattern matcher, compiled on first use.
+	 */
+	private volatile PathPatternMatcher pathPatternMatcher;
+	/**
+	 * The past json versions of the open api.
+	 */
+	private final SpecHistory specHistory;
+	/**
+	 * The fragments of the last incremental build of the group, dropped with the resource and its injector.
+	 * They only keep class names and digests, never a class.
+	 */
+	private volatile FragmentStore controllerFragments;
+	/**
+	 * The disk cache of the rendered documents, created at startup or on first use.
+	 */
+	private volatile DiskSpecCache diskSpecCache;
+	/**
+	 * The snapshot read back from the disk cache, the only one whose renderings are read from it.
+	 */
+	private volatile OpenApiSnapshot diskSnapshot;
 	/**
 	 * The Open api builder.
 	 */
 	protected OpenAPIBuilder openAPIBuilder;
 	protected ApplicationContext applicationContext;
+	/**
+	 * The Route registry, the route source of the builds and of their change detection.
+	 */
+	protected final RouteRegistry routeRegistry;
 
 	/**
 	 * Instantiates a new Abstract open api resource.
@@ -116,13 +276,15 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * @param operationCustomizers        the operation customizers
 	 * @param openApiCustomisers          the open api customisers
 	 * @param ninjaDocConfigProperties    the spring doc config properties
+	 * @param metrics                     the metrics
+	 * @param injector                    the injector
 	 */
 	protected AbstractOpenApiResource(String groupName, Provider<OpenAPIBuilder> openAPIBuilderObjectFactory,
 									  AbstractRequestBuilder requestBuilder,
 									  GenericResponseBuilder responseBuilder, OperationBuilder operationParser,
 									  Optional<Set<OperationCustomizer>> operationCustomizers,
 									  Optional<Set<OpenApiCustomiser>> openApiCustomisers,
-									  NinjaDocConfigProperties ninjaDocConfigProperties, Injector injector) {
+									  NinjaDocConfigProperties ninjaDocConfigProperties, NinjaDocMetrics metrics, Injector injector) {
 		super();
 		this.groupName = Objects.requireNonNull(groupName, "groupName");
 		this.openAPIBuilderProvider = openAPIBuilderObjectFactory;
@@ -136,6 +298,11 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 			operationCustomizers.get().removeIf(Objects::isNull);
 		this.operationCustomizers = operationCustomizers;
 		this.applicationContext = ApplicationContext.from(injector);
+		this.routeRegistry = applicationContext.getBean(RouteRegistry.class);
+		this.metrics = Objects.requireNonNull(metrics, "metrics");
+		this.specHistory = new SpecHistory(ninjaDocConfigProperties.getCache().getMaxHistoryVersions(),
+				ninjaDocConfigProperties.getCache().getMaxHistorySize(),
+				ninjaDocConfigProperties.getCache().getMaxRenderedDocuments());
 	}
 
 	/**
@@ -183,45 +350,871 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 		return HIDDEN_REST_CONTROLLERS.stream().anyMatch(clazz -> clazz.isAssignableFrom(rawClass));
 	}
 
+	/**
+	 * Gets group name.
+	 *
+	 * @return the group name
+	 */
+	public String getGroupName() {
+		return groupName;
+	}
+
 	/**
 	 * Gets open api.
 	 *
 	 * @return the open api
 	 */
-	protected synchronized OpenAPI getOpenApi() {
-		OpenAPI openApi;
-		if (openAPIBuilder.getCachedOpenAPI() == null || ninjaDocConfigProperties.isCacheDisabled()) {
-			Instant start = Instant.now();
-			openAPIBuilder.build();
-			Map<String, Object> mappingsMap = openAPIBuilder.getMappingsMap().entrySet().stream()
-					.filter(controller -> (AnnotationUtils.findAnnotation(controller.getValue().getClass(),
-							Hidden.class) == null))
-					.filter(controller -> !isHiddenRestControllers(controller.getValue().getClass()))
-					.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a1, a2) -> a1));
-			// calculate generic responses
-			openApi = openAPIBuilder.getCalculatedOpenAPI();
-			getPaths(mappingsMap);
-			if (!CollectionUtils.isEmpty(openApi.getServers()))
-				openAPIBuilder.setServersPresent(true);
-			openAPIBuilder.updateServers(openApi);
-
-			if (ninjaDocConfigProperties.isRemoveBrokenReferenceDefinitions())
-				this.removeBrokenReferenceDefinitions(openApi);
-
-			// run the optional customisers
-			openApiCustomisers.ifPresent(apiCustomisers -> apiCustomisers.forEach(openApiCustomiser -> openApiCustomiser.customise(openApi)));
-
-			openAPIBuilder.setCachedOpenAPI(openApi);
-			openAPIBuilder.resetCalculatedOpenAPI();
-
-			LOGGER.info("NinjaDoc initialized in: {} ms",
-					Duration.between(start, Instant.now()).toMillis());
-		} else {
-			if (!CollectionUtils.isEmpty(openAPIBuilder.getCachedOpenAPI().getServers()))
-				openAPIBuilder.setServersPresent(true);
-			openApi = openAPIBuilder.updateServers(openAPIBuilder.getCachedOpenAPI());
+	protected OpenAPI getOpenApi() {
+		return getOpenApiSnapshot().getOpenAPI();
+	}
+
+	/**
+	 * Is open api ready boolean.
+	 *
+	 * @return true once a snapshot of the open api has been published
+	 */
+	public boolean isOpenApiReady() {
+		return openApiSnapshot != null;
+	}
+
+	/**
+	 * Gets the published open api snapshot. Readers never block once a snapshot is available; the first build
+	 * (or every build, when the cache is disabled) is single-flighted so concurrent callers wait on the same build.
+	 * When the cache is disabled with change detection, the snapshot is only rebuilt once its build inputs changed.
+	 * <p>
+	 * With stale-while-revalidate, readers always get the last good snapshot without waiting, and a stale snapshot
+	 * is refreshed by a single background build. A failed refresh is logged and counted, and the previous snapshot
+	 * keeps being served until the next attempt, one refresh ttl later.
+	 *
+	 * @return the open api snapshot
+	 */
+	protected OpenApiSnapshot getOpenApiSnapshot() {
+		// the inputs are published after their snapshot, so they are read first
+		BuildInputs inputs = this.openApiSnapshotInputs;
+		OpenApiSnapshot snapshot = this.openApiSnapshot;
+		if (snapshot != null && ninjaDocConfigProperties.getCache().isStaleWhileRevalidateEnabled()) {
+			long lastRefresh = this.lastRefresh.get();
+			if (isRefreshDue(inputs, lastRefresh))
+				refreshInBackground(lastRefresh);
+			return snapshot;
+		}
+		if (snapshot != null && (!ninjaDocConfigProperties.isCacheDisabled() || !isChanged(inputs)))
+			return snapshot;
+		return awaitOpenApiSnapshot(buildOpenApiSnapshotAsync(Runnable::run));
+	}
+
+	/**
+	 * Is a refresh of the published snapshot due: once the refresh ttl elapsed since the last build or attempt,
+	 * and, when the cache is disabled with change detection, only if the build inputs changed.
+	 * With the cache enabled, a ttl of zero never refreshes.
+	 *
+	 * @param inputs      the build inputs of the published snapshot
+	 * @param lastRefresh the time of the last build, or of the last refresh attempt
+	 * @return the boolean
+	 */
+	private boolean isRefreshDue(BuildInputs inputs, long lastRefresh) {
+		long refreshTtl = ninjaDocConfigProperties.getCache().getRefreshTtl();
+		if (!ninjaDocConfigProperties.isCacheDisabled() && refreshTtl <= 0)
+			return false;
+		if (System.nanoTime() - lastRefresh < TimeUnit.MILLISECONDS.toNanos(refreshTtl))
+			return false;
+		return !ninjaDocConfigProperties.isCacheDisabled() || isChanged(inputs);
+	}
+
+	/**
+	 * Start refreshing the snapshot in the background, unless a build is already in flight. Of the requests finding
+	 * the same refresh due, only the one moving the time of the last refresh starts it.
+	 *
+	 * @param lastRefresh the time of the last build, or of the last refresh attempt, found due
+	 */
+	private void refreshInBackground(long lastRefresh) {
+		if (inFlightBuild.get() != null || !this.lastRefresh.compareAndSet(lastRefresh, System.nanoTime()))
+			return;
+		Executor executor = getRefreshExecutor();
+		if (executor == null)
+			return;
+		buildOpenApiSnapshotAsync(executor).whenComplete((snapshot, e) -> {
+			if (e != null)
+				LOGGER.error("NinjaDoc refresh of group {} failed, the previous api docs are still served", groupName, e);
+		});
+	}
+
+	/**
+	 * Gets the executor of the background refreshes, creating it on first use. The single thread exits once idle.
+	 *
+	 * @return the executor, or null once disposed
+	 */
+	private synchronized Executor getRefreshExecutor() {
+		if (disposed)
+			return null;
+		if (refreshExecutor == null) {
+			String threadName = "ninjadoc-refresh-" + groupName;
+			refreshExecutor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1), runnable -> {
+				Thread thread = new Thread(runnable, threadName);
+				thread.setDaemon(true);
+				return thread;
+			});
 		}
-		return openApi;
+		return refreshExecutor;
+	}
+
+	/**
+	 * Shut down the executor of the background refreshes.
+	 */
+	@Dispose
+	public synchronized void dispose() {
+		disposed = true;
+		if (refreshExecutor != null)
+			refreshExecutor.shutdownNow();
+	}
+
+	/**
+	 * Gets metrics.
+	 *
+	 * @return the metrics
+	 */
+	protected NinjaDocMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Gets the number of builds of the open api that failed.
+	 *
+	 * @return the failed build count
+	 */
+	public long getFailedBuildCount() {
+		return failedBuildCount.get();
+	}
+
+	/**
+	 * Is changed boolean: whether the inputs of a build differ from the current ones. Checked before each request
+	 * when the cache is disabled with change detection, so it copies nothing: the route list of the registry is
+	 * compared by identity, it only changes with the route table, and the packages and paths by value.
+	 *
+	 * @param inputs the build inputs, may be null
+	 * @return the boolean
+	 */
+	private boolean isChanged(BuildInputs inputs) {
+		if (inputs == null || inputs.routes != routeRegistry.getSource()
+				|| !inputs.selection.matches(ninjaDocConfigProperties.getPackagesToScan(), ninjaDocConfigProperties.getPackagesToExclude(),
+				ninjaDocConfigProperties.getPathsToMatch(), ninjaDocConfigProperties.getPathsToExclude()))
+			return true;
+		NinjaDocConfigProperties.GroupConfig groupConfig = null;
+		for (NinjaDocConfigProperties.GroupConfig config : ninjaDocConfigProperties.getGroupConfigs()) {
+			if (groupName.equals(config.getGroup()))
+				groupConfig = config;
+		}
+		if (groupConfig == null)
+			return inputs.groupSelection != null;
+		return inputs.groupSelection == null || !inputs.groupSelection.matches(groupConfig.getPackagesToScan(),
+				groupConfig.getPackagesToExclude(), groupConfig.getPathsToMatch(), groupConfig.getPathsToExclude());
+	}
+
+	/**
+	 * Gets the open api snapshot of a view: the operations of the view and the components they reference,
+	 * derived from the published snapshot with the spec filter.
+	 *
+	 * @param view the view, null for the full open api
+	 * @return the open api snapshot
+	 */
+	protected OpenApiSnapshot getOpenApiSnapshot(OpenApiView view) {
+		OpenApiSnapshot snapshot = getOpenApiSnapshot();
+		if (view == null)
+			return snapshot;
+		return snapshot.getView(view, openApi -> filter(openApi, view.newSpecFilter(antPathMatcher),
+				Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()));
+	}
+
+	/**
+	 * Copy of a list of the config, which may be modified in place.
+	 *
+	 * @param list the list
+	 * @return the copy
+	 */
+	private static List<String> copyOf(List<String> list) {
+		return (list == null) ? null : new ArrayList<>(list);
+	}
+
+	/**
+	 * Build the open api snapshot on the given executor, or join the build already in flight.
+	 *
+	 * @param executor the executor running the build
+	 * @return the future of the snapshot
+	 */
+	protected CompletableFuture<OpenApiSnapshot> buildOpenApiSnapshotAsync(Executor executor) {
+		return buildOpenApiSnapshotAsync(executor, null);
+	}
+
+	/**
+	 * Build the open api snapshot on the given executor, or join the build already in flight. A new build looks up
+	 * the schemas it does not know yet in the given cache, shared with the builds of the other groups.
+	 *
+	 * @param executor                    the executor running the build
+	 * @param sharedSchemaResolutionCache the schema resolution cache shared by the groups, may be null
+	 * @return the future of the snapshot
+	 */
+	protected CompletableFuture<OpenApiSnapshot> buildOpenApiSnapshotAsync(Executor executor, SchemaResolutionCache sharedSchemaResolutionCache) {
+		while (true) {
+			CompletableFuture<OpenApiSnapshot> inFlight = inFlightBuild.get();
+			if (inFlight != null)
+				return inFlight;
+			CompletableFuture<OpenApiSnapshot> build = new CompletableFuture<>();
+			if (inFlightBuild.compareAndSet(null, build)) {
+				try {
+					executor.execute(() -> runOpenApiSnapshotBuild(build, sharedSchemaResolutionCache));
+				} catch (RejectedExecutionException e) {
+					build.completeExceptionally(e);
+					inFlightBuild.compareAndSet(build, null);
+				}
+				return build;
+			}
+		}
+	}
+
+	/**
+	 * Run open api snapshot build.
+	 *
+	 * @param build                       the build future to complete
+	 * @param sharedSchemaResolutionCache the schema resolution cache shared by the groups, may be null
+	 */
+	private void runOpenApiSnapshotBuild(CompletableFuture<OpenApiSnapshot> build, SchemaResolutionCache sharedSchemaResolutionCache) {
+		try {
+			BuildInputs inputs = null;
+			if (ninjaDocConfigProperties.isCacheDisabled() && ninjaDocConfigProperties.getCache().isChangeDetectionEnabled()) {
+				if (isChanged(openApiSnapshotInputs)) {
+					// the packages and paths of the group may have changed
+					packageMatcher = null;
+					pathPatternMatcher = null;
+				}
+				// taken before the build, so a route table replaced while building is detected on the next request
+				inputs = new BuildInputs(routeRegistry.getSource(), ninjaDocConfigProperties, getGroupConfig().orElse(null));
+			}
+			BuildTimer buildTimer = new BuildTimer();
+			long start = System.nanoTime();
+			OpenApiSnapshot snapshot = buildTimer.call(() -> buildOpenApiSnapshot(sharedSchemaResolutionCache));
+			long buildNanos = System.nanoTime() - start;
+			for (BuildPhase phase : BuildPhase.values()) {
+				if (phase != BuildPhase.SERIALIZATION)
+					metrics.recordPhase(groupName, phase, buildTimer.getNanos(phase));
+			}
+			metrics.recordBuild(groupName, buildNanos);
+			this.openApiSnapshot = snapshot;
+			this.openApiSnapshotInputs = inputs;
+			this.lastRefresh.set(System.nanoTime());
+			build.complete(snapshot);
+		} catch (Throwable e) {
+			failedBuildCount.incrementAndGet();
+			metrics.recordBuildFailure(groupName);
+			build.completeExceptionally(e);
+		} finally {
+			inFlightBuild.compareAndSet(build, null);
+		}
+	}
+
+	/**
+	 * Await open api snapshot.
+	 *
+	 * @param build the build future
+	 * @return the open api snapshot
+	 */
+	private OpenApiSnapshot awaitOpenApiSnapshot(CompletableFuture<OpenApiSnapshot> build) {
+		try {
+			return build.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Build open api snapshot. Only ever called by the single in-flight build.
+	 *
+	 * @param sharedSchemaResolutionCache the schema resolution cache shared by the groups, may be null
+	 * @return the open api snapshot
+	 */
+	private OpenApiSnapshot buildOpenApiSnapshot(SchemaResolutionCache sharedSchemaResolutionCache) {
+		OpenAPI prebuiltOpenApi = (ninjaDocConfigProperties.isPrebuiltEnabled() && !ninjaDocConfigProperties.isCacheDisabled()) ? loadPrebuiltOpenApi() : null;
+		if (prebuiltOpenApi != null) {
+			LOGGER.info("NinjaDoc serves the prebuilt api docs of group {}", groupName);
+			return new OpenApiSnapshot(prebuiltOpenApi, OpenApiSnapshot.findGeneratedServer(prebuiltOpenApi),
+					ninjaDocConfigProperties.getCache().getMaxRenderedDocuments(),
+					ninjaDocConfigProperties.getCache().getMaxFilteredViews());
+		}
+		OpenApiSnapshot snapshot = (openApiSnapshot == null) ? loadDiskOpenApiSnapshot() : null;
+		if (snapshot != null) {
+			LOGGER.info("NinjaDoc serves the api docs of group {} cached on disk", groupName);
+			diskSnapshot = snapshot;
+			return snapshot;
+		}
+		initOpenAPIBuilder();
+		Instant start = Instant.now();
+		long scanStart = BuildTimer.start();
+		openAPIBuilder.build();
+		Map<String, Object> mappingsMap = openAPIBuilder.getMappingsMap().entrySet().stream()
+				.filter(controller -> (AnnotationUtils.findAnnotation(controller.getValue().getClass(),
+						Hidden.class) == null))
+				.filter(controller -> !isHiddenRestControllers(controller.getValue().getClass()))
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a1, a2) -> a1));
+		BuildTimer.record(BuildPhase.ROUTE_SCANNING, scanStart);
+		// calculate generic responses
+		OpenAPI openApi = openAPIBuilder.getCalculatedOpenAPI();
+		operationParser.indexOperationIds(openApi);
+		try {
+			if (ninjaDocConfigProperties.getCache().isSchemaResolutionEnabled())
+				new SchemaResolutionCache(sharedSchemaResolutionCache).run(() -> getPaths(mappingsMap));
+			else
+				getPaths(mappingsMap);
+		} finally {
+			operationParser.removeOperationIdIndex(openApi);
+		}
+		// the customisers see the generated server, without url: the server url of each request is overlaid when served
+		List<Server> declaredServers = openApi.getServers();
+		if (!CollectionUtils.isEmpty(declaredServers))
+			openAPIBuilder.setServersPresent(true);
+		openAPIBuilder.setServerBaseUrl(null);
+		openAPIBuilder.updateServers(openApi);
+		Server generatedServer = (openApi.getServers() != declaredServers && !CollectionUtils.isEmpty(openApi.getServers())) ? openApi.getServers().get(0) : null;
+
+		if (ninjaDocConfigProperties.isRemoveBrokenReferenceDefinitions()) {
+			long removalStart = BuildTimer.start();
+			this.removeBrokenReferenceDefinitions(openApi);
+			BuildTimer.record(BuildPhase.BROKEN_REFERENCE_REMOVAL, removalStart);
+		}
+
+		// run the optional customisers
+		long customisersStart = BuildTimer.start();
+		openApiCustomisers.ifPresent(apiCustomisers -> apiCustomisers.forEach(openApiCustomiser -> openApiCustomiser.customise(openApi)));
+		BuildTimer.record(BuildPhase.CUSTOMISERS, customisersStart);
+
+		openAPIBuilder.setCachedOpenAPI(openApi);
+		openAPIBuilder.resetCalculatedOpenAPI();
+
+		LOGGER.info("NinjaDoc initialized in: {} ms",
+				Duration.between(start, Instant.now()).toMillis());
+		return new OpenApiSnapshot(openApi, generatedServer, ninjaDocConfigProperties.getCache().getMaxRenderedDocuments(),
+				ninjaDocConfigProperties.getCache().getMaxFilteredViews());
+	}
+
+	/**
+	 * Load the open api generated at build time, used in place of a build while it still matches the application.
+	 *
+	 * @return the prebuilt open api, or null to build it
+	 */
+	protected OpenAPI loadPrebuiltOpenApi() {
+		return null;
+	}
+
+	/**
+	 * Load the snapshot of the json document kept in the disk cache, used in place of the first build. Its renderings
+	 * are served from the mapped files; the open api is only parsed once a view, an index or a format missing
+	 * from the disk needs it.
+	 *
+	 * @return the open api snapshot, or null to build it
+	 */
+	private OpenApiSnapshot loadDiskOpenApiSnapshot() {
+		DiskSpecCache diskCache = getDiskSpecCache();
+		if (diskCache == null)
+			return null;
+		RenderedSpec json = diskCache.get(new RenderedSpecCache.RenderKey(SpecFormat.JSON, ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter(), null));
+		if (json == null)
+			return null;
+		boolean serversPresent;
+		try {
+			serversPresent = isServersPresent(json);
+		} catch (IOException e) {
+			LOGGER.warn("NinjaDoc cannot read the api docs of group {} cached on disk: {}", groupName, e.getMessage());
+			return null;
+		}
+		return new OpenApiSnapshot(() -> {
+			try (InputStream inputStream = new ByteBufferBackedInputStream(json.getContentBuffer())) {
+				return Json.mapper().readValue(inputStream, OpenAPI.class);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, serversPresent, ninjaDocConfigProperties.getCache().getMaxRenderedDocuments(),
+				ninjaDocConfigProperties.getCache().getMaxFilteredViews());
+	}
+
+	/**
+	 * Is servers present boolean: whether a json document declares its servers, rather than keeping the generated
+	 * server, the only one without url. The whole document is scanned, without building its model.
+	 *
+	 * @param json the json document
+	 * @return the boolean
+	 * @throws IOException when the document is not valid json
+	 */
+	private static boolean isServersPresent(RenderedSpec json) throws IOException {
+		int servers = 0;
+		int serversWithoutUrl = 0;
+		try (JsonParser parser = Json.mapper().getFactory().createParser(new ByteBufferBackedInputStream(json.getContentBuffer()))) {
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new JsonParseException(parser, "Not an open api document");
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				if (parser.nextToken() != JsonToken.START_ARRAY || !"servers".equals(field)) {
+					parser.skipChildren();
+					continue;
+				}
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					servers++;
+					boolean urlPresent = false;
+					while (parser.nextToken() == JsonToken.FIELD_NAME) {
+						String serverField = parser.getCurrentName();
+						urlPresent |= parser.nextToken() != JsonToken.VALUE_NULL && "url".equals(serverField);
+						parser.skipChildren();
+					}
+					if (!urlPresent)
+						serversWithoutUrl++;
+				}
+			}
+			if (parser.nextToken() != null)
+				throw new JsonParseException(parser, "Trailing content after the open api document");
+		}
+		return servers > 0 && serversWithoutUrl != 1;
+	}
+
+	/**
+	 * Gets the rendered open api. Each variant is rendered, and its entity tag computed, once per snapshot
+	 * and server url, then served from the snapshot until the open api is rebuilt. When the document declares
+	 * no server, the server url of the caller is overlaid on a copy of the model, leaving the shared model untouched.
+	 *
+	 * @param format        the format
+	 * @param serverBaseUrl the server base url
+	 * @return the rendered open api
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected RenderedSpec getRenderedOpenApi(SpecFormat format, String serverBaseUrl) throws JsonProcessingException {
+		return getRenderedOpenApi(format, serverBaseUrl, null);
+	}
+
+	/**
+	 * Gets the rendered open api, restricted to a view. Each view is rendered and cached like the full open api.
+	 *
+	 * @param format        the format
+	 * @param serverBaseUrl the server base url
+	 * @param view          the view, null for the full open api
+	 * @return the rendered open api
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected RenderedSpec getRenderedOpenApi(SpecFormat format, String serverBaseUrl, OpenApiView view) throws JsonProcessingException {
+		boolean pretty = ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter();
+		OpenApiSnapshot snapshot = getOpenApiSnapshot(view);
+		if (ninjaDocConfigProperties.isCacheDisabled()) {
+			metrics.recordCacheMiss(groupName);
+			return new RenderedSpec(writeOpenApi(format, pretty, snapshot.getOpenAPI(serverBaseUrl)));
+		}
+		RenderedSpecCache renderedSpecCache = snapshot.getRenderedSpecCache();
+		RenderedSpecCache.RenderKey renderKey = new RenderedSpecCache.RenderKey(format, pretty,
+				snapshot.isServersPresent() ? null : serverBaseUrl);
+		RenderedSpec rendered = renderedSpecCache.get(renderKey);
+		if (rendered != null)
+			metrics.recordCacheHit(groupName);
+		else {
+			metrics.recordCacheMiss(groupName);
+			DiskSpecCache diskCache = (view == null) ? getDiskSpecCache() : null;
+			if (renderKey.getServerUrl() == null)
+				rendered = getVersionRendering(snapshot, format, pretty, null, diskCache);
+			else {
+				rendered = renderedSpecCache.putIfAbsent(renderKey, renderWithServerUrl(snapshot, format, pretty, serverBaseUrl, diskCache));
+				// the disk only keeps the documents without the server url of a caller, it is spliced in once read back
+				if (diskCache != null)
+					getVersionRendering(snapshot, format, pretty, null, diskCache);
+			}
+			// recorded once per rendering, the renderings served from the snapshot are already known
+			if (format == SpecFormat.JSON && view == null)
+				recordHistory(snapshot, renderKey, rendered);
+		}
+		return rendered;
+	}
+
+	/**
+	 * Gets the rendering of the open api without the server url of the caller, or with the server url placeholder,
+	 * rendered once per snapshot. The rendering of the snapshot read back from the disk is mapped from its file;
+	 * the others are written to the disk.
+	 *
+	 * @param snapshot  the snapshot
+	 * @param format    the format
+	 * @param pretty    the pretty
+	 * @param serverUrl the server url, null or {@link #SERVER_URL_PLACEHOLDER}
+	 * @param diskCache the disk cache, may be null
+	 * @return the rendering
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	private RenderedSpec getVersionRendering(OpenApiSnapshot snapshot, SpecFormat format, boolean pretty, String serverUrl, DiskSpecCache diskCache) throws JsonProcessingException {
+		RenderedSpecCache renderedSpecCache = snapshot.getRenderedSpecCache();
+		RenderedSpecCache.RenderKey versionKey = new RenderedSpecCache.RenderKey(format, pretty, serverUrl);
+		RenderedSpec rendered = renderedSpecCache.get(versionKey);
+		if (rendered != null)
+			return rendered;
+		if (diskCache != null && snapshot == diskSnapshot)
+			rendered = diskCache.get(versionKey);
+		if (rendered == null) {
+			rendered = new RenderedSpec(writeOpenApi(format, pretty, snapshot.getOpenAPI(serverUrl)));
+			if (diskCache != null)
+				diskCache.put(versionKey, rendered);
+		}
+		return renderedSpecCache.putIfAbsent(versionKey, rendered);
+	}
+
+	/**
+	 * Render the open api with the server url of the caller. Json and yaml documents are spliced from a template
+	 * rendered once per snapshot with {@link #SERVER_URL_PLACEHOLDER}, so serving another host never serializes
+	 * the model; the template of the snapshot read back from the disk is mapped from its file.
+	 *
+	 * @param snapshot      the snapshot
+	 * @param format        the format
+	 * @param pretty        the pretty
+	 * @param serverBaseUrl the server base url
+	 * @param diskCache     the disk cache, may be null
+	 * @return the rendering
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	private RenderedSpec renderWithServerUrl(OpenApiSnapshot snapshot, SpecFormat format, boolean pretty, String serverBaseUrl, DiskSpecCache diskCache) throws JsonProcessingException {
+		if ((format == SpecFormat.JSON || format == SpecFormat.YAML) && SPLICEABLE_SERVER_URL.matcher(serverBaseUrl).matches()) {
+			RenderedSpec template = getVersionRendering(snapshot, format, pretty, SERVER_URL_PLACEHOLDER, diskCache);
+			byte[] content = spliceServerUrl(template.getContentBuffer(), serverBaseUrl);
+			if (content != null)
+				return new RenderedSpec(content);
+		}
+		return new RenderedSpec(writeOpenApi(format, pretty, snapshot.getOpenAPI(serverBaseUrl)));
+	}
+
+	/**
+	 * Splice a server url in place of the server url placeholder of a template.
+	 *
+	 * @param template  the template
+	 * @param serverUrl the server url
+	 * @return the content, or null unless the placeholder occurs exactly once
+	 */
+	private static byte[] spliceServerUrl(ByteBuffer template, String serverUrl) {
+		byte[] placeholder = SERVER_URL_PLACEHOLDER.getBytes(StandardCharsets.US_ASCII);
+		int start = indexOf(template, placeholder, template.position());
+		if (start < 0 || indexOf(template, placeholder, start + placeholder.length) >= 0)
+			return null;
+		byte[] url = serverUrl.getBytes(StandardCharsets.US_ASCII);
+		int end = start + placeholder.length;
+		byte[] content = new byte[template.remaining() - placeholder.length + url.length];
+		ByteBuffer source = template.duplicate();
+		source.limit(start);
+		source.get(content, 0, start - template.position());
+		System.arraycopy(url, 0, content, start - template.position(), url.length);
+		source.limit(template.limit()).position(end);
+		source.get(content, start - template.position() + url.length, source.remaining());
+		return content;
+	}
+
+	/**
+	 * Gets the index of the first occurrence of some bytes in a buffer.
+	 *
+	 * @param buffer the buffer
+	 * @param bytes  the bytes
+	 * @param from   the index to search from
+	 * @return the index, or -1
+	 */
+	private static int indexOf(ByteBuffer buffer, byte[] bytes, int from) {
+		search:
+		for (int i = from; i <= buffer.limit() - bytes.length; i++) {
+			for (int j = 0; j < bytes.length; j++) {
+				if (buffer.get(i + j) != bytes[j])
+					continue search;
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Record a json rendering of the open api in the history. The history keeps the document without the server url
+	 * of the caller, rendered once per snapshot, and the rendering served as an alias of it.
+	 *
+	 * @param snapshot  the snapshot
+	 * @param renderKey the render key of the rendering
+	 * @param rendered  the rendering
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	private void recordHistory(OpenApiSnapshot snapshot, RenderedSpecCache.RenderKey renderKey, RenderedSpec rendered) throws JsonProcessingException {
+		if (renderKey.getServerUrl() == null) {
+			specHistory.record(rendered);
+			return;
+		}
+		RenderedSpec version = getVersionRendering(snapshot, renderKey.getFormat(), renderKey.isPretty(), null, getDiskSpecCache());
+		specHistory.record(version, rendered, renderKey.getServerUrl());
+	}
+
+	/**
+	 * Gets the digest of a rendered variant of the open api, without rendering it: a conditional request
+	 * for a variant already rendered from the published snapshot is answered before any serialization.
+	 *
+	 * @param format        the format
+	 * @param serverBaseUrl the server base url
+	 * @param view          the view, null for the full open api
+	 * @return the digest, or null when the variant was not rendered yet
+	 */
+	protected String getRenderedDigest(SpecFormat format, String serverBaseUrl, OpenApiView view) {
+		if (ninjaDocConfigProperties.isCacheDisabled() || !isOpenApiReady())
+			return null;
+		OpenApiSnapshot snapshot = getOpenApiSnapshot(view);
+		RenderedSpec rendered = snapshot.getRenderedSpecCache().get(new RenderedSpecCache.RenderKey(format,
+				ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter(), snapshot.isServersPresent() ? null : serverBaseUrl));
+		return (rendered == null) ? null : rendered.getDigest();
+	}
+
+	/**
+	 * Gets the disk cache of the rendered documents, when a directory is configured. The variants are kept
+	 * under the fingerprint of the application and the ninjadoc properties, then the group name; the variants
+	 * of the group under other fingerprints are pruned once stale. The fingerprint reads every controller, model
+	 * and customiser class file, so it is computed at startup, see {@link #initDiskSpecCache()}.
+	 *
+	 * @return the disk spec cache, or null
+	 */
+	private DiskSpecCache getDiskSpecCache() {
+		String diskDirectory = ninjaDocConfigProperties.getCache().getDiskDirectory();
+		if (StringUtils.isBlank(diskDirectory) || ninjaDocConfigProperties.isCacheDisabled())
+			return null;
+		DiskSpecCache result = diskSpecCache;
+		if (result == null) {
+			String fingerprint = DiskSpecCache.fingerprint(getApplicationFingerprint(), Collections.emptyList(), getNinjaDocProperties());
+			// computing it twice is harmless, both caches use the same directory
+			diskSpecCache = result = new DiskSpecCache(java.nio.file.Paths.get(diskDirectory, fingerprint, groupName),
+					ninjaDocConfigProperties.getCache().getMaxRenderedDocuments());
+			result.pruneStale();
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the fingerprint of what the documents are generated from, besides the ninjadoc properties: the route table,
+	 * the bytes of the controller classes, of their model classes and of the customiser classes, and the versions
+	 * of ninjadoc and swagger.
+	 *
+	 * @return the application fingerprint
+	 */
+	protected String getApplicationFingerprint() {
+		Set<Class<?>> classes = new HashSet<>();
+		Set<Method> controllerMethods = new HashSet<>();
+		for (Route route : routeRegistry.getSource()) {
+			if (route.getControllerClass() != null)
+				classes.add(route.getControllerClass());
+			if (route.getControllerMethod() != null)
+				controllerMethods.add(route.getControllerMethod());
+		}
+		classes.addAll(ControllerFragment.modelsOf(controllerMethods).values());
+		openApiCustomisers.ifPresent(customisers -> customisers.forEach(customiser -> classes.add(customiser.getClass())));
+		operationCustomizers.ifPresent(customizers -> customizers.forEach(customizer -> classes.add(customizer.getClass())));
+		classes.add(getClass());
+		Map<String, String> libraries = new TreeMap<>();
+		for (Class<?> libraryClass : Arrays.asList(AbstractOpenApiResource.class, Json.class, OpenAPI.class)) {
+			String version = libraryClass.getPackage().getImplementationVersion();
+			libraries.put(libraryClass.getName(), (version != null) ? version : CLASS_DIGESTS.get(libraryClass));
+		}
+		return DiskSpecCache.fingerprint(routeRegistry.getFingerprint(), classes, libraries);
+	}
+
+	/**
+	 * Gets the ninjadoc properties of the application.
+	 *
+	 * @return the ninjadoc properties
+	 */
+	private Map<String, String> getNinjaDocProperties() {
+		Properties ninjaProperties = applicationContext.getBean(NinjaProperties.class).getAllCurrentNinjaProperties();
+		Map<String, String> ninjaDocProperties = new TreeMap<>();
+		for (String key : ninjaProperties.stringPropertyNames()) {
+			if (key.startsWith("ninjadoc."))
+				ninjaDocProperties.put(key, ninjaProperties.getProperty(key));
+		}
+		return ninjaDocProperties;
+	}
+
+	/**
+	 * Create the disk cache of the rendered documents, when a directory is configured, computing the fingerprint
+	 * of the application before the first request.
+	 */
+	protected void initDiskSpecCache() {
+		getDiskSpecCache();
+	}
+
+	/**
+	 * Gets the JSON Patch from a past json version of the open api to the current one. Patches are computed once
+	 * per pair of versions, for as long as both are kept.
+	 * <p>
+	 * The versions do not hold the server url of the caller, so the patch between them only applies to documents served
+	 * with the same server url, and only when it leaves the servers untouched.
+	 *
+	 * @param sinceDigest   the digest of the past document, as found in its entity tag
+	 * @param current       the current json document
+	 * @param serverBaseUrl the server base url of the caller
+	 * @return the patch, or null when the past document is not, or no longer, known, or the patch does not apply to it
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected RenderedSpec getRenderedPatch(String sinceDigest, RenderedSpec current, String serverBaseUrl) throws JsonProcessingException {
+		String sinceVersion = specHistory.getVersionDigest(sinceDigest, serverBaseUrl);
+		String currentVersion = specHistory.getVersionDigest(current.getDigest(), serverBaseUrl);
+		if (sinceVersion == null || currentVersion == null)
+			return null;
+		boolean serverOverlaid = !sinceVersion.equals(sinceDigest) || !currentVersion.equals(current.getDigest());
+		RenderedSpec patch = specHistory.getPatch(sinceVersion, currentVersion);
+		if (patch != null)
+			return (serverOverlaid && specHistory.isServersChanged(sinceVersion, currentVersion)) ? null : patch;
+		RenderedSpec since = specHistory.getVersion(sinceVersion);
+		RenderedSpec currentRendered = specHistory.getVersion(currentVersion);
+		if (since == null || currentRendered == null)
+			return null;
+		JsonNode sinceTree;
+		JsonNode currentTree;
+		try {
+			sinceTree = Json.mapper().readTree(since.getContent());
+			currentTree = Json.mapper().readTree(currentRendered.getContent());
+		} catch (JsonProcessingException e) {
+			throw e;
+		} catch (IOException e) {
+			// the content is in memory
+			throw new UncheckedIOException(e);
+		}
+		ArrayNode operations = JsonPatchGenerator.diff(sinceTree, currentTree);
+		boolean serversChanged = false;
+		for (JsonNode operation : operations) {
+			if (isServersPointer(operation.path("path").asText()) || isServersPointer(operation.path("from").asText()))
+				serversChanged = true;
+		}
+		patch = new RenderedSpec(Json.mapper().writeValueAsBytes(operations));
+		specHistory.putPatch(sinceVersion, currentVersion, patch, serversChanged);
+		return (serverOverlaid && serversChanged) ? null : patch;
+	}
+
+	/**
+	 * True if a json pointer of a patch operation is, or is within, the servers of the document.
+	 *
+	 * @param pointer the pointer
+	 * @return the boolean
+	 */
+	private static boolean isServersPointer(String pointer) {
+		return "/servers".equals(pointer) || pointer.startsWith("/servers/");
+	}
+
+	/**
+	 * Gets the rendered document of one operation, with the components it references.
+	 *
+	 * @param operationId the operation id
+	 * @return the rendered document, or null if no operation has this id
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected RenderedSpec getRenderedOperation(String operationId) throws JsonProcessingException {
+		OpenApiIndex index = getOpenApiSnapshot().getIndex();
+		return getRenderedLookup(index, "operations/" + operationId, () -> index.getOperationDocument(operationId));
+	}
+
+	/**
+	 * Gets the rendered document of one schema, with the components it references.
+	 *
+	 * @param name the name of the schema
+	 * @return the rendered document, or null if no schema has this name
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected RenderedSpec getRenderedSchema(String name) throws JsonProcessingException {
+		OpenApiIndex index = getOpenApiSnapshot().getIndex();
+		return getRenderedLookup(index, "schemas/" + name, () -> index.getSchemaDocument(name));
+	}
+
+	/**
+	 * Gets a rendered lookup from the index, rendering it on the first request.
+	 *
+	 * @param index    the index
+	 * @param key      the key of the lookup
+	 * @param document the document of the lookup
+	 * @return the rendered lookup, or null if the document does not exist
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	private RenderedSpec getRenderedLookup(OpenApiIndex index, String key, Supplier<OpenAPI> document) throws JsonProcessingException {
+		RenderedSpec rendered = index.getRendered(key);
+		if (rendered != null) {
+			metrics.recordCacheHit(groupName);
+			return rendered;
+		}
+		metrics.recordCacheMiss(groupName);
+		OpenAPI openApi = document.get();
+		if (openApi == null)
+			return null;
+		return index.putRenderedIfAbsent(key, new RenderedSpec(writeOpenApi(SpecFormat.JSON, ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter(), openApi)));
+	}
+
+	/**
+	 * Write open api.
+	 *
+	 * @param format  the format
+	 * @param pretty  the pretty
+	 * @param openApi the open api
+	 * @return the serialized open api
+	 * @throws JsonProcessingException the json processing exception
+	 */
+	protected byte[] writeOpenApi(SpecFormat format, boolean pretty, OpenAPI openApi) throws JsonProcessingException {
+		if (!format.isBinary()) {
+			long start = System.nanoTime();
+			byte[] content = getOpenApiWriter(format, pretty).writeValueAsBytes(openApi);
+			metrics.recordPhase(groupName, BuildPhase.SERIALIZATION, System.nanoTime() - start);
+			return content;
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try {
+			writeOpenApi(format, pretty, openApi, outputStream);
+		}
+		catch (JsonProcessingException e) {
+			throw e;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Write open api to the output stream, without materializing the document in memory:
+	 * the generator only holds its own fixed size buffer. The output stream is flushed, not closed.
+	 *
+	 * @param format       the format
+	 * @param pretty       the pretty
+	 * @param openApi      the open api
+	 * @param outputStream the output stream
+	 * @throws IOException the io exception
+	 */
+	protected void writeOpenApi(SpecFormat format, boolean pretty, OpenAPI openApi, OutputStream outputStream) throws IOException {
+		long start = System.nanoTime();
+		if (format.isBinary()) {
+			// the json mapper serializes the swagger models, the generator of the binary format encodes them
+			try (JsonGenerator generator = getBinaryFactory(format).createGenerator(outputStream)
+					.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+				Json.mapper().writeValue(generator, openApi);
+			}
+		}
+		else
+			getOpenApiWriter(format, pretty).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(outputStream, openApi);
+		outputStream.flush();
+		metrics.recordPhase(groupName, BuildPhase.SERIALIZATION, System.nanoTime() - start);
+	}
+
+	/**
+	 * Gets open api writer.
+	 *
+	 * @param format the format
+	 * @param pretty the pretty
+	 * @return the open api writer
+	 */
+	private ObjectWriter getOpenApiWriter(SpecFormat format, boolean pretty) {
+		ObjectMapper objectMapper = (format == SpecFormat.YAML) ? getYamlMapper() : Json.mapper();
+		return pretty ? objectMapper.writerWithDefaultPrettyPrinter() : objectMapper.writer();
+	}
+
+	/**
+	 * Gets the factory of the generators of a binary format. Binary formats are never pretty printed.
+	 *
+	 * @param format the binary format
+	 * @return the factory
+	 */
+	private static JsonFactory getBinaryFactory(SpecFormat format) {
+		return (format == SpecFormat.SMILE) ? SMILE_FACTORY : CBOR_FACTORY;
 	}
 
 	/**
@@ -238,6 +1231,29 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * @param routerOperation the router operation
 	 */
 	protected void calculatePath(HandlerMethod handlerMethod, com.devappliance.ninjadoc.fn.RouterOperation routerOperation) {
+		calculatePath(handlerMethod, routerOperation, openAPIBuilder.getCalculatedOpenAPI());
+	}
+
+	/**
+	 * Calculate path into the given open api.
+	 *
+	 * @param handlerMethod   the handler method
+	 * @param routerOperation the router operation
+	 * @param openAPI         the open api receiving the path
+	 */
+	protected void calculatePath(HandlerMethod handlerMethod, com.devappliance.ninjadoc.fn.RouterOperation routerOperation, OpenAPI openAPI) {
+		calculatePath(handlerMethod, routerOperation, openAPI, true);
+	}
+
+	/**
+	 * Calculate path into the given open api.
+	 *
+	 * @param handlerMethod   the handler method
+	 * @param routerOperation the router operation
+	 * @param openAPI         the open api receiving the path
+	 * @param customise       run the operation customizers
+	 */
+	private void calculatePath(HandlerMethod handlerMethod, com.devappliance.ninjadoc.fn.RouterOperation routerOperation, OpenAPI openAPI, boolean customise) {
 		String operationPath = routerOperation.getPath();
 		Set<RequestMethod> requestMethods = new HashSet<>(Arrays.asList(routerOperation.getMethods()));
 		io.swagger.v3.oas.annotations.Operation apiOperation = routerOperation.getOperation();
@@ -246,7 +1262,6 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 		String[] headers = routerOperation.getHeaders();
 		Map<String, String> queryParams = routerOperation.getQueryParams();
 
-		OpenAPI openAPI = openAPIBuilder.getCalculatedOpenAPI();
 		Components components = openAPI.getComponents();
 		Paths paths = openAPI.getPaths();
 
@@ -262,6 +1277,8 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 			// skip hidden operations
 			if (operationParser.isHidden(method))
 				continue;
+			// an overloaded operation changes its operationId in place: fall back to scanning the paths
+			boolean indexed = (existingOperation != null) && operationParser.removeOperationIdIndex(openAPI);
 
 //			RequestMapping reqMappingClass = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(),
 //					RequestMapping.class);
@@ -288,8 +1305,11 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 						io.swagger.v3.oas.annotations.Operation.class);
 
 			calculateJsonView(apiOperation, methodAttributes, method);
-			if (apiOperation != null)
+			if (apiOperation != null) {
+				long parseStart = BuildTimer.start();
 				openAPI = operationParser.parse(apiOperation, operation, openAPI, methodAttributes);
+				BuildTimer.record(BuildPhase.OPERATION_PARSING, parseStart);
+			}
 			fillParametersList(operation, queryParams, methodAttributes);
 
 			// compute tags
@@ -299,16 +1319,20 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 					io.swagger.v3.oas.annotations.parameters.RequestBody.class);
 
 			// RequestBody in Operation
+			long requestStart = BuildTimer.start();
 			requestBuilder.getRequestBodyBuilder()
 					.buildRequestBodyFromDoc(requestBodyDoc, methodAttributes, components,
 							methodAttributes.getJsonViewAnnotationForRequestBody())
 					.ifPresent(operation::setRequestBody);
 			// requests
 			operation = requestBuilder.build(handlerMethod, requestMethod, operation, methodAttributes, openAPI);
+			BuildTimer.record(BuildPhase.REQUEST_BUILDING, requestStart);
 
 			// responses
+			long responseStart = BuildTimer.start();
 			ApiResponses apiResponses = responseBuilder.build(components, handlerMethod, operation, methodAttributes);
 			operation.setResponses(apiResponses);
+			BuildTimer.record(BuildPhase.RESPONSE_BUILDING, responseStart);
 
 			Set<Callback> apiCallbacks = AnnotatedElementUtils.findMergedRepeatableAnnotations(method, Callback.class);
 
@@ -316,11 +1340,366 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 			buildCallbacks(openAPI, methodAttributes, operation, apiCallbacks);
 
 			// allow for customisation
-			customiseOperation(operation, handlerMethod);
+			if (customise)
+				customiseOperation(operation, handlerMethod);
 
 			PathItem pathItemObject = buildPathItem(requestMethod, operation, operationPath, paths);
 			paths.addPathItem(operationPath, pathItemObject);
+			indexOperationId(openAPI, requestMethod, operation, indexed);
+		}
+	}
+
+	/**
+	 * Calculate the paths of the given operations, in order. With the parallel or the incremental build enabled,
+	 * the operations are calculated controller by controller, see {@link #calculatePathsByController(List, boolean, boolean)}.
+	 *
+	 * @param pathOperations the path operations
+	 */
+	protected void calculatePaths(List<PathOperation> pathOperations) {
+		boolean incremental = ninjaDocConfigProperties.getCache().isIncrementalBuildEnabled();
+		boolean parallel = ninjaDocConfigProperties.isParallelBuildEnabled() && pathOperations.size() > 1;
+		if (incremental || parallel)
+			calculatePathsByController(pathOperations, incremental, parallel);
+		else
+			pathOperations.forEach(pathOperation -> calculatePath(pathOperation.getHandlerMethod(), pathOperation.getRouterOperation()));
+	}
+
+	/**
+	 * Gets the pool of the parallel builds, shared by every group and build. It is created on first use with the
+	 * configured parallelism; its threads are daemon threads.
+	 *
+	 * @return the parallel build pool
+	 */
+	private ForkJoinPool getParallelBuildPool() {
+		ForkJoinPool pool = parallelBuildPool;
+		if (pool == null) {
+			synchronized (AbstractOpenApiResource.class) {
+				pool = parallelBuildPool;
+				if (pool == null) {
+					int parallelism = ninjaDocConfigProperties.getParallelBuildParallelism();
+					pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), forkJoinPool -> {
+						ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+						thread.setName("ninjadoc-build-" + thread.getPoolIndex());
+						return thread;
+					}, null, false);
+					parallelBuildPool = pool;
+				}
+			}
+		}
+		return pool;
+	}
+
+	/**
+	 * Calculate the paths controller by controller. Each fragment only holds the paths of its controller and the
+	 * components it added, with operationIds left as requested; the operations are then merged in route order, which
+	 * decides the operationId suffixes, and customised as they are merged. The open api is the one of a sequential build.
+	 * <p>
+	 * With the parallel build, the fragments are calculated on the parallel build pool, each with a schema cache of its
+	 * own. With the incremental build, the fragment of every controller unchanged since the last build of the group is
+	 * reused: same operations, same bytecode, and same bytecode of the model classes its operations reference,
+	 * see {@link ControllerFragment#modelsDigestOf(List)}.
+	 *
+	 * @param pathOperations the path operations
+	 * @param incremental    reuse the fragments of the unchanged controllers
+	 * @param parallel       calculate the fragments in parallel
+	 */
+	private void calculatePathsByController(List<PathOperation> pathOperations, boolean incremental, boolean parallel) {
+		OpenAPI openAPI = openAPIBuilder.getCalculatedOpenAPI();
+		Map<Class<?>, List<PathOperation>> operationsByController = pathOperations.stream()
+				.collect(Collectors.groupingBy(pathOperation -> pathOperation.getHandlerMethod().getBeanType(), LinkedHashMap::new, Collectors.toList()));
+		String settings = incremental ? getFragmentSettings() : null;
+		FragmentStore previousStore = incremental ? this.controllerFragments : null;
+		Map<String, ControllerFragment> previousFragments = (previousStore != null && previousStore.settings.equals(settings))
+				? previousStore.fragments : Collections.emptyMap();
+		Map<Class<?>, OpenAPI> controllerFragments = new LinkedHashMap<>();
+		Map<Class<?>, ControllerFragment> reusedFragments = new HashMap<>();
+		List<Class<?>> changedControllers = new ArrayList<>();
+		for (Map.Entry<Class<?>, List<PathOperation>> controllerOperations : operationsByController.entrySet()) {
+			Class<?> controllerClass = controllerOperations.getKey();
+			ControllerFragment fragment = previousFragments.get(controllerClass.getName());
+			if (fragment != null && fragment.matches(CLASS_DIGESTS.get(controllerClass), ControllerFragment.modelsDigestOf(controllerOperations.getValue()),
+					ControllerFragment.signatureOf(controllerOperations.getValue()))) {
+				// the published snapshot owns the instances merged by the previous build, so this one merges a copy
+				controllerFragments.put(controllerClass, fragment.getFragment());
+				reusedFragments.put(controllerClass, fragment);
+			} else {
+				// keeps the place of the controller, its fragment is calculated below
+				controllerFragments.put(controllerClass, null);
+				changedControllers.add(controllerClass);
+			}
+		}
+		// every fragment is calculated before any merge, against the components of the open api alone
+		SchemaResolutionCache schemaResolutionCache = SchemaResolutionCache.current();
+		if (parallel && changedControllers.size() > 1) {
+			BuildTimer buildTimer = BuildTimer.current();
+			Map<Class<?>, ForkJoinTask<OpenAPI>> tasks = new LinkedHashMap<>();
+			for (Class<?> controllerClass : changedControllers) {
+				List<PathOperation> operations = operationsByController.get(controllerClass);
+				Supplier<OpenAPI> task = () -> calculateControllerFragment(openAPI, operations, schemaResolutionCache);
+				tasks.put(controllerClass, getParallelBuildPool().submit(() -> (buildTimer == null) ? task.get() : buildTimer.call(task)));
+			}
+			// a failure of any fragment fails the build
+			tasks.forEach((controllerClass, task) -> controllerFragments.put(controllerClass, task.join()));
+		} else
+			changedControllers.forEach(controllerClass -> controllerFragments.put(controllerClass,
+					calculateControllerFragment(openAPI, operationsByController.get(controllerClass), schemaResolutionCache)));
+		if (incremental) {
+			// serialized before the merge modifies them; this build merges the fragments themselves
+			Map<String, ControllerFragment> fragments = new LinkedHashMap<>();
+			controllerFragments.forEach((controllerClass, controllerFragment) -> {
+				ControllerFragment fragment = reusedFragments.get(controllerClass);
+				if (fragment == null) {
+					List<PathOperation> operations = operationsByController.get(controllerClass);
+					fragment = new ControllerFragment(CLASS_DIGESTS.get(controllerClass), ControllerFragment.modelsDigestOf(operations),
+							ControllerFragment.signatureOf(operations), controllerFragment);
+				}
+				fragments.put(controllerClass.getName(), fragment);
+			});
+			this.controllerFragments = new FragmentStore(settings, fragments);
+			LOGGER.debug("NinjaDoc reused the operations of {} of {} controllers", reusedFragments.size(), fragments.size());
+		}
+		mergeFragments(openAPI, pathOperations, controllerFragments);
+	}
+
+	/**
+	 * Calculate the fragment of a controller, keeping only the components and tags it added to the open api.
+	 *
+	 * @param openAPI               the open api
+	 * @param operations            the operations of the controller
+	 * @param schemaResolutionCache the schema resolution cache of the build, may be null
+	 * @return the fragment
+	 */
+	private OpenAPI calculateControllerFragment(OpenAPI openAPI, List<PathOperation> operations, SchemaResolutionCache schemaResolutionCache) {
+		// a schema cache of its own, so the fragment holds every schema it references
+		OpenAPI fragment = calculateFragment(openAPI, operations,
+				(schemaResolutionCache != null) ? new SchemaResolutionCache(schemaResolutionCache.getShared()) : null);
+		removeBaseDefinitions(fragment, openAPI);
+		return fragment;
+	}
+
+	/**
+	 * Gets the settings the fragments depend on besides their controller: the ninjadoc properties and the operation
+	 * customizers. The fragments of a build with other settings are never reused; the properties may change at
+	 * runtime, so they are read again on every build.
+	 *
+	 * @return the fragment settings
+	 */
+	private String getFragmentSettings() {
+		StringBuilder builder = new StringBuilder();
+		getNinjaDocProperties().forEach((key, value) -> builder.append(key).append('=').append(value).append('\n'));
+		operationCustomizers.ifPresent(customizers -> customizers.stream().map(customizer -> customizer.getClass().getName() + '@' + CLASS_DIGESTS.get(customizer.getClass()))
+				.sorted().forEach(name -> builder.append(name).append('\n')));
+		return builder.toString();
+	}
+
+	/**
+	 * Remove from a fragment the components and tags it got from the open api, keeping the ones it added.
+	 *
+	 * @param fragment the fragment
+	 * @param openAPI  the open api the fragment was calculated against
+	 */
+	private static void removeBaseDefinitions(OpenAPI fragment, OpenAPI openAPI) {
+		Components components = openAPI.getComponents();
+		Components fragmentComponents = fragment.getComponents();
+		removeBaseComponents(fragmentComponents.getSchemas(), components.getSchemas());
+		removeBaseComponents(fragmentComponents.getResponses(), components.getResponses());
+		removeBaseComponents(fragmentComponents.getParameters(), components.getParameters());
+		removeBaseComponents(fragmentComponents.getExamples(), components.getExamples());
+		removeBaseComponents(fragmentComponents.getRequestBodies(), components.getRequestBodies());
+		removeBaseComponents(fragmentComponents.getHeaders(), components.getHeaders());
+		removeBaseComponents(fragmentComponents.getSecuritySchemes(), components.getSecuritySchemes());
+		removeBaseComponents(fragmentComponents.getLinks(), components.getLinks());
+		removeBaseComponents(fragmentComponents.getCallbacks(), components.getCallbacks());
+		if (fragment.getTags() != null && openAPI.getTags() != null)
+			fragment.getTags().removeAll(openAPI.getTags());
+	}
+
+	/**
+	 * Remove from a components map of a fragment the entries it copied from the open api.
+	 *
+	 * @param <T>       the type of the components
+	 * @param fragment  the components map of the fragment
+	 * @param base      the components map of the open api
+	 */
+	private static <T> void removeBaseComponents(Map<String, T> fragment, Map<String, T> base) {
+		if (fragment != null && base != null)
+			fragment.entrySet().removeIf(entry -> base.get(entry.getKey()) == entry.getValue());
+	}
+
+	/**
+	 * Calculate the operations of a single path into an isolated open api fragment.
+	 * The fragment starts from a copy of the components and tags of the open api, so lookups see the same definitions.
+	 * Its operationIds are left as requested, they are made unique when merged, and its operations are customised then.
+	 *
+	 * @param openAPI               the open api
+	 * @param operations            the operations of the path
+	 * @param schemaResolutionCache the schema resolution cache of the build, may be null
+	 * @return the fragment
+	 */
+	private OpenAPI calculateFragment(OpenAPI openAPI, List<PathOperation> operations, SchemaResolutionCache schemaResolutionCache) {
+		Components components = openAPI.getComponents();
+		OpenAPI fragment = new OpenAPI().paths(new Paths()).components(new Components()
+				.schemas(copyOf(components.getSchemas()))
+				.responses(copyOf(components.getResponses()))
+				.parameters(copyOf(components.getParameters()))
+				.examples(copyOf(components.getExamples()))
+				.requestBodies(copyOf(components.getRequestBodies()))
+				.headers(copyOf(components.getHeaders()))
+				.securitySchemes(copyOf(components.getSecuritySchemes()))
+				.links(copyOf(components.getLinks()))
+				.callbacks(copyOf(components.getCallbacks())));
+		fragment.setSecurity(openAPI.getSecurity());
+		if (openAPI.getTags() != null)
+			fragment.setTags(new ArrayList<>(openAPI.getTags()));
+		operationParser.deferOperationIds(fragment);
+		try {
+			Runnable task = () -> operations.forEach(pathOperation -> calculatePath(pathOperation.getHandlerMethod(), pathOperation.getRouterOperation(), fragment, false));
+			if (schemaResolutionCache == null)
+				task.run();
+			else
+				schemaResolutionCache.run(task);
+		} finally {
+			operationParser.resumeOperationIds(fragment);
+		}
+		return fragment;
+	}
+
+	/**
+	 * Merge the fragments into the open api: their components and tags in the order of the controllers, then their
+	 * operations in route order, so colliding operationIds get the same suffixes as in a sequential build.
+	 *
+	 * @param openAPI        the open api
+	 * @param pathOperations the path operations, in route order
+	 * @param fragments      the fragments, per controller class
+	 */
+	private void mergeFragments(OpenAPI openAPI, List<PathOperation> pathOperations, Map<Class<?>, OpenAPI> fragments) {
+		// the operations are taken out of the path items of the fragments, which keep their other fields
+		Map<Class<?>, Map<String, Map<HttpMethod, Operation>>> fragmentOperations = new HashMap<>();
+		fragments.forEach((controllerClass, fragment) -> {
+			mergeDefinitions(openAPI, fragment);
+			Map<String, Map<HttpMethod, Operation>> operationsByPath = new HashMap<>();
+			fragment.getPaths().forEach((path, pathItem) -> {
+				Map<HttpMethod, Operation> operationMap = pathItem.readOperationsMap();
+				operationMap.keySet().forEach(httpMethod -> pathItem.operation(httpMethod, null));
+				operationsByPath.put(path, operationMap);
+			});
+			fragmentOperations.put(controllerClass, operationsByPath);
+		});
+		for (PathOperation pathOperation : pathOperations) {
+			Class<?> controllerClass = pathOperation.getHandlerMethod().getBeanType();
+			String path = pathOperation.getRouterOperation().getPath();
+			Map<HttpMethod, Operation> operationMap = fragmentOperations.get(controllerClass).get(path);
+			if (operationMap == null)
+				continue;
+			for (RequestMethod requestMethod : pathOperation.getRouterOperation().getMethods()) {
+				Operation operation = operationMap.remove(HttpMethod.valueOf(requestMethod.name()));
+				if (operation != null)
+					mergeOperation(openAPI, fragments.get(controllerClass), path, HttpMethod.valueOf(requestMethod.name()), operation, pathOperation.getHandlerMethod());
+			}
 		}
+		// the operations of no route, if any, come last
+		fragmentOperations.forEach((controllerClass, operationsByPath) -> operationsByPath.forEach((path, operationMap) ->
+				operationMap.forEach((httpMethod, operation) -> mergeOperation(openAPI, fragments.get(controllerClass), path, httpMethod, operation, null))));
+	}
+
+	/**
+	 * Merge the components and tags of a fragment into the open api.
+	 *
+	 * @param openAPI  the open api
+	 * @param fragment the fragment
+	 */
+	private static void mergeDefinitions(OpenAPI openAPI, OpenAPI fragment) {
+		Components components = openAPI.getComponents();
+		Components fragmentComponents = fragment.getComponents();
+		components.setSchemas(merge(components.getSchemas(), fragmentComponents.getSchemas()));
+		components.setResponses(merge(components.getResponses(), fragmentComponents.getResponses()));
+		components.setParameters(merge(components.getParameters(), fragmentComponents.getParameters()));
+		components.setExamples(merge(components.getExamples(), fragmentComponents.getExamples()));
+		components.setRequestBodies(merge(components.getRequestBodies(), fragmentComponents.getRequestBodies()));
+		components.setHeaders(merge(components.getHeaders(), fragmentComponents.getHeaders()));
+		components.setSecuritySchemes(merge(components.getSecuritySchemes(), fragmentComponents.getSecuritySchemes()));
+		components.setLinks(merge(components.getLinks(), fragmentComponents.getLinks()));
+		components.setCallbacks(merge(components.getCallbacks(), fragmentComponents.getCallbacks()));
+
+		if (!CollectionUtils.isEmpty(fragment.getTags())) {
+			Set<io.swagger.v3.oas.models.tags.Tag> tagSet = new LinkedHashSet<>(fragment.getTags());
+			if (!CollectionUtils.isEmpty(openAPI.getTags()))
+				tagSet.addAll(openAPI.getTags());
+			openAPI.setTags(new ArrayList<>(tagSet));
+		}
+	}
+
+	/**
+	 * Merge an operation of a fragment into the open api, making its operationId unique against the operations
+	 * merged before it, then running the operation customizers on it. A path new to the open api gets the path item
+	 * of the fragment.
+	 *
+	 * @param openAPI       the open api
+	 * @param fragment      the fragment
+	 * @param path          the path
+	 * @param httpMethod    the http method
+	 * @param operation     the operation
+	 * @param handlerMethod the handler method of the operation, null if none
+	 */
+	private void mergeOperation(OpenAPI openAPI, OpenAPI fragment, String path, HttpMethod httpMethod, Operation operation, HandlerMethod handlerMethod) {
+		PathItem pathItem = openAPI.getPaths().get(path);
+		if (pathItem == null) {
+			pathItem = fragment.getPaths().get(path);
+			openAPI.getPaths().addPathItem(path, pathItem);
+		}
+		// an operation replaced in an existing path would leave a stale entry in the operation id index
+		boolean indexed = (pathItem.readOperationsMap().get(httpMethod) != null) && operationParser.removeOperationIdIndex(openAPI);
+		if (operation.getOperationId() != null)
+			operation.setOperationId(operationParser.getOperationId(operation.getOperationId(), openAPI));
+		if (handlerMethod != null)
+			customiseOperation(operation, handlerMethod);
+		pathItem.operation(httpMethod, operation);
+		if (indexed)
+			operationParser.indexOperationIds(openAPI);
+		else if (httpMethod != HttpMethod.TRACE)
+			operationParser.addOperationId(openAPI, operation.getOperationId());
+	}
+
+	/**
+	 * Copy of a components map.
+	 *
+	 * @param <T> the type of the components
+	 * @param map the map
+	 * @return the copy
+	 */
+	private static <T> Map<String, T> copyOf(Map<String, T> map) {
+		return (map == null) ? null : new LinkedHashMap<>(map);
+	}
+
+	/**
+	 * Merge a components map of a fragment into the components map of the open api.
+	 *
+	 * @param <T>    the type of the components
+	 * @param target the target
+	 * @param source the source
+	 * @return the merged map
+	 */
+	private static <T> Map<String, T> merge(Map<String, T> target, Map<String, T> source) {
+		if (CollectionUtils.isEmpty(source))
+			return target;
+		Map<String, T> merged = (target == null) ? new LinkedHashMap<>() : target;
+		merged.putAll(source);
+		return merged;
+	}
+
+	/**
+	 * Keep the operation id index of the open api in sync with an operation just added to its paths.
+	 *
+	 * @param openAPI           the open api
+	 * @param requestMethod     the request method
+	 * @param operation         the operation
+	 * @param reindex           true if the index was removed for an overloaded operation and must be rebuilt
+	 */
+	private void indexOperationId(OpenAPI openAPI, RequestMethod requestMethod, Operation operation, boolean reindex) {
+		if (reindex)
+			operationParser.indexOperationIds(openAPI);
+		else if (requestMethod != RequestMethod.TRACE)
+			operationParser.addOperationId(openAPI, operation.getOperationId());
 	}
 
 	/**
@@ -401,11 +1780,15 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 		}
 		for (RequestMethod requestMethod : routerOperation.getMethods()) {
 			Operation existingOperation = getExistingOperation(operationMap, requestMethod);
+			boolean indexed = (existingOperation != null) && operationParser.removeOperationIdIndex(openAPI);
 			MethodAttributes methodAttributes = new MethodAttributes(ninjaDocConfigProperties.getDefaultConsumesMediaType(), ninjaDocConfigProperties.getDefaultProducesMediaType(), methodConsumes, methodProduces, headers);
 			methodAttributes.setMethodOverloaded(existingOperation != null);
 			Operation operation = getOperation(routerOperation, existingOperation);
-			if (apiOperation != null)
+			if (apiOperation != null) {
+				long parseStart = BuildTimer.start();
 				openAPI = operationParser.parse(apiOperation, operation, openAPI, methodAttributes);
+				BuildTimer.record(BuildPhase.OPERATION_PARSING, parseStart);
+			}
 
 			String operationId = operationParser.getOperationId(operation.getOperationId(), openAPI);
 			operation.setOperationId(operationId);
@@ -421,6 +1804,7 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 				);
 			PathItem pathItemObject = buildPathItem(requestMethod, operation, operationPath, paths);
 			paths.addPathItem(operationPath, pathItemObject);
+			indexOperationId(openAPI, requestMethod, operation, indexed);
 		}
 	}
 
@@ -470,27 +1854,7 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	protected boolean isPackageToScan(Package aPackage) {
 		if (aPackage == null)
 			return true;
-		final String packageName = aPackage.getName();
-		List<String> packagesToScan = ninjaDocConfigProperties.getPackagesToScan();
-		List<String> packagesToExclude = ninjaDocConfigProperties.getPackagesToExclude();
-		if (CollectionUtils.isEmpty(packagesToScan)) {
-			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = ninjaDocConfigProperties.getGroupConfigs().stream().filter(groupConfig -> this.groupName.equals(groupConfig.getGroup())).findAny();
-			if (optionalGroupConfig.isPresent())
-				packagesToScan = optionalGroupConfig.get().getPackagesToScan();
-		}
-		if (CollectionUtils.isEmpty(packagesToExclude)) {
-			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = ninjaDocConfigProperties.getGroupConfigs().stream().filter(groupConfig -> this.groupName.equals(groupConfig.getGroup())).findAny();
-			if (optionalGroupConfig.isPresent())
-				packagesToExclude = optionalGroupConfig.get().getPackagesToExclude();
-		}
-		boolean include = CollectionUtils.isEmpty(packagesToScan)
-				|| packagesToScan.stream().anyMatch(pack -> packageName.equals(pack)
-				|| packageName.startsWith(pack + "."));
-		boolean exclude = !CollectionUtils.isEmpty(packagesToExclude)
-				&& (packagesToExclude.stream().anyMatch(pack -> packageName.equals(pack)
-				|| packageName.startsWith(pack + ".")));
-
-		return include && !exclude;
+		return getPackageMatcher().matches(aPackage.getName());
 	}
 
 	/**
@@ -500,21 +1864,58 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * @return the boolean
 	 */
 	protected boolean isPathToMatch(String operationPath) {
-		List<String> pathsToMatch = ninjaDocConfigProperties.getPathsToMatch();
-		List<String> pathsToExclude = ninjaDocConfigProperties.getPathsToExclude();
-		if (CollectionUtils.isEmpty(pathsToMatch)) {
-			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = ninjaDocConfigProperties.getGroupConfigs().stream().filter(groupConfig -> this.groupName.equals(groupConfig.getGroup())).findAny();
-			if (optionalGroupConfig.isPresent())
-				pathsToMatch = optionalGroupConfig.get().getPathsToMatch();
+		return getPathPatternMatcher().matches(operationPath);
+	}
+
+	/**
+	 * Gets the package matcher of the group, compiled on first use.
+	 *
+	 * @return the package matcher
+	 */
+	private PackageMatcher getPackageMatcher() {
+		PackageMatcher matcher = this.packageMatcher;
+		if (matcher == null) {
+			List<String> packagesToScan = ninjaDocConfigProperties.getPackagesToScan();
+			List<String> packagesToExclude = ninjaDocConfigProperties.getPackagesToExclude();
+			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = getGroupConfig();
+			if (CollectionUtils.isEmpty(packagesToScan) && optionalGroupConfig.isPresent())
+				packagesToScan = optionalGroupConfig.get().getPackagesToScan();
+			if (CollectionUtils.isEmpty(packagesToExclude) && optionalGroupConfig.isPresent())
+				packagesToExclude = optionalGroupConfig.get().getPackagesToExclude();
+			matcher = new PackageMatcher(packagesToScan, packagesToExclude);
+			this.packageMatcher = matcher;
 		}
-		if (CollectionUtils.isEmpty(pathsToExclude)) {
-			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = ninjaDocConfigProperties.getGroupConfigs().stream().filter(groupConfig -> this.groupName.equals(groupConfig.getGroup())).findAny();
-			if (optionalGroupConfig.isPresent())
+		return matcher;
+	}
+
+	/**
+	 * Gets the path pattern matcher of the group, compiled on first use.
+	 *
+	 * @return the path pattern matcher
+	 */
+	private PathPatternMatcher getPathPatternMatcher() {
+		PathPatternMatcher matcher = this.pathPatternMatcher;
+		if (matcher == null) {
+			List<String> pathsToMatch = ninjaDocConfigProperties.getPathsToMatch();
+			List<String> pathsToExclude = ninjaDocConfigProperties.getPathsToExclude();
+			Optional<NinjaDocConfigProperties.GroupConfig> optionalGroupConfig = getGroupConfig();
+			if (CollectionUtils.isEmpty(pathsToMatch) && optionalGroupConfig.isPresent())
+				pathsToMatch = optionalGroupConfig.get().getPathsToMatch();
+			if (CollectionUtils.isEmpty(pathsToExclude) && optionalGroupConfig.isPresent())
 				pathsToExclude = optionalGroupConfig.get().getPathsToExclude();
+			matcher = new PathPatternMatcher(pathsToMatch, pathsToExclude, antPathMatcher);
+			this.pathPatternMatcher = matcher;
 		}
-		boolean include = CollectionUtils.isEmpty(pathsToMatch) || pathsToMatch.stream().anyMatch(pattern -> antPathMatcher.match(pattern, operationPath));
-		boolean exclude = !CollectionUtils.isEmpty(pathsToExclude) && pathsToExclude.stream().anyMatch(pattern -> antPathMatcher.match(pattern, operationPath));
-		return include && !exclude;
+		return matcher;
+	}
+
+	/**
+	 * Gets the group config of this resource.
+	 *
+	 * @return the group config
+	 */
+	private Optional<NinjaDocConfigProperties.GroupConfig> getGroupConfig() {
+		return ninjaDocConfigProperties.getGroupConfigs().stream().filter(groupConfig -> this.groupName.equals(groupConfig.getGroup())).findAny();
 	}
 
 	/**
@@ -560,7 +1961,9 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	 * @return the operation
 	 */
 	protected Operation customiseOperation(Operation operation, HandlerMethod handlerMethod) {
+		long start = BuildTimer.start();
 		operationCustomizers.ifPresent(customizers -> customizers.forEach(customizer -> customizer.customize(operation, handlerMethod)));
+		BuildTimer.record(BuildPhase.CUSTOMISERS, start);
 		return operation;
 	}
 
@@ -862,7 +2265,8 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 	}
 
 	/**
-	 * Init open api builder.
+	 * Init open api builder. Each build calculates its open api from a copy of the bound one, so a reused builder
+	 * never modifies the open api of a published snapshot.
 	 */
 	protected void initOpenAPIBuilder() {
 		if (openAPIBuilder.getCachedOpenAPI() != null && ninjaDocConfigProperties.isCacheDisabled()) {
@@ -881,4 +2285,337 @@ public abstract class AbstractOpenApiResource extends SpecFilter {
 		factory.configure(Feature.USE_NATIVE_TYPE_ID, false);
 		return objectMapper;
 	}
+
+	/**
+	 * A handler method together with the path and request methods it serves.
+	 */
+	protected static class PathOperation {
+
+		/**
+		 * The Handler method.
+		 */
+		private final HandlerMethod handlerMethod;
+
+		/**
+		 * The Router operation.
+		 */
+		private final com.devappliance.ninjadoc.fn.RouterOperation routerOperation;
+
+		/**
+		 * Instantiates a new Path operation.
+		 *
+		 * @param handlerMethod   the handler method
+		 * @param routerOperation the router operation
+		 */
+		public PathOperation(HandlerMethod handlerMethod, com.devappliance.ninjadoc.fn.RouterOperation routerOperation) {
+			this.handlerMethod = handlerMethod;
+			this.routerOperation = routerOperation;
+		}
+
+		/**
+		 * Gets handler method.
+		 *
+		 * @return the handler method
+		 */
+		public HandlerMethod getHandlerMethod() {
+			return handlerMethod;
+		}
+
+		/**
+		 * Gets router operation.
+		 *
+		 * @return the router operation
+		 */
+		public com.devappliance.ninjadoc.fn.RouterOperation getRouterOperation() {
+			return routerOperation;
+		}
+	}
+
+	/**
+	 * The inputs of a build, when the cache is disabled with change detection: the route list of the registry,
+	 * and copies of the packages and paths selecting the operations of the group, which may be modified in place.
+	 * The open api customisers are not part of the inputs.
+	 */
+	private static final class BuildInputs {
+
+		/**
+		 * The Routes, compared by identity.
+		 */
+		private final List<Route> routes;
+
+		/**
+		 * The Selection of the config.
+		 */
+		private final Selection selection;
+
+		/**
+		 * The Selection of the group config, null without group config.
+		 */
+		private final Selection groupSelection;
+
+		/**
+		 * Instantiates new Build inputs.
+		 *
+		 * @param routes                   the routes
+		 * @param ninjaDocConfigProperties the ninja doc config properties
+		 * @param groupConfig              the group config, may be null
+		 */
+		private BuildInputs(List<Route> routes, NinjaDocConfigProperties ninjaDocConfigProperties, NinjaDocConfigProperties.GroupConfig groupConfig) {
+			this.routes = routes;
+			this.selection = new Selection(ninjaDocConfigProperties.getPackagesToScan(), ninjaDocConfigProperties.getPackagesToExclude(),
+					ninjaDocConfigProperties.getPathsToMatch(), ninjaDocConfigProperties.getPathsToExclude());
+			this.groupSelection = (groupConfig == null) ? null : new Selection(groupConfig.getPackagesToScan(),
+					groupConfig.getPackagesToExclude(), groupConfig.getPathsToMatch(), groupConfig.getPathsToExclude());
+		}
+	}
+
+	/**
+	 * The packages and paths selecting the operations of a group.
+	 */
+	private static final class Selection {
+
+		/**
+		 * The Packages to scan.
+		 */
+		private final List<String> packagesToScan;
+
+		/**
+		 * The Packages to exclude.
+		 */
+		private final List<String> packagesToExclude;
+
+		/**
+		 * The Paths to match.
+		 */
+		private final List<String> pathsToMatch;
+
+		/**
+		 * The Paths to exclude.
+		 */
+		private final List<String> pathsToExclude;
+
+		/**
+		 * Instantiates a new Selection, copying the lists.
+		 *
+		 * @param packagesToScan    the packages to scan
+		 * @param packagesToExclude the packages to exclude
+		 * @param pathsToMatch      the paths to match
+		 * @param pathsToExclude    the paths to exclude
+		 */
+		private Selection(List<String> packagesToScan, List<String> packagesToExclude, List<String> pathsToMatch, List<String> pathsToExclude) {
+			this.packagesToScan = copyOf(packagesToScan);
+			this.packagesToExclude = copyOf(packagesToExclude);
+			this.pathsToMatch = copyOf(pathsToMatch);
+			this.pathsToExclude = copyOf(pathsToExclude);
+		}
+
+		/**
+		 * Matches boolean.
+		 *
+		 * @param packagesToScan    the packages to scan
+		 * @param packagesToExclude the packages to exclude
+		 * @param pathsToMatch      the paths to match
+		 * @param pathsToExclude    the paths to exclude
+		 * @return true if the lists are equal to the copies
+		 */
+		private boolean matches(List<String> packagesToScan, List<String> packagesToExclude, List<String> pathsToMatch, List<String> pathsToExclude) {
+			return Objects.equals(this.packagesToScan, packagesToScan) && Objects.equals(this.packagesToExclude, packagesToExclude)
+					&& Objects.equals(this.pathsToMatch, pathsToMatch) && Objects.equals(this.pathsToExclude, pathsToExclude);
+		}
+	}
+
+	/**
+	 * The fragments of the last incremental build of a group, with the settings they were calculated with.
+	 */
+	private static final class FragmentStore {
+
+		/**
+		 * The Settings.
+		 */
+		private final String settings;
+
+		/**
+		 * The Fragments, per controller class name.
+		 */
+		private final Map<String, ControllerFragment> fragments;
+
+		/**
+		 * Instantiates a new Fragment store.
+		 *
+		 * @param settings  the settings
+		 * @param fragments the fragments
+		 */
+		private FragmentStore(String settings, Map<String, ControllerFragment> fragments) {
+			this.settings = settings;
+			this.fragments = fragments;
+		}
+	}
+
+	/**
+	 * The operations of a controller and the components they added, kept serialized between incremental builds
+	 * so that a build reusing them merges a fresh copy.
+	 */
+	private static final class ControllerFragment {
+
+		/**
+		 * The digest of the bytecode of the controller class.
+		 */
+		private final String classDigest;
+
+		/**
+		 * The digest of the model classes of the operations, null when one could not be read.
+		 */
+		private final String modelsDigest;
+
+		/**
+		 * The operations of the controller.
+		 */
+		private final List<String> operations;
+
+		/**
+		 * The serialized fragment.
+		 */
+		private final byte[] fragment;
+
+		/**
+		 * Instantiates a new Controller fragment.
+		 *
+		 * @param classDigest  the class digest
+		 * @param modelsDigest the models digest
+		 * @param operations   the operations
+		 * @param fragment     the fragment
+		 */
+		private ControllerFragment(String classDigest, String modelsDigest, List<String> operations, OpenAPI fragment) {
+			this.classDigest = classDigest;
+			this.modelsDigest = modelsDigest;
+			this.operations = operations;
+			this.fragment = write(fragment);
+		}
+
+		/**
+		 * Gets the signature of the operations of a controller: their paths, request methods and handler methods.
+		 *
+		 * @param pathOperations the path operations of the controller
+		 * @return the signature
+		 */
+		private static List<String> signatureOf(List<PathOperation> pathOperations) {
+			return pathOperations.stream()
+					.map(pathOperation -> pathOperation.getRouterOperation().getPath() + ' '
+							+ Arrays.toString(pathOperation.getRouterOperation().getMethods()) + ' '
+							+ pathOperation.getHandlerMethod().getMethod())
+					.collect(Collectors.toList());
+		}
+
+		/**
+		 * Gets the digest of the model classes of the operations of a controller: the classes of the parameters,
+		 * return types and documented return types of their handler methods, and every class reachable from them
+		 * through fields and superclasses. The classes of the JDK and of Ninja are left out.
+		 *
+		 * @param pathOperations the path operations of the controller
+		 * @return the digest, or null when a class file cannot be read
+		 */
+		private static String modelsDigestOf(List<PathOperation> pathOperations) {
+			Map<String, Class<?>> models = modelsOf(pathOperations.stream().map(pathOperation -> pathOperation.getHandlerMethod().getMethod())
+					.collect(Collectors.toList()));
+			StringBuilder digests = new StringBuilder();
+			for (Map.Entry<String, Class<?>> model : models.entrySet()) {
+				String digest = CLASS_DIGESTS.get(model.getValue());
+				if (digest.isEmpty())
+					return null;
+				digests.append(model.getKey()).append('=').append(digest).append('\n');
+			}
+			return RenderedSpec.computeDigest(digests.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Gets the model classes of handler methods, by name.
+		 *
+		 * @param methods the handler methods
+		 * @return the model classes
+		 */
+		private static Map<String, Class<?>> modelsOf(Collection<Method> methods) {
+			Deque<Type> types = new ArrayDeque<>();
+			for (Method method : methods) {
+				types.add(method.getGenericReturnType());
+				types.addAll(Arrays.asList(method.getGenericParameterTypes()));
+				DocumentReturnType documentReturnType = method.getAnnotation(DocumentReturnType.class);
+				if (documentReturnType != null) {
+					types.add(documentReturnType.type());
+					types.addAll(Arrays.asList(documentReturnType.genericTypes()));
+				}
+			}
+			Map<String, Class<?>> models = new TreeMap<>();
+			while (!types.isEmpty()) {
+				Type type = types.pop();
+				if (type instanceof ParameterizedType) {
+					types.add(((ParameterizedType) type).getRawType());
+					types.addAll(Arrays.asList(((ParameterizedType) type).getActualTypeArguments()));
+				} else if (type instanceof GenericArrayType)
+					types.add(((GenericArrayType) type).getGenericComponentType());
+				else if (type instanceof WildcardType) {
+					types.addAll(Arrays.asList(((WildcardType) type).getUpperBounds()));
+					types.addAll(Arrays.asList(((WildcardType) type).getLowerBounds()));
+				} else if (type instanceof Class) {
+					Class<?> clazz = (Class<?>) type;
+					if (clazz.isArray())
+						types.add(clazz.getComponentType());
+					else if (clazz.getClassLoader() != null && !clazz.getName().startsWith("ninja.") && models.put(clazz.getName(), clazz) == null) {
+						for (Field field : clazz.getDeclaredFields()) {
+							if (!Modifier.isStatic(field.getModifiers()))
+								types.add(field.getGenericType());
+						}
+						if (clazz.getGenericSuperclass() != null)
+							types.add(clazz.getGenericSuperclass());
+					}
+				}
+			}
+			return models;
+		}
+
+		/**
+		 * Matches boolean: whether the controller is unchanged since this fragment was calculated.
+		 *
+		 * @param classDigest  the digest of the current controller class
+		 * @param modelsDigest the digest of the current model classes
+		 * @param operations   the current operations
+		 * @return the boolean
+		 */
+		private boolean matches(String classDigest, String modelsDigest, List<String> operations) {
+			return !classDigest.isEmpty() && classDigest.equals(this.classDigest)
+					&& modelsDigest != null && modelsDigest.equals(this.modelsDigest)
+					&& operations.equals(this.operations);
+		}
+
+		/**
+		 * Gets a fresh copy of the fragment.
+		 *
+		 * @return the fragment
+		 */
+		private OpenAPI getFragment() {
+			try {
+				OpenAPI openAPI = Json.mapper().readValue(fragment, OpenAPI.class);
+				if (openAPI.getPaths() == null)
+					openAPI.setPaths(new Paths());
+				if (openAPI.getComponents() == null)
+					openAPI.setComponents(new Components());
+				return openAPI;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Serialize a fragment.
+		 *
+		 * @param fragment the fragment
+		 * @return the serialized fragment
+		 */
+		private static byte[] write(OpenAPI fragment) {
+			try {
+				return Json.mapper().writeValueAsBytes(fragment);
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
 }
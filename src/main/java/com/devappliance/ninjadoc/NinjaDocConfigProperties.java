@@ -20,6 +20,9 @@
 
 package com.devappliance.ninjadoc;
 
+import com.devappliance.ninjadoc.cache.OpenApiSnapshot;
+import com.devappliance.ninjadoc.cache.RenderedSpecCache;
+import com.devappliance.ninjadoc.cache.SpecHistory;
 import com.devappliance.ninjadoc.config.NinjaDocDefaultConfig;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -114,6 +117,50 @@ public class NinjaDocConfigProperties {
      */
     private boolean useFqn;
 
+    /**
+     * Build the api docs in the background at startup.
+     */
+    @JsonProperty("pre-loading-enabled")
+    private boolean preLoadingEnabled;
+
+    /**
+     * Calculate the operations of each controller in parallel, before merging them in route order.
+     */
+    @JsonProperty("parallel-build-enabled")
+    private boolean parallelBuildEnabled;
+
+    /**
+     * The parallelism of the parallel build, the number of processors when not positive.
+     */
+    @JsonProperty("parallel-build-parallelism")
+    private int parallelBuildParallelism;
+
+    /**
+     * Serve the api docs generated at build time, while the routes, the controller, model and customiser classes,
+     * and the ninjadoc and swagger versions are still the ones they were generated from.
+     * Off by default: the documents are generated with the ninjadoc properties of the build.
+     */
+    @JsonProperty("prebuilt-enabled")
+    private boolean prebuiltEnabled;
+
+    /**
+     * Is prebuilt enabled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isPrebuiltEnabled() {
+        return prebuiltEnabled;
+    }
+
+    /**
+     * Sets prebuilt enabled.
+     *
+     * @param prebuiltEnabled the prebuilt enabled
+     */
+    public void setPrebuiltEnabled(boolean prebuiltEnabled) {
+        this.prebuiltEnabled = prebuiltEnabled;
+    }
+
     /**
      * Is use fqn boolean.
      *
@@ -132,6 +179,60 @@ public class NinjaDocConfigProperties {
         this.useFqn = useFqn;
     }
 
+    /**
+     * Is pre loading enabled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isPreLoadingEnabled() {
+        return preLoadingEnabled;
+    }
+
+    /**
+     * Sets pre loading enabled.
+     *
+     * @param preLoadingEnabled the pre loading enabled
+     */
+    public void setPreLoadingEnabled(boolean preLoadingEnabled) {
+        this.preLoadingEnabled = preLoadingEnabled;
+    }
+
+    /**
+     * Is parallel build enabled boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isParallelBuildEnabled() {
+        return parallelBuildEnabled;
+    }
+
+    /**
+     * Sets parallel build enabled.
+     *
+     * @param parallelBuildEnabled the parallel build enabled
+     */
+    public void setParallelBuildEnabled(boolean parallelBuildEnabled) {
+        this.parallelBuildEnabled = parallelBuildEnabled;
+    }
+
+    /**
+     * Gets parallel build parallelism.
+     *
+     * @return the parallel build parallelism
+     */
+    public int getParallelBuildParallelism() {
+        return parallelBuildParallelism;
+    }
+
+    /**
+     * Sets parallel build parallelism.
+     *
+     * @param parallelBuildParallelism the parallel build parallelism
+     */
+    public void setParallelBuildParallelism(int parallelBuildParallelism) {
+        this.parallelBuildParallelism = parallelBuildParallelism;
+    }
+
     /**
      * Is auto tag classes boolean.
      *
@@ -619,6 +720,12 @@ public class NinjaDocConfigProperties {
          */
         private boolean enabled;
 
+        /**
+         * Build every group together, concurrently, on the first request to any of them.
+         */
+        @JsonProperty("concurrent-build-enabled")
+        private boolean concurrentBuildEnabled;
+
         /**
          * Is enabled boolean.
          *
@@ -636,6 +743,24 @@ public class NinjaDocConfigProperties {
         public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
+
+        /**
+         * Is concurrent build enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isConcurrentBuildEnabled() {
+            return concurrentBuildEnabled;
+        }
+
+        /**
+         * Sets concurrent build enabled.
+         *
+         * @param concurrentBuildEnabled the concurrent build enabled
+         */
+        public void setConcurrentBuildEnabled(boolean concurrentBuildEnabled) {
+            this.concurrentBuildEnabled = concurrentBuildEnabled;
+        }
     }
 
     /**
@@ -649,6 +774,73 @@ public class NinjaDocConfigProperties {
          */
         private boolean disabled;
 
+        /**
+         * The max number of rendered documents kept per generated spec, one per server url.
+         */
+        @JsonProperty("max-rendered-documents")
+        private int maxRenderedDocuments = RenderedSpecCache.DEFAULT_MAX_ENTRIES;
+
+        /**
+         * Memoize the schemas resolved while building a spec.
+         */
+        @JsonProperty("schema-resolution-enabled")
+        private boolean schemaResolutionEnabled = true;
+
+        /**
+         * Keep gzip and deflate renderings of the rendered documents, served according to Accept-Encoding.
+         */
+        @JsonProperty("compression-enabled")
+        private boolean compressionEnabled = true;
+
+        /**
+         * The max number of filtered views kept per generated spec, selected with the tags and paths query parameters.
+         */
+        @JsonProperty("max-filtered-views")
+        private int maxFilteredViews = OpenApiSnapshot.DEFAULT_MAX_VIEWS;
+
+        /**
+         * The max number of past json versions kept per group, to answer the since query parameter with a patch.
+         */
+        @JsonProperty("max-history-versions")
+        private int maxHistoryVersions = SpecHistory.DEFAULT_MAX_VERSIONS;
+
+        /**
+         * The max number of bytes of the past json versions kept per group.
+         */
+        @JsonProperty("max-history-size")
+        private long maxHistorySize = SpecHistory.DEFAULT_MAX_SIZE;
+
+        /**
+         * The directory keeping the rendered documents across restarts, none when not set.
+         */
+        @JsonProperty("disk-directory")
+        private String diskDirectory;
+
+        /**
+         * When the cache is disabled, only rebuild the spec once its routes, controller classes or group configs changed.
+         */
+        @JsonProperty("change-detection-enabled")
+        private boolean changeDetectionEnabled;
+
+        /**
+         * Reuse the operations and schemas of the controllers unchanged since the last build of the spec by the same
+         * application: same operations, same bytecode, and same bytecode of the model classes they reference.
+         */
+        @JsonProperty("incremental-build-enabled")
+        private boolean incrementalBuildEnabled;
+
+        /**
+         * Serve the last good spec while a single background build refreshes it, instead of blocking readers.
+         */
+        @JsonProperty("stale-while-revalidate-enabled")
+        private boolean staleWhileRevalidateEnabled;
+
+        /**
+         * The age in milliseconds after which the spec is refreshed in the background, 0 for never when the cache is enabled.
+         */
+        @JsonProperty("refresh-ttl")
+        private long refreshTtl;
+
         /**
          * Is disabled boolean.
          *
@@ -666,6 +858,204 @@ public class NinjaDocConfigProperties {
         public void setDisabled(boolean disabled) {
             this.disabled = disabled;
         }
+
+        /**
+         * Gets max rendered documents.
+         *
+         * @return the max rendered documents
+         */
+        public int getMaxRenderedDocuments() {
+            return maxRenderedDocuments;
+        }
+
+        /**
+         * Sets max rendered documents.
+         *
+         * @param maxRenderedDocuments the max rendered documents
+         */
+        public void setMaxRenderedDocuments(int maxRenderedDocuments) {
+            this.maxRenderedDocuments = maxRenderedDocuments;
+        }
+
+        /**
+         * Is schema resolution enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isSchemaResolutionEnabled() {
+            return schemaResolutionEnabled;
+        }
+
+        /**
+         * Sets schema resolution enabled.
+         *
+         * @param schemaResolutionEnabled the schema resolution enabled
+         */
+        public void setSchemaResolutionEnabled(boolean schemaResolutionEnabled) {
+            this.schemaResolutionEnabled = schemaResolutionEnabled;
+        }
+
+        /**
+         * Is compression enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isCompressionEnabled() {
+            return compressionEnabled;
+        }
+
+        /**
+         * Sets compression enabled.
+         *
+         * @param compressionEnabled the compression enabled
+         */
+        public void setCompressionEnabled(boolean compressionEnabled) {
+            this.compressionEnabled = compressionEnabled;
+        }
+
+        /**
+         * Gets max filtered views.
+         *
+         * @return the max filtered views
+         */
+        public int getMaxFilteredViews() {
+            return maxFilteredViews;
+        }
+
+        /**
+         * Sets max filtered views.
+         *
+         * @param maxFilteredViews the max filtered views
+         */
+        public void setMaxFilteredViews(int maxFilteredViews) {
+            this.maxFilteredViews = maxFilteredViews;
+        }
+
+        /**
+         * Gets max history versions.
+         *
+         * @return the max history versions
+         */
+        public int getMaxHistoryVersions() {
+            return maxHistoryVersions;
+        }
+
+        /**
+         * Sets max history versions.
+         *
+         * @param maxHistoryVersions the max history versions
+         */
+        public void setMaxHistoryVersions(int maxHistoryVersions) {
+            this.maxHistoryVersions = maxHistoryVersions;
+        }
+
+        /**
+         * Gets max history size.
+         *
+         * @return the max history size
+         */
+        public long getMaxHistorySize() {
+            return maxHistorySize;
+        }
+
+        /**
+         * Sets max history size.
+         *
+         * @param maxHistorySize the max history size
+         */
+        public void setMaxHistorySize(long maxHistorySize) {
+            this.maxHistorySize = maxHistorySize;
+        }
+
+        /**
+         * Gets disk directory.
+         *
+         * @return the disk directory
+         */
+        public String getDiskDirectory() {
+            return diskDirectory;
+        }
+
+        /**
+         * Sets disk directory.
+         *
+         * @param diskDirectory the disk directory
+         */
+        public void setDiskDirectory(String diskDirectory) {
+            this.diskDirectory = diskDirectory;
+        }
+
+        /**
+         * Is change detection enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isChangeDetectionEnabled() {
+            return changeDetectionEnabled;
+        }
+
+        /**
+         * Sets change detection enabled.
+         *
+         * @param changeDetectionEnabled the change detection enabled
+         */
+        public void setChangeDetectionEnabled(boolean changeDetectionEnabled) {
+            this.changeDetectionEnabled = changeDetectionEnabled;
+        }
+
+        /**
+         * Is incremental build enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isIncrementalBuildEnabled() {
+            return incrementalBuildEnabled;
+        }
+
+        /**
+         * Sets incremental build enabled.
+         *
+         * @param incrementalBuildEnabled the incremental build enabled
+         */
+        public void setIncrementalBuildEnabled(boolean incrementalBuildEnabled) {
+            this.incrementalBuildEnabled = incrementalBuildEnabled;
+        }
+
+        /**
+         * Is stale while revalidate enabled boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isStaleWhileRevalidateEnabled() {
+            return staleWhileRevalidateEnabled;
+        }
+
+        /**
+         * Sets stale while revalidate enabled.
+         *
+         * @param staleWhileRevalidateEnabled the stale while revalidate enabled
+         */
+        public void setStaleWhileRevalidateEnabled(boolean staleWhileRevalidateEnabled) {
+            this.staleWhileRevalidateEnabled = staleWhileRevalidateEnabled;
+        }
+
+        /**
+         * Gets refresh ttl.
+         *
+         * @return the refresh ttl
+         */
+        public long getRefreshTtl() {
+            return refreshTtl;
+        }
+
+        /**
+         * Sets refresh ttl.
+         *
+         * @param refreshTtl the refresh ttl
+         */
+        public void setRefreshTtl(long refreshTtl) {
+            this.refreshTtl = refreshTtl;
+        }
     }
 
     /**
@@ -33,6 +33,7 @@ import io.swagger.v3.oas.annotations.tags.Tags;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.Paths;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
@@ -162,7 +163,7 @@ public class OpenAPIBuilder {
     }
 
     /**
-     * Build.
+     * Build. The open api bound by the application is copied, so a build never modifies it.
      */
     public void build() {
         Optional<OpenAPIDefinition> apiDef = getOpenAPIDefinition();
@@ -171,7 +172,7 @@ public class OpenAPIBuilder {
             this.calculatedOpenAPI.setComponents(new Components());
             this.calculatedOpenAPI.setPaths(new Paths());
         } else
-            this.calculatedOpenAPI = openAPI;
+            this.calculatedOpenAPI = copyOf(openAPI);
 
         if (apiDef.isPresent()) {
             buildOpenAPIWithOpenAPIDefinition(calculatedOpenAPI, apiDef.get());
@@ -191,6 +192,98 @@ public class OpenAPIBuilder {
         openApiBuilderCustomisers.ifPresent(customisers -> customisers.forEach(customiser -> customiser.customise(this)));
     }
 
+    /**
+     * Copy of an open api, down to the parts a build modifies: the paths and their path items, the maps of the
+     * components, the info and the lists of servers, tags and security requirements. The other parts are shared.
+     *
+     * @param openAPI the open api
+     * @return the copy
+     */
+    private static OpenAPI copyOf(OpenAPI openAPI) {
+        OpenAPI copy = new OpenAPI()
+                .openapi(openAPI.getOpenapi())
+                .info(copyOf(openAPI.getInfo()))
+                .externalDocs(openAPI.getExternalDocs())
+                .servers(copyOf(openAPI.getServers()))
+                .security(copyOf(openAPI.getSecurity()))
+                .tags(copyOf(openAPI.getTags()))
+                .paths(new Paths())
+                .components(new Components());
+        copy.setExtensions(copyOf(openAPI.getExtensions()));
+        if (openAPI.getPaths() != null) {
+            openAPI.getPaths().forEach((path, pathItem) -> copy.getPaths().addPathItem(path, copyOf(pathItem)));
+            copy.getPaths().setExtensions(copyOf(openAPI.getPaths().getExtensions()));
+        }
+        Components components = openAPI.getComponents();
+        if (components != null) {
+            Components componentsCopy = copy.getComponents();
+            componentsCopy.setSchemas(copyOf(components.getSchemas()));
+            componentsCopy.setResponses(copyOf(components.getResponses()));
+            componentsCopy.setParameters(copyOf(components.getParameters()));
+            componentsCopy.setExamples(copyOf(components.getExamples()));
+            componentsCopy.setRequestBodies(copyOf(components.getRequestBodies()));
+            componentsCopy.setHeaders(copyOf(components.getHeaders()));
+            componentsCopy.setSecuritySchemes(copyOf(components.getSecuritySchemes()));
+            componentsCopy.setLinks(copyOf(components.getLinks()));
+            componentsCopy.setCallbacks(copyOf(components.getCallbacks()));
+            componentsCopy.setExtensions(copyOf(components.getExtensions()));
+        }
+        return copy;
+    }
+
+    /**
+     * Copy of an info.
+     *
+     * @param info the info
+     * @return the copy
+     */
+    private static Info copyOf(Info info) {
+        if (info == null)
+            return null;
+        Info copy = new Info().title(info.getTitle()).description(info.getDescription())
+                .termsOfService(info.getTermsOfService()).contact(info.getContact())
+                .license(info.getLicense()).version(info.getVersion());
+        copy.setExtensions(copyOf(info.getExtensions()));
+        return copy;
+    }
+
+    /**
+     * Copy of a path item, sharing its operations.
+     *
+     * @param pathItem the path item
+     * @return the copy
+     */
+    private static PathItem copyOf(PathItem pathItem) {
+        PathItem copy = new PathItem().summary(pathItem.getSummary()).description(pathItem.getDescription())
+                .servers(copyOf(pathItem.getServers())).parameters(copyOf(pathItem.getParameters()));
+        copy.set$ref(pathItem.get$ref());
+        copy.setExtensions(copyOf(pathItem.getExtensions()));
+        pathItem.readOperationsMap().forEach(copy::operation);
+        return copy;
+    }
+
+    /**
+     * Copy of a list.
+     *
+     * @param <T>  the type of the elements
+     * @param list the list
+     * @return the copy
+     */
+    private static <T> List<T> copyOf(List<T> list) {
+        return (list == null) ? null : new ArrayList<>(list);
+    }
+
+    /**
+     * Copy of a map.
+     *
+     * @param <V> the type of the values
+     * @param map the map
+     * @return the copy
+     */
+    private static <V> Map<String, V> copyOf(Map<String, V> map) {
+        return (map == null) ? null : new LinkedHashMap<>(map);
+    }
+
     /**
      * Update servers open api.
      *
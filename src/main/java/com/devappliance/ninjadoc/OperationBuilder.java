@@ -22,6 +22,7 @@ package com.devappliance.ninjadoc;
 
 import com.devappliance.ninjadoc.util.Constants;
 import com.devappliance.ninjadoc.util.NinjaDocAnnotationsUtils;
+import com.google.common.collect.MapMaker;
 import com.google.inject.Inject;
 import io.swagger.v3.core.util.AnnotationsUtils;
 import io.swagger.v3.oas.annotations.Hidden;
@@ -75,6 +76,16 @@ public class OperationBuilder {
      */
     private final PropertyResolverUtils propertyResolverUtils;
 
+    /**
+     * The operation id indexes of the open apis being calculated, compared by identity.
+     */
+    private final Map<OpenAPI, OperationIdIndex> operationIdIndexes = new MapMaker().weakKeys().makeMap();
+
+    /**
+     * The open apis whose operation ids are made unique later, once merged into another open api, compared by identity.
+     */
+    private final Set<OpenAPI> deferredOperationIds = Collections.newSetFromMap(new MapMaker().weakKeys().<OpenAPI, Boolean>makeMap());
+
     /**
      * Instantiates a new Operation builder.
      *
@@ -286,6 +297,11 @@ public class OperationBuilder {
      * @return the operation id
      */
     public String getOperationId(String operationId, OpenAPI openAPI) {
+        if (openAPI != null && deferredOperationIds.contains(openAPI))
+            return operationId;
+        OperationIdIndex operationIdIndex = (openAPI == null) ? null : operationIdIndexes.get(openAPI);
+        if (operationIdIndex != null)
+            return operationIdIndex.getOperationId(operationId);
         boolean operationIdUsed = existOperationId(operationId, openAPI);
         String operationIdToFind = null;
         int counter = 0;
@@ -299,6 +315,61 @@ public class OperationBuilder {
         return operationId;
     }
 
+    /**
+     * Index the operation ids of the open api, until {@link #removeOperationIdIndex(OpenAPI)} is called.
+     * While indexed, every operation added to the paths must be registered with {@link #addOperationId(OpenAPI, String)}.
+     *
+     * @param openAPI the open api
+     */
+    public void indexOperationIds(OpenAPI openAPI) {
+        OperationIdIndex operationIdIndex = new OperationIdIndex();
+        if (openAPI.getPaths() != null)
+            openAPI.getPaths().values().forEach(path -> operationIdIndex.addAll(extractOperationIdFromPathItem(path)));
+        operationIdIndexes.put(openAPI, operationIdIndex);
+    }
+
+    /**
+     * Register the operation id of an operation added to the paths of the open api.
+     *
+     * @param openAPI     the open api
+     * @param operationId the operation id
+     */
+    public void addOperationId(OpenAPI openAPI, String operationId) {
+        OperationIdIndex operationIdIndex = operationIdIndexes.get(openAPI);
+        if (operationIdIndex != null)
+            operationIdIndex.add(operationId);
+    }
+
+    /**
+     * Remove the operation id index of the open api.
+     *
+     * @param openAPI the open api
+     * @return true if the open api was indexed
+     */
+    public boolean removeOperationIdIndex(OpenAPI openAPI) {
+        return operationIdIndexes.remove(openAPI) != null;
+    }
+
+    /**
+     * Keep the operation ids of the operations added to the open api as requested, without suffixes, until
+     * {@link #resumeOperationIds(OpenAPI)} is called. The ids are made unique once the operations are merged
+     * into the open api they belong to.
+     *
+     * @param openAPI the open api
+     */
+    public void deferOperationIds(OpenAPI openAPI) {
+        deferredOperationIds.add(openAPI);
+    }
+
+    /**
+     * Make the operation ids of the operations added to the open api unique again.
+     *
+     * @param openAPI the open api
+     */
+    public void resumeOperationIds(OpenAPI openAPI) {
+        deferredOperationIds.remove(openAPI);
+    }
+
     /**
      * Exist operation id boolean.
      *
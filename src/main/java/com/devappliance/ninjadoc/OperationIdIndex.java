@@ -0,0 +1,65 @@
+package com.devappliance.ninjadoc;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The operationIds used by the paths of an OpenAPI being calculated, so their uniqueness can be checked
+ * without scanning every path. For each requested operationId the index also remembers the last suffix
+ * it handed out: suffixes below it are known to be taken, so the next lookup starts from there.
+ * <p>
+ * An index is confined to the build of its OpenAPI and is not thread safe.
+ */
+final class OperationIdIndex {
+
+    /**
+     * The Operation ids.
+     */
+    private final Set<String> operationIds = new HashSet<>();
+
+    /**
+     * The number of suffixes known to be taken, per operation id.
+     */
+    private final Map<String, Integer> takenSuffixes = new HashMap<>();
+
+    /**
+     * Add an operation id used by the paths.
+     *
+     * @param operationId the operation id
+     */
+    void add(String operationId) {
+        if (StringUtils.isNotBlank(operationId))
+            operationIds.add(operationId);
+    }
+
+    /**
+     * Add all the operation ids used by a path.
+     *
+     * @param pathOperationIds the path operation ids
+     */
+    void addAll(Set<String> pathOperationIds) {
+        pathOperationIds.forEach(this::add);
+    }
+
+    /**
+     * Gets the first free operation id, following the same {@code <operationId>_<n>} scheme as a full scan.
+     *
+     * @param operationId the operation id
+     * @return the operation id
+     */
+    String getOperationId(String operationId) {
+        if (!operationIds.contains(operationId))
+            return operationId;
+        int counter = takenSuffixes.getOrDefault(operationId, 0);
+        String operationIdToFind;
+        do {
+            operationIdToFind = String.format("%s_%d", operationId, ++counter);
+        } while (operationIds.contains(operationIdToFind));
+        takenSuffixes.put(operationId, counter - 1);
+        return operationIdToFind;
+    }
+}
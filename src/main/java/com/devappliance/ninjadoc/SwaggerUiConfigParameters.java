@@ -130,6 +130,20 @@ public class SwaggerUiConfigParameters extends AbstractSwaggerUiConfigProperties
 		);
 	}
 
+	/**
+	 * Gets the urls of the groups, the ones not defined in the configuration pointing under the given api docs url.
+	 * The urls of these parameters are not modified.
+	 *
+	 * @param apiDocsUrl the api docs url
+	 * @return the urls
+	 */
+	public Set<SwaggerUrl> getUrls(String apiDocsUrl) {
+		Set<SwaggerUrl> swaggerUrls = new HashSet<>();
+		this.urls.forEach(elt -> swaggerUrls.add(isSwaggerUrlDefined(elt.getName()) ? elt
+				: new SwaggerUrl(elt.getName(), apiDocsUrl + DEFAULT_PATH_SEPARATOR + elt.getName())));
+		return swaggerUrls;
+	}
+
 	/**
 	 * Gets ui root path.
 	 *
@@ -169,6 +183,19 @@ public class SwaggerUiConfigParameters extends AbstractSwaggerUiConfigProperties
 	 * @return the config parameters
 	 */
 	public Map<String, Object> getConfigParameters() {
+		return getConfigParameters(configUrl, url, urls, oauth2RedirectUrl);
+	}
+
+	/**
+	 * Gets the config parameters with the urls calculated for a given origin, leaving these parameters untouched.
+	 *
+	 * @param configUrl         the config url
+	 * @param url               the url
+	 * @param urls              the urls
+	 * @param oauth2RedirectUrl the oauth 2 redirect url
+	 * @return the config parameters
+	 */
+	public Map<String, Object> getConfigParameters(String configUrl, String url, Set<SwaggerUrl> urls, String oauth2RedirectUrl) {
 		final Map<String, Object> params = new TreeMap<>();
 		// empty-string prevents swagger-ui default validation
 		params.put("validatorUrl", validatorUrl != null ? validatorUrl : "");
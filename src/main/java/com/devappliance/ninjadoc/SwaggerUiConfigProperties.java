@@ -41,6 +41,12 @@ public class SwaggerUiConfigProperties extends AbstractSwaggerUiConfigProperties
      */
     private Csrf csrf = new Csrf();
 
+    /**
+     * The max number of bytes of swagger ui assets kept in memory, 0 to read them from the webjar on each request.
+     */
+    @JsonProperty("asset-cache-max-size")
+    private long assetCacheMaxSize = Constants.DEFAULT_ASSET_CACHE_MAX_SIZE;
+
     /**
      * Is disable swagger default url boolean.
      *
@@ -122,6 +128,24 @@ public class SwaggerUiConfigProperties extends AbstractSwaggerUiConfigProperties
         this.csrf = csrf;
     }
 
+    /**
+     * Gets asset cache max size.
+     *
+     * @return the asset cache max size
+     */
+    public long getAssetCacheMaxSize() {
+        return assetCacheMaxSize;
+    }
+
+    /**
+     * Sets asset cache max size.
+     *
+     * @param assetCacheMaxSize the asset cache max size
+     */
+    public void setAssetCacheMaxSize(long assetCacheMaxSize) {
+        this.assetCacheMaxSize = assetCacheMaxSize;
+    }
+
     /**
      * Is csrf enabled boolean.
      *
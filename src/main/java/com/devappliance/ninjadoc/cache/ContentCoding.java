@@ -0,0 +1,111 @@
+package com.devappliance.ninjadoc.cache;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings a rendered document can be served with.
+ */
+public enum ContentCoding {
+
+    /**
+     * Gzip content coding.
+     */
+    GZIP("gzip"),
+
+    /**
+     * Deflate content coding, in the zlib format required by HTTP.
+     */
+    DEFLATE("deflate");
+
+    /**
+     * The Name.
+     */
+    private final String name;
+
+    /**
+     * Instantiates a new Content coding.
+     *
+     * @param name the name
+     */
+    ContentCoding(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name used in the Content-Encoding header.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Compress the content.
+     *
+     * @param content the content
+     * @return the compressed content
+     */
+    public byte[] compress(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+        try (OutputStream outputStream = (this == GZIP) ? new GZIPOutputStream(compressed) : new DeflaterOutputStream(compressed)) {
+            outputStream.write(content);
+        } catch (IOException e) {
+            // a ByteArrayOutputStream never fails
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Choose the content coding preferred by an Accept-Encoding header. Codings are ranked by their quality value,
+     * gzip winning ties; a quality of zero refuses a coding, and {@code *} stands for the codings not listed.
+     *
+     * @param acceptEncoding the Accept-Encoding header value, may be null
+     * @return the content coding, or null to serve the identity
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding))
+            return null;
+        float[] qualities = { -1, -1 };
+        float wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if ("*".equals(coding))
+                wildcard = quality;
+            else if (GZIP.name.equals(coding) || "x-gzip".equals(coding))
+                qualities[GZIP.ordinal()] = quality;
+            else if (DEFLATE.name.equals(coding))
+                qualities[DEFLATE.ordinal()] = quality;
+        }
+        ContentCoding preferred = null;
+        float preferredQuality = 0;
+        for (ContentCoding contentCoding : values()) {
+            float quality = (qualities[contentCoding.ordinal()] < 0) ? wildcard : qualities[contentCoding.ordinal()];
+            if (quality > preferredQuality) {
+                preferred = contentCoding;
+                preferredQuality = quality;
+            }
+        }
+        return preferred;
+    }
+}
@@ -0,0 +1,283 @@
+package com.devappliance.ninjadoc.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The rendered variants of the OpenAPI document of a group, kept on disk across restarts.
+ * The variants live in a directory named after the fingerprint of what the document is generated from,
+ * so a process only ever reads the variants of its own application. They are memory-mapped when read,
+ * and served without building the document. Only the documents without the server url of a caller are kept,
+ * the server url being spliced in once the document is read back.
+ * <p>
+ * Several processes may share the directory: each variant is written to a temporary file, then atomically
+ * renamed, so readers never see a partial file. The directory is listed once, on the first write, and holds
+ * about the max number of rendered documents of a snapshot, the oldest variants being deleted to make room;
+ * processes writing concurrently may exceed it. The directories of the group under other fingerprints are
+ * deleted once they have not been written for {@link #STALE_AGE}.
+ */
+public final class DiskSpecCache {
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskSpecCache.class);
+
+    /**
+     * The age after which the variants of the group under another fingerprint are deleted, other processes
+     * of another version of the application may still be serving them until then.
+     */
+    public static final Duration STALE_AGE = Duration.ofDays(1);
+
+    /**
+     * The Directory.
+     */
+    private final Path directory;
+
+    /**
+     * The Max entries.
+     */
+    private final int maxEntries;
+
+    /**
+     * The variants mapped by this process.
+     */
+    private final ConcurrentMap<RenderedSpecCache.RenderKey, RenderedSpec> mappedSpecs = new ConcurrentHashMap<>();
+
+    /**
+     * The number of variants on disk, counted on the first write, then incremented by this process.
+     */
+    private final AtomicInteger entries = new AtomicInteger(-1);
+
+    /**
+     * Instantiates a new Disk spec cache.
+     *
+     * @param directory  the directory of the variants, dedicated to one fingerprint and group
+     * @param maxEntries the max number of variants
+     */
+    public DiskSpecCache(Path directory, int maxEntries) {
+        this.directory = directory;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Compute the fingerprint of an application: its route table, the bytes of the classes the document is generated
+     * from, such as its controllers, models and customisers, and properties such as the ninjadoc properties.
+     *
+     * @param routeFingerprint the fingerprint of the route table
+     * @param classes          the classes
+     * @param properties       the properties
+     * @return the fingerprint
+     */
+    public static String fingerprint(String routeFingerprint, Collection<Class<?>> classes, Map<String, String> properties) {
+        StringBuilder fingerprint = new StringBuilder(routeFingerprint).append('\n');
+        SortedMap<String, String> classDigests = new TreeMap<>();
+        for (Class<?> clazz : classes)
+            classDigests.computeIfAbsent(clazz.getName(), name -> digestOf(clazz));
+        classDigests.forEach((name, digest) -> fingerprint.append(name).append('=').append(digest).append('\n'));
+        new TreeMap<>(properties).forEach((key, value) -> fingerprint.append(key).append('=').append(value).append('\n'));
+        return RenderedSpec.computeDigest(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compute the digest of the bytes of a class.
+     *
+     * @param clazz the class
+     * @return the digest, or an empty string when the class file cannot be read
+     */
+    public static String digestOf(Class<?> clazz) {
+        String classFile = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream inputStream = clazz.getResourceAsStream(classFile)) {
+            return (inputStream == null) ? "" : RenderedSpec.computeDigest(PrebuiltOpenApi.readAll(inputStream));
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Gets a variant, mapping its file on first use.
+     *
+     * @param key the key
+     * @return the variant, or null when it is not on disk
+     */
+    public RenderedSpec get(RenderedSpecCache.RenderKey key) {
+        RenderedSpec rendered = mappedSpecs.get(key);
+        if (rendered != null)
+            return rendered;
+        try (FileChannel fileChannel = FileChannel.open(getFile(key), StandardOpenOption.READ)) {
+            rendered = new RenderedSpec(fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size()));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("NinjaDoc cannot read the api docs cached in {}: {}", directory, e.getMessage());
+            return null;
+        }
+        RenderedSpec existing = mappedSpecs.putIfAbsent(key, rendered);
+        return (existing == null) ? rendered : existing;
+    }
+
+    /**
+     * Write a variant, deleting the oldest variants once the directory is full. Failures are logged, the variant
+     * being still served from memory.
+     *
+     * @param key      the key
+     * @param rendered the rendered variant
+     */
+    public void put(RenderedSpecCache.RenderKey key, RenderedSpec rendered) {
+        Path file = getFile(key);
+        Path temporaryFile = null;
+        try {
+            if (entries.get() < 0) {
+                Files.createDirectories(directory);
+                entries.compareAndSet(-1, countEntries());
+            }
+            if (Files.exists(file))
+                return;
+            if (entries.get() >= maxEntries)
+                evictOldest(entries.get() - maxEntries + 1);
+            temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temporaryFile, rendered.getContent());
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+            temporaryFile = null;
+            entries.incrementAndGet();
+        } catch (AtomicMoveNotSupportedException e) {
+            LOGGER.warn("NinjaDoc cannot cache the api docs in {}: atomic renames are not supported", directory);
+        } catch (IOException e) {
+            LOGGER.warn("NinjaDoc cannot cache the api docs in {}: {}", directory, e.getMessage());
+        } finally {
+            if (temporaryFile != null)
+                deleteQuietly(temporaryFile);
+        }
+    }
+
+    /**
+     * Delete the oldest variants on disk. The variants mapped by this process stay readable.
+     *
+     * @param count the number of variants to delete
+     * @throws IOException the io exception
+     */
+    private void evictOldest(int count) throws IOException {
+        List<Path> variants = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(".tmp"))
+                    variants.add(file);
+            }
+        }
+        variants.sort(Comparator.comparing(DiskSpecCache::getLastModifiedTime));
+        for (Path variant : variants.subList(0, Math.min(count, variants.size()))) {
+            if (Files.deleteIfExists(variant))
+                entries.decrementAndGet();
+        }
+    }
+
+    /**
+     * Delete the directories of the group under the other fingerprints, once they have not been written
+     * for {@link #STALE_AGE}, then the fingerprint directories left empty. Failures are logged.
+     */
+    public void pruneStale() {
+        Path fingerprintDirectory = directory.getParent();
+        Path root = (fingerprintDirectory == null) ? null : fingerprintDirectory.getParent();
+        if (root == null || !Files.isDirectory(root))
+            return;
+        FileTime staleTime = FileTime.from(Instant.now().minus(STALE_AGE));
+        try (DirectoryStream<Path> fingerprintDirectories = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path otherFingerprintDirectory : fingerprintDirectories) {
+                if (otherFingerprintDirectory.equals(fingerprintDirectory))
+                    continue;
+                Path groupDirectory = otherFingerprintDirectory.resolve(directory.getFileName());
+                if (Files.isDirectory(groupDirectory) && getLastModifiedTime(groupDirectory).compareTo(staleTime) < 0) {
+                    LOGGER.debug("NinjaDoc deletes the stale api docs cached in {}", groupDirectory);
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(groupDirectory)) {
+                        for (Path file : files)
+                            deleteQuietly(file);
+                    }
+                    deleteQuietly(groupDirectory);
+                    deleteQuietly(otherFingerprintDirectory);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("NinjaDoc cannot delete the stale api docs cached in {}: {}", root, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the last modified time of a file, the epoch when it cannot be read.
+     *
+     * @param file the file
+     * @return the last modified time
+     */
+    private static FileTime getLastModifiedTime(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * Gets the file of a variant.
+     *
+     * @param key the key
+     * @return the file
+     */
+    private Path getFile(RenderedSpecCache.RenderKey key) {
+        String variant = key.getFormat() + "\n" + key.isPretty() + "\n" + ((key.getServerUrl() == null) ? "" : key.getServerUrl());
+        return directory.resolve(RenderedSpec.computeDigest(variant.getBytes(StandardCharsets.UTF_8)) + "." + key.getFormat().name().toLowerCase());
+    }
+
+    /**
+     * Count the variants on disk, temporary files excluded.
+     *
+     * @return the number of variants
+     * @throws IOException the io exception
+     */
+    private int countEntries() throws IOException {
+        int entries = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(".tmp"))
+                    entries++;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Delete a file, ignoring failures.
+     *
+     * @param file the file
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.debug("NinjaDoc cannot delete {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.devappliance.ninjadoc.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.callbacks.Callback;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.headers.Header;
+import io.swagger.v3.oas.models.links.Link;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.security.SecurityRequirement;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * An index over the operations and schemas of a generated OpenAPI document, built once per snapshot.
+ * A lookup returns a standalone document holding the operation or schema together with every component
+ * it references, directly or transitively; lookups are rendered once and cached with the index.
+ */
+public final class OpenApiIndex {
+
+    /**
+     * The prefix of the references to components.
+     */
+    private static final String COMPONENTS_REF_PREFIX = "#/components/";
+
+    /**
+     * The getters of the component maps, per component type.
+     */
+    private static final Map<String, Function<Components, Map<String, ?>>> COMPONENT_TYPES = new LinkedHashMap<>();
+
+    static {
+        COMPONENT_TYPES.put("schemas", Components::getSchemas);
+        COMPONENT_TYPES.put("responses", Components::getResponses);
+        COMPONENT_TYPES.put("parameters", Components::getParameters);
+        COMPONENT_TYPES.put("examples", Components::getExamples);
+        COMPONENT_TYPES.put("requestBodies", Components::getRequestBodies);
+        COMPONENT_TYPES.put("headers", Components::getHeaders);
+        COMPONENT_TYPES.put("links", Components::getLinks);
+        COMPONENT_TYPES.put("callbacks", Components::getCallbacks);
+    }
+
+    /**
+     * The Open api.
+     */
+    private final OpenAPI openAPI;
+
+    /**
+     * The operations, per operation id.
+     */
+    private final Map<String, IndexedOperation> operations = new HashMap<>();
+
+    /**
+     * The components directly referenced by each component, per reference.
+     */
+    private final ConcurrentMap<String, Set<String>> componentReferences = new ConcurrentHashMap<>();
+
+    /**
+     * The rendered lookups.
+     */
+    private final ConcurrentMap<String, RenderedSpec> renderedLookups = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Open api index.
+     *
+     * @param openAPI the open api
+     */
+    public OpenApiIndex(OpenAPI openAPI) {
+        this.openAPI = openAPI;
+        if (openAPI.getPaths() != null)
+            openAPI.getPaths().forEach((path, pathItem) -> pathItem.readOperationsMap().forEach((httpMethod, operation) -> {
+                if (StringUtils.isNotBlank(operation.getOperationId()))
+                    operations.putIfAbsent(operation.getOperationId(), new IndexedOperation(path, pathItem, httpMethod, operation));
+            }));
+    }
+
+    /**
+     * Gets the document of an operation: its path, holding only this operation along with the fields shared by every
+     * operation of the path, and the components they reference.
+     *
+     * @param operationId the operation id
+     * @return the document, or null if no operation has this id
+     */
+    public OpenAPI getOperationDocument(String operationId) {
+        IndexedOperation indexedOperation = operations.get(operationId);
+        if (indexedOperation == null)
+            return null;
+        PathItem sourcePathItem = indexedOperation.pathItem;
+        PathItem pathItem = new PathItem()
+                .$ref(sourcePathItem.get$ref())
+                .summary(sourcePathItem.getSummary())
+                .description(sourcePathItem.getDescription())
+                .servers(sourcePathItem.getServers())
+                .parameters(sourcePathItem.getParameters());
+        pathItem.operation(indexedOperation.httpMethod, indexedOperation.operation);
+        pathItem.setExtensions(sourcePathItem.getExtensions());
+        OpenAPI document = newDocument().paths(new Paths().addPathItem(indexedOperation.path, pathItem));
+        Set<String> references = collectReferences(toTree(pathItem));
+        List<SecurityRequirement> securityRequirements = (indexedOperation.operation.getSecurity() != null)
+                ? indexedOperation.operation.getSecurity() : openAPI.getSecurity();
+        document.components(getComponents(references, securityRequirements));
+        return document;
+    }
+
+    /**
+     * Gets the document of a schema: the schema and the components it references.
+     *
+     * @param name the name of the schema
+     * @return the document, or null if no schema has this name
+     */
+    public OpenAPI getSchemaDocument(String name) {
+        if (openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null
+                || !openAPI.getComponents().getSchemas().containsKey(name))
+            return null;
+        return newDocument().components(getComponents(Collections.singleton(COMPONENTS_REF_PREFIX + "schemas/" + name), null));
+    }
+
+    /**
+     * Gets a rendered lookup.
+     *
+     * @param key the key of the lookup
+     * @return the rendered lookup, or null if it was not rendered yet
+     */
+    public RenderedSpec getRendered(String key) {
+        return renderedLookups.get(key);
+    }
+
+    /**
+     * Put a rendered lookup unless another thread rendered it first.
+     *
+     * @param key      the key of the lookup
+     * @param rendered the rendered lookup
+     * @return the rendered lookup held by the index for the key
+     */
+    public RenderedSpec putRenderedIfAbsent(String key, RenderedSpec rendered) {
+        RenderedSpec existing = renderedLookups.putIfAbsent(key, rendered);
+        return (existing == null) ? rendered : existing;
+    }
+
+    /**
+     * New document, carrying the header of the open api.
+     *
+     * @return the open api
+     */
+    private OpenAPI newDocument() {
+        return new OpenAPI()
+                .openapi(openAPI.getOpenapi())
+                .info(openAPI.getInfo())
+                .servers(openAPI.getServers());
+    }
+
+    /**
+     * Gets the components holding the given references and everything they reference in turn,
+     * and the security schemes used by the security requirements.
+     *
+     * @param references           the references
+     * @param securityRequirements the security requirements, may be null
+     * @return the components, or null if there are none
+     */
+    private Components getComponents(Set<String> references, List<SecurityRequirement> securityRequirements) {
+        Components components = openAPI.getComponents();
+        if (components == null)
+            return null;
+        Set<String> closure = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>(references);
+        while (!pending.isEmpty()) {
+            String reference = pending.pop();
+            if (closure.add(reference))
+                pending.addAll(componentReferences.computeIfAbsent(reference, this::collectComponentReferences));
+        }
+        Components result = new Components();
+        boolean empty = true;
+        for (String reference : closure) {
+            String[] typeAndName = reference.substring(COMPONENTS_REF_PREFIX.length()).split("/", 2);
+            Object component = getComponent(typeAndName[0], typeAndName[1]);
+            if (component != null) {
+                addComponent(result, typeAndName[0], typeAndName[1], component);
+                empty = false;
+            }
+        }
+        if (securityRequirements != null && components.getSecuritySchemes() != null) {
+            for (SecurityRequirement securityRequirement : securityRequirements) {
+                for (String name : securityRequirement.keySet()) {
+                    if (components.getSecuritySchemes().containsKey(name)) {
+                        result.addSecuritySchemes(name, components.getSecuritySchemes().get(name));
+                        empty = false;
+                    }
+                }
+            }
+        }
+        return empty ? null : result;
+    }
+
+    /**
+     * Gets a component of the open api.
+     *
+     * @param type the type
+     * @param name the name
+     * @return the component, or null if it does not exist
+     */
+    private Object getComponent(String type, String name) {
+        Function<Components, Map<String, ?>> getter = COMPONENT_TYPES.get(type);
+        if (getter == null || openAPI.getComponents() == null)
+            return null;
+        Map<String, ?> componentsOfType = getter.apply(openAPI.getComponents());
+        return (componentsOfType == null) ? null : componentsOfType.get(name);
+    }
+
+    /**
+     * Add a component.
+     *
+     * @param components the components
+     * @param type       the type
+     * @param name       the name
+     * @param component  the component
+     */
+    @SuppressWarnings("rawtypes")
+    private static void addComponent(Components components, String type, String name, Object component) {
+        switch (type) {
+            case "schemas":
+                components.addSchemas(name, (Schema) component);
+                break;
+            case "responses":
+                components.addResponses(name, (ApiResponse) component);
+                break;
+            case "parameters":
+                components.addParameters(name, (Parameter) component);
+                break;
+            case "examples":
+                components.addExamples(name, (Example) component);
+                break;
+            case "requestBodies":
+                components.addRequestBodies(name, (RequestBody) component);
+                break;
+            case "headers":
+                components.addHeaders(name, (Header) component);
+                break;
+            case "links":
+                components.addLinks(name, (Link) component);
+                break;
+            case "callbacks":
+                components.addCallbacks(name, (Callback) component);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Collect the references made by a component.
+     *
+     * @param reference the reference of the component
+     * @return the references
+     */
+    private Set<String> collectComponentReferences(String reference) {
+        String[] typeAndName = reference.substring(COMPONENTS_REF_PREFIX.length()).split("/", 2);
+        if (typeAndName.length < 2)
+            return Collections.emptySet();
+        Object component = getComponent(typeAndName[0], typeAndName[1]);
+        return (component == null) ? Collections.emptySet() : collectReferences(toTree(component));
+    }
+
+    /**
+     * Convert a model object to its json tree, as it is serialized.
+     *
+     * @param value the value
+     * @return the json node
+     */
+    private static JsonNode toTree(Object value) {
+        return Json.mapper().valueToTree(value);
+    }
+
+    /**
+     * Collect the references to components found in a json tree.
+     *
+     * @param node the node
+     * @return the references
+     */
+    private static Set<String> collectReferences(JsonNode node) {
+        Set<String> references = new LinkedHashSet<>();
+        Deque<JsonNode> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            JsonNode current = pending.pop();
+            if (current.isObject()) {
+                JsonNode ref = current.get("$ref");
+                if (ref != null && ref.isTextual() && ref.asText().startsWith(COMPONENTS_REF_PREFIX))
+                    references.add(ref.asText());
+                current.elements().forEachRemaining(pending::push);
+            } else if (current.isArray())
+                current.elements().forEachRemaining(pending::push);
+        }
+        return references;
+    }
+
+    /**
+     * An operation with its path and method.
+     */
+    private static final class IndexedOperation {
+
+        /**
+         * The Path.
+         */
+        private final String path;
+
+        /**
+         * The Path item.
+         */
+        private final PathItem pathItem;
+
+        /**
+         * The Http method.
+         */
+        private final HttpMethod httpMethod;
+
+        /**
+         * The Operation.
+         */
+        private final Operation operation;
+
+        /**
+         * Instantiates a new Indexed operation.
+         *
+         * @param path       the path
+         * @param pathItem   the path item
+         * @param httpMethod the http method
+         * @param operation  the operation
+         */
+        private IndexedOperation(String path, PathItem pathItem, HttpMethod httpMethod, Operation operation) {
+            this.path = path;
+            this.pathItem = pathItem;
+            this.httpMethod = httpMethod;
+            this.operation = operation;
+        }
+    }
+}
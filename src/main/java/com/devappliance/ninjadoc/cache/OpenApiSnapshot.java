@@ -0,0 +1,303 @@
+package com.devappliance.ninjadoc.cache;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.servers.Server;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static com.devappliance.ninjadoc.util.Constants.DEFAULT_SERVER_DESCRIPTION;
+
+/**
+ * An immutable view of a generated OpenAPI document, together with its rendered variants.
+ * A snapshot is published once its model is fully calculated and is never modified afterwards,
+ * so it can be read by any number of threads without locking.
+ * <p>
+ * When the document declares no servers, the build adds a generated server before the customisers run, without url.
+ * Its url depends on the host of each request, so it is never written in the shared model:
+ * {@link #getOpenAPI(String)} returns a shallow copy where the generated server carries the server url of the caller.
+ * <p>
+ * Filtered views of the document are derived on demand and kept with the snapshot, so they are dropped with it.
+ */
+public final class OpenApiSnapshot {
+
+    /**
+     * The default maximum number of filtered views.
+     */
+    public static final int DEFAULT_MAX_VIEWS = 32;
+
+    /**
+     * The Open api, loaded on first use when the snapshot was read back from a rendering.
+     */
+    private volatile OpenAPI openAPI;
+
+    /**
+     * The generated server, or null if the document declares its servers. Set before the open api is published.
+     */
+    private volatile Server generatedServer;
+
+    /**
+     * The loader of the open api, null once loaded.
+     */
+    private Supplier<OpenAPI> openApiLoader;
+
+    /**
+     * The Is servers present.
+     */
+    private final boolean serversPresent;
+
+    /**
+     * The Rendered spec cache.
+     */
+    private final RenderedSpecCache renderedSpecCache;
+
+    /**
+     * The max number of filtered views kept.
+     */
+    private final int maxViews;
+
+    /**
+     * The filtered views, least recently used first.
+     */
+    private final Map<OpenApiView, OpenApiSnapshot> views;
+
+    /**
+     * The Index, built on first use.
+     */
+    private volatile OpenApiIndex index;
+
+    /**
+     * Instantiates a new Open api snapshot.
+     *
+     * @param openAPI the open api
+     */
+    public OpenApiSnapshot(OpenAPI openAPI) {
+        this(openAPI, RenderedSpecCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Instantiates a new Open api snapshot.
+     *
+     * @param openAPI              the open api
+     * @param maxRenderedDocuments the max number of rendered documents kept
+     */
+    public OpenApiSnapshot(OpenAPI openAPI, int maxRenderedDocuments) {
+        this(openAPI, maxRenderedDocuments, 0);
+    }
+
+    /**
+     * Instantiates a new Open api snapshot.
+     *
+     * @param openAPI              the open api
+     * @param maxRenderedDocuments the max number of rendered documents kept
+     * @param maxViews             the max number of filtered views kept
+     */
+    public OpenApiSnapshot(OpenAPI openAPI, int maxRenderedDocuments, int maxViews) {
+        this(openAPI, null, maxRenderedDocuments, maxViews);
+    }
+
+    /**
+     * Instantiates a new Open api snapshot.
+     *
+     * @param openAPI              the open api
+     * @param generatedServer      the server the build generated, null if the document declares its servers
+     * @param maxRenderedDocuments the max number of rendered documents kept
+     * @param maxViews             the max number of filtered views kept
+     */
+    public OpenApiSnapshot(OpenAPI openAPI, Server generatedServer, int maxRenderedDocuments, int maxViews) {
+        this.openAPI = Objects.requireNonNull(openAPI, "openAPI");
+        // a customiser may have replaced the generated server with servers of its own
+        this.generatedServer = containsInstance(openAPI.getServers(), generatedServer) ? generatedServer : null;
+        this.serversPresent = (generatedServer == null) ? !CollectionUtils.isEmpty(openAPI.getServers()) : (this.generatedServer == null);
+        this.renderedSpecCache = new RenderedSpecCache(maxRenderedDocuments);
+        this.maxViews = Math.max(0, maxViews);
+        this.views = newViews();
+    }
+
+    /**
+     * Instantiates a new Open api snapshot of a document read back from one of its renderings, such as the disk cache.
+     * Its renderings are served without the open api, which is only loaded once needed; its generated server is then
+     * the only one without url, see {@link #findGeneratedServer(OpenAPI)}.
+     *
+     * @param openApiLoader        the loader of the open api
+     * @param serversPresent       true if the document declares its servers
+     * @param maxRenderedDocuments the max number of rendered documents kept
+     * @param maxViews             the max number of filtered views kept
+     */
+    public OpenApiSnapshot(Supplier<OpenAPI> openApiLoader, boolean serversPresent, int maxRenderedDocuments, int maxViews) {
+        this.openApiLoader = Objects.requireNonNull(openApiLoader, "openApiLoader");
+        this.serversPresent = serversPresent;
+        this.renderedSpecCache = new RenderedSpecCache(maxRenderedDocuments);
+        this.maxViews = Math.max(0, maxViews);
+        this.views = newViews();
+    }
+
+    /**
+     * Create the bounded cache of the filtered views.
+     *
+     * @return the views
+     */
+    private Map<OpenApiView, OpenApiSnapshot> newViews() {
+        return Collections.synchronizedMap(new LinkedHashMap<OpenApiView, OpenApiSnapshot>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OpenApiView, OpenApiSnapshot> eldest) {
+                return size() > OpenApiSnapshot.this.maxViews;
+            }
+        });
+    }
+
+    /**
+     * Gets the open api, loading it on first use.
+     *
+     * @return the open api
+     */
+    private OpenAPI getModel() {
+        OpenAPI result = openAPI;
+        if (result == null) {
+            synchronized (this) {
+                result = openAPI;
+                if (result == null) {
+                    result = openApiLoader.get();
+                    generatedServer = serversPresent ? null : findGeneratedServer(result);
+                    openAPI = result;
+                    openApiLoader = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the server a host independent document keeps in place of its generated server: the only one without url.
+     *
+     * @param openAPI the open api
+     * @return the generated server, or null
+     */
+    public static Server findGeneratedServer(OpenAPI openAPI) {
+        List<Server> servers = openAPI.getServers();
+        if (CollectionUtils.isEmpty(servers))
+            return null;
+        List<Server> serversWithoutUrl = servers.stream().filter(server -> server.getUrl() == null).limit(2).collect(Collectors.toList());
+        return (serversWithoutUrl.size() == 1) ? serversWithoutUrl.get(0) : null;
+    }
+
+    /**
+     * Contains instance boolean.
+     *
+     * @param servers the servers
+     * @param server  the server
+     * @return true if the very server instance is one of the servers
+     */
+    private static boolean containsInstance(List<Server> servers, Server server) {
+        return server != null && servers != null && servers.stream().anyMatch(item -> item == server);
+    }
+
+    /**
+     * Gets the base open api, as built.
+     *
+     * @return the open api
+     */
+    public OpenAPI getOpenAPI() {
+        return getModel();
+    }
+
+    /**
+     * Gets the open api as seen from the given server url. A null server url gives the host independent document:
+     * the generated server is kept, without url.
+     *
+     * @param serverBaseUrl the server base url
+     * @return the open api
+     */
+    public OpenAPI getOpenAPI(String serverBaseUrl) {
+        OpenAPI openAPI = getModel();
+        Server generatedServer = this.generatedServer;
+        if (serversPresent || (serverBaseUrl == null && generatedServer == null))
+            return openAPI;
+        OpenAPI overlay = new OpenAPI()
+                .openapi(openAPI.getOpenapi())
+                .info(openAPI.getInfo())
+                .externalDocs(openAPI.getExternalDocs())
+                .security(openAPI.getSecurity())
+                .tags(openAPI.getTags())
+                .paths(openAPI.getPaths())
+                .components(openAPI.getComponents());
+        overlay.setExtensions(openAPI.getExtensions());
+        if (generatedServer == null)
+            overlay.setServers(Collections.singletonList(new Server().url(serverBaseUrl).description(DEFAULT_SERVER_DESCRIPTION)));
+        else {
+            List<Server> servers = new ArrayList<>(openAPI.getServers());
+            Server server = new Server().url(serverBaseUrl).description(generatedServer.getDescription())
+                    .variables(generatedServer.getVariables());
+            server.setExtensions(generatedServer.getExtensions());
+            servers.replaceAll(item -> (item == generatedServer) ? server : item);
+            overlay.setServers(servers);
+        }
+        return overlay;
+    }
+
+    /**
+     * Gets a filtered view of the open api, as a snapshot of its own with its own rendered documents.
+     * Views are kept in a bounded cache, the least recently used one being evicted first.
+     *
+     * @param view   the view
+     * @param filter the filter deriving the open api of the view from the open api of this snapshot
+     * @return the snapshot of the view
+     */
+    public OpenApiSnapshot getView(OpenApiView view, UnaryOperator<OpenAPI> filter) {
+        OpenApiSnapshot snapshot = views.get(view);
+        if (snapshot != null)
+            return snapshot;
+        // the filtered open api keeps the server instances, so the generated server is still overlaid
+        OpenAPI openAPI = getModel();
+        snapshot = new OpenApiSnapshot(filter.apply(openAPI), generatedServer, renderedSpecCache.getMaxEntries(), 0);
+        if (maxViews == 0)
+            return snapshot;
+        OpenApiSnapshot existing = views.putIfAbsent(view, snapshot);
+        return (existing == null) ? snapshot : existing;
+    }
+
+    /**
+     * Gets the index over the operations and schemas of the open api, building it on first use.
+     *
+     * @return the index
+     */
+    public OpenApiIndex getIndex() {
+        OpenApiIndex result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null)
+                    index = result = new OpenApiIndex(getModel());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Is servers present boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isServersPresent() {
+        return serversPresent;
+    }
+
+    /**
+     * Gets rendered spec cache.
+     *
+     * @return the rendered spec cache
+     */
+    public RenderedSpecCache getRenderedSpecCache() {
+        return renderedSpecCache;
+    }
+}
@@ -0,0 +1,127 @@
+package com.devappliance.ninjadoc.cache;
+
+import com.devappliance.ninjadoc.util.PathPatternMatcher;
+import io.swagger.v3.core.filter.AbstractSpecFilter;
+import io.swagger.v3.core.filter.OpenAPISpecFilter;
+import io.swagger.v3.core.model.ApiDescription;
+import io.swagger.v3.oas.models.Operation;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A subset of an OpenAPI document, restricted to the operations carrying one of the given tags
+ * and matching one of the given path patterns. Views are normalized, so equal filters share one cached view
+ * whatever the order or repetition of their values.
+ */
+public final class OpenApiView {
+
+    /**
+     * The Tags.
+     */
+    private final SortedSet<String> tags;
+
+    /**
+     * The Path patterns.
+     */
+    private final SortedSet<String> paths;
+
+    /**
+     * Instantiates a new Open api view.
+     *
+     * @param tags  the tags
+     * @param paths the path patterns
+     */
+    private OpenApiView(SortedSet<String> tags, SortedSet<String> paths) {
+        this.tags = Collections.unmodifiableSortedSet(tags);
+        this.paths = Collections.unmodifiableSortedSet(paths);
+    }
+
+    /**
+     * Parse a view from comma separated tags and path patterns.
+     *
+     * @param tags  the tags, may be null
+     * @param paths the path patterns, may be null
+     * @return the view, or null when neither restricts the document
+     */
+    public static OpenApiView of(String tags, String paths) {
+        SortedSet<String> tagSet = split(tags);
+        SortedSet<String> pathSet = split(paths);
+        if (tagSet.isEmpty() && pathSet.isEmpty())
+            return null;
+        return new OpenApiView(tagSet, pathSet);
+    }
+
+    /**
+     * Split comma separated values.
+     *
+     * @param values the values
+     * @return the values, trimmed and sorted
+     */
+    private static SortedSet<String> split(String values) {
+        if (StringUtils.isBlank(values))
+            return new TreeSet<>();
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Gets tags.
+     *
+     * @return the tags
+     */
+    public SortedSet<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Gets the path patterns.
+     *
+     * @return the path patterns
+     */
+    public SortedSet<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Create the spec filter keeping the operations of this view, and the components they reference.
+     *
+     * @param antPathMatcher the ant path matcher
+     * @return the spec filter
+     */
+    public OpenAPISpecFilter newSpecFilter(AntPathMatcher antPathMatcher) {
+        PathPatternMatcher pathPatternMatcher = paths.isEmpty() ? null : new PathPatternMatcher(new ArrayList<>(paths), null, antPathMatcher);
+        return new AbstractSpecFilter() {
+            @Override
+            public Optional<Operation> filterOperation(Operation operation, ApiDescription api, Map<String, List<String>> params,
+                    Map<String, String> cookies, Map<String, List<String>> headers) {
+                boolean tagged = tags.isEmpty() || (!CollectionUtils.isEmpty(operation.getTags()) && operation.getTags().stream().anyMatch(tags::contains));
+                boolean matched = pathPatternMatcher == null || pathPatternMatcher.matches(api.getPath());
+                return (tagged && matched) ? Optional.of(operation) : Optional.empty();
+            }
+
+            @Override
+            public boolean isRemovingUnreferencedDefinitions() {
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OpenApiView that = (OpenApiView) o;
+        return tags.equals(that.tags) && paths.equals(that.paths);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tags, paths);
+    }
+}
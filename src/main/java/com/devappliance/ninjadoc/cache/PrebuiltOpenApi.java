@@ -0,0 +1,134 @@
+package com.devappliance.ninjadoc.cache;
+
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The OpenAPI documents generated at build time and packaged with the application, one directory per group
+ * under {@value #LOCATION}. Each group comes with the fingerprint of the application its documents were generated
+ * from: they are only used while the running application still has the same fingerprint.
+ */
+public final class PrebuiltOpenApi {
+
+    /**
+     * The location of the prebuilt documents in the class path.
+     */
+    public static final String LOCATION = "META-INF/ninjadoc/";
+
+    /**
+     * The name of the fingerprint of the application, in the directory of each group.
+     */
+    public static final String FINGERPRINT_NAME = "fingerprint.sha256";
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(PrebuiltOpenApi.class);
+
+    /**
+     * Instantiates a new Prebuilt open api.
+     */
+    private PrebuiltOpenApi() {
+    }
+
+    /**
+     * Gets the name of the document of a group, relative to {@value #LOCATION}.
+     *
+     * @param groupName the group name
+     * @param format    the format
+     * @return the name of the document
+     */
+    public static String getName(String groupName, SpecFormat format) {
+        return groupName + "/openapi." + format.name().toLowerCase();
+    }
+
+    /**
+     * Gets the name of the fingerprint of a group, relative to {@value #LOCATION}.
+     *
+     * @param groupName the group name
+     * @return the name of the fingerprint
+     */
+    public static String getFingerprintName(String groupName) {
+        return groupName + '/' + FINGERPRINT_NAME;
+    }
+
+    /**
+     * Load the prebuilt open api of a group.
+     *
+     * @param classLoader the class loader of the application
+     * @param groupName   the group name
+     * @param fingerprint the fingerprint of the running application
+     * @return the open api, or null when there is none or the application changed since it was generated
+     */
+    public static OpenAPI load(ClassLoader classLoader, String groupName, String fingerprint) {
+        try (InputStream fingerprintStream = classLoader.getResourceAsStream(LOCATION + getFingerprintName(groupName))) {
+            if (fingerprintStream == null)
+                return null;
+            String prebuiltFingerprint = new String(readAll(fingerprintStream), StandardCharsets.UTF_8).trim();
+            if (!prebuiltFingerprint.equals(fingerprint)) {
+                LOGGER.info("NinjaDoc ignores the prebuilt api docs of group {} as the application changed since they were generated", groupName);
+                return null;
+            }
+            try (InputStream openApiStream = classLoader.getResourceAsStream(LOCATION + getName(groupName, SpecFormat.JSON))) {
+                return (openApiStream == null) ? null : Json.mapper().readValue(openApiStream, OpenAPI.class);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("NinjaDoc cannot read the prebuilt api docs of group {}: {}", groupName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the prebuilt document of a group.
+     *
+     * @param outputDirectory the output directory, the root of the class path
+     * @param groupName       the group name
+     * @param format          the format
+     * @param content         the content
+     * @throws IOException the io exception
+     */
+    public static void write(Path outputDirectory, String groupName, SpecFormat format, byte[] content) throws IOException {
+        Path file = outputDirectory.resolve(LOCATION + getName(groupName, format));
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+    }
+
+    /**
+     * Write the fingerprint of the application the documents of a group were generated from.
+     *
+     * @param outputDirectory the output directory, the root of the class path
+     * @param groupName       the group name
+     * @param fingerprint     the fingerprint
+     * @throws IOException the io exception
+     */
+    public static void writeFingerprint(Path outputDirectory, String groupName, String fingerprint) throws IOException {
+        Path file = outputDirectory.resolve(LOCATION + getFingerprintName(groupName));
+        Files.createDirectories(file.getParent());
+        Files.write(file, fingerprint.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read all the bytes of a stream.
+     *
+     * @param inputStream the input stream
+     * @return the bytes
+     * @throws IOException the io exception
+     */
+    static byte[] readAll(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1)
+            outputStream.write(buffer, 0, read);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,248 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A rendered variant of an OpenAPI document, or any other document served from memory,
+ * with the strong entity tag of its content.
+ * The compressed renderings are computed on first use and kept with the variant, so each one
+ * is compressed once per generated document. Each coding has its own entity tag, as required for strong tags.
+ * <p>
+ * A variant can also be backed by a mapped file, in which case its content is only copied to the heap
+ * when an array of it is needed.
+ */
+public final class RenderedSpec {
+
+    /**
+     * The hex digits.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * The Content, copied from the buffer on first use when the variant is mapped.
+     */
+    private volatile byte[] content;
+
+    /**
+     * The read only buffer over the content.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The Mapped.
+     */
+    private final boolean mapped;
+
+    /**
+     * The digest of the content, in hex.
+     */
+    private final String digest;
+
+    /**
+     * The Etag.
+     */
+    private final String etag;
+
+    /**
+     * The compressed contents, per content coding.
+     */
+    private final ConcurrentMap<ContentCoding, byte[]> compressedContents = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new Rendered spec.
+     *
+     * @param content the content
+     */
+    public RenderedSpec(byte[] content) {
+        this.content = Objects.requireNonNull(content, "content");
+        this.buffer = ByteBuffer.wrap(content).asReadOnlyBuffer();
+        this.mapped = false;
+        this.digest = computeDigest(content);
+        this.etag = '"' + digest + '"';
+    }
+
+    /**
+     * Instantiates a new Rendered spec backed by a mapped file.
+     *
+     * @param mappedContent the mapped content
+     */
+    public RenderedSpec(MappedByteBuffer mappedContent) {
+        this.buffer = Objects.requireNonNull(mappedContent, "mappedContent").asReadOnlyBuffer();
+        this.mapped = true;
+        this.digest = computeDigest(buffer.duplicate());
+        this.etag = '"' + digest + '"';
+    }
+
+    /**
+     * Gets content.
+     *
+     * @return the content
+     */
+    public byte[] getContent() {
+        byte[] result = content;
+        if (result == null) {
+            result = new byte[buffer.remaining()];
+            buffer.duplicate().get(result);
+            content = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets a read only buffer over the content, positioned at its start.
+     *
+     * @return the content buffer
+     */
+    public ByteBuffer getContentBuffer() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * Gets the size of the content, in bytes.
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return buffer.remaining();
+    }
+
+    /**
+     * Is mapped boolean.
+     *
+     * @return true if the content is backed by a mapped file
+     */
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Gets the content with the given coding.
+     *
+     * @param contentCoding the content coding, null for the identity
+     * @return the content
+     */
+    public byte[] getContent(ContentCoding contentCoding) {
+        if (contentCoding == null)
+            return getContent();
+        return compressedContents.computeIfAbsent(contentCoding, coding -> coding.compress(getContent()));
+    }
+
+    /**
+     * Gets the SHA-256 digest of the content, in hex: the strong entity tag, unquoted.
+     *
+     * @return the digest
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Gets the strong entity tag, quoted.
+     *
+     * @return the etag
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Gets the strong entity tag of the content with the given coding, quoted.
+     *
+     * @param contentCoding the content coding, null for the identity
+     * @return the etag
+     */
+    public String getEtag(ContentCoding contentCoding) {
+        if (contentCoding == null)
+            return etag;
+        return getEtag(digest, contentCoding);
+    }
+
+    /**
+     * Gets the strong entity tag of a content with the given coding, quoted.
+     *
+     * @param digest        the digest of the content
+     * @param contentCoding the content coding, null for the identity
+     * @return the etag
+     */
+    public static String getEtag(String digest, ContentCoding contentCoding) {
+        if (contentCoding == null)
+            return '"' + digest + '"';
+        return '"' + digest + '-' + contentCoding.getName() + '"';
+    }
+
+    /**
+     * Compute the SHA-256 digest of the content, in hex.
+     *
+     * @param content the content
+     * @return the digest
+     */
+    public static String computeDigest(byte[] content) {
+        return computeDigest(ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Compute the SHA-256 digest of the remaining content of a buffer, in hex. The buffer is consumed.
+     *
+     * @param content the content
+     * @return the digest
+     */
+    private static String computeDigest(ByteBuffer content) {
+        byte[] digest;
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(content);
+            digest = messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * True if the If-None-Match header matches this variant, with any content coding.
+     * Entity tags are compared weakly, as the header requires.
+     *
+     * @param ifNoneMatch the If-None-Match header value, may be null
+     * @return the boolean
+     */
+    public boolean matches(String ifNoneMatch) {
+        return matches(digest, ifNoneMatch);
+    }
+
+    /**
+     * True if the If-None-Match header matches the content of the given digest, with any content coding.
+     * It lets a conditional request be answered from the digest alone, before the content is rendered.
+     *
+     * @param digest      the digest of the content
+     * @param ifNoneMatch the If-None-Match header value, may be null
+     * @return the boolean
+     */
+    public static boolean matches(String digest, String ifNoneMatch) {
+        if (ifNoneMatch == null)
+            return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if ("*".equals(tag) || getEtag(digest, null).equals(tag))
+                return true;
+            for (ContentCoding contentCoding : ContentCoding.values()) {
+                if (getEtag(digest, contentCoding).equals(tag))
+                    return true;
+            }
+        }
+        return false;
+    }
+}
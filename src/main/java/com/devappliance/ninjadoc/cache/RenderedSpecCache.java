@@ -0,0 +1,229 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the rendered variants of a generated OpenAPI document, keyed by format and server url.
+ * The cache is bounded: once it holds more than its maximum number of documents, the least recently
+ * served one is evicted. Lookups never lock.
+ */
+public class RenderedSpecCache {
+
+    /**
+     * The default maximum number of rendered documents.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    /**
+     * The Rendered documents.
+     */
+    private final ConcurrentMap<RenderKey, Entry> renderedDocuments = new ConcurrentHashMap<>();
+
+    /**
+     * The access clock, used to find the least recently used entry.
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    /**
+     * The Max entries.
+     */
+    private final int maxEntries;
+
+    /**
+     * Instantiates a new Rendered spec cache.
+     */
+    public RenderedSpecCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Instantiates a new Rendered spec cache.
+     *
+     * @param maxEntries the max entries
+     */
+    public RenderedSpecCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Gets max entries.
+     *
+     * @return the max entries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the rendered document.
+     *
+     * @param key the key
+     * @return the rendered document, or null when the variant was not rendered yet
+     */
+    public RenderedSpec get(RenderKey key) {
+        Entry entry = renderedDocuments.get(key);
+        if (entry == null)
+            return null;
+        entry.lastAccess = clock.incrementAndGet();
+        return entry.rendered;
+    }
+
+    /**
+     * Put a rendered document.
+     *
+     * @param key      the key
+     * @param rendered the rendered document
+     */
+    public void put(RenderKey key, RenderedSpec rendered) {
+        renderedDocuments.put(key, new Entry(rendered, clock.incrementAndGet()));
+        evictIfNeeded();
+    }
+
+    /**
+     * Put a rendered document unless another thread rendered it first.
+     *
+     * @param key      the key
+     * @param rendered the rendered document
+     * @return the rendered document held by the cache for the key
+     */
+    public RenderedSpec putIfAbsent(RenderKey key, RenderedSpec rendered) {
+        Entry existing = renderedDocuments.putIfAbsent(key, new Entry(rendered, clock.incrementAndGet()));
+        if (existing != null)
+            return existing.rendered;
+        evictIfNeeded();
+        return rendered;
+    }
+
+    /**
+     * Drop every rendered document.
+     */
+    public void clear() {
+        renderedDocuments.clear();
+    }
+
+    /**
+     * Evict the least recently used documents above the maximum size.
+     */
+    private void evictIfNeeded() {
+        while (renderedDocuments.size() > maxEntries) {
+            RenderKey eldestKey = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<RenderKey, Entry> entry : renderedDocuments.entrySet()) {
+                if (entry.getValue().lastAccess < eldestAccess) {
+                    eldestAccess = entry.getValue().lastAccess;
+                    eldestKey = entry.getKey();
+                }
+            }
+            if (eldestKey == null)
+                return;
+            renderedDocuments.remove(eldestKey);
+        }
+    }
+
+    /**
+     * A rendered document and its last access time.
+     */
+    private static final class Entry {
+
+        /**
+         * The Rendered.
+         */
+        private final RenderedSpec rendered;
+
+        /**
+         * The Last access.
+         */
+        private volatile long lastAccess;
+
+        /**
+         * Instantiates a new Entry.
+         *
+         * @param rendered   the rendered
+         * @param lastAccess the last access
+         */
+        private Entry(RenderedSpec rendered, long lastAccess) {
+            this.rendered = rendered;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * The key of a rendered variant.
+     */
+    public static final class RenderKey {
+
+        /**
+         * The Format.
+         */
+        private final SpecFormat format;
+
+        /**
+         * The Pretty print.
+         */
+        private final boolean pretty;
+
+        /**
+         * The Server url.
+         */
+        private final String serverUrl;
+
+        /**
+         * Instantiates a new Render key.
+         *
+         * @param format    the format
+         * @param pretty    the pretty print
+         * @param serverUrl the server url
+         */
+        public RenderKey(SpecFormat format, boolean pretty, String serverUrl) {
+            this.format = Objects.requireNonNull(format, "format");
+            this.pretty = pretty;
+            this.serverUrl = serverUrl;
+        }
+
+        /**
+         * Gets format.
+         *
+         * @return the format
+         */
+        public SpecFormat getFormat() {
+            return format;
+        }
+
+        /**
+         * Is pretty boolean.
+         *
+         * @return the boolean
+         */
+        public boolean isPretty() {
+            return pretty;
+        }
+
+        /**
+         * Gets server url.
+         *
+         * @return the server url
+         */
+        public String getServerUrl() {
+            return serverUrl;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RenderKey renderKey = (RenderKey) o;
+            return pretty == renderKey.pretty &&
+                    format == renderKey.format &&
+                    Objects.equals(serverUrl, renderKey.serverUrl);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(format, pretty, serverUrl);
+        }
+    }
+}
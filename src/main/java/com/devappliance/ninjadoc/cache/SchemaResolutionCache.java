@@ -0,0 +1,238 @@
+package com.devappliance.ninjadoc.cache;
+
+import com.fasterxml.jackson.annotation.JsonView;
+import io.swagger.v3.core.converter.ResolvedSchema;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Schema;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes the schemas resolved during the build of one OpenAPI, keyed by type, json view and context annotations.
+ * The cache is bound to the threads working on the build with {@link #run(Runnable)}, and looked up with {@link #current()}.
+ * <p>
+ * Callers own and modify the top level schema they get, so a result is only cached when that schema can be rebuilt
+ * exactly: a plain {@code $ref}, or an array of one. Hits get a fresh copy. The referenced schemas are shared as is;
+ * within one build only the first resolution of a schema ever reaches the components, so this changes nothing.
+ * <p>
+ * The builds of several groups can share the resolutions of a cache of their own, see {@link #SchemaResolutionCache(SchemaResolutionCache)}.
+ * The documents of the groups must not share any schema instance, so the shared cache keeps its own copies, taken
+ * as soon as a schema is resolved, and each build gets a deep copy of the referenced schemas.
+ */
+public final class SchemaResolutionCache {
+
+    /**
+     * The cache bound to the current thread.
+     */
+    private static final ThreadLocal<SchemaResolutionCache> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The Resolved schemas.
+     */
+    private final ConcurrentMap<Key, ResolvedSchema> resolvedSchemas = new ConcurrentHashMap<>();
+
+    /**
+     * The Shared cache, may be null.
+     */
+    private final SchemaResolutionCache shared;
+
+    /**
+     * Instantiates a new Schema resolution cache.
+     */
+    public SchemaResolutionCache() {
+        this(null);
+    }
+
+    /**
+     * Instantiates a new Schema resolution cache, looking up the resolutions missing from it in a cache shared
+     * with the builds of other groups.
+     *
+     * @param shared the shared cache, may be null
+     */
+    public SchemaResolutionCache(SchemaResolutionCache shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * Gets the cache bound to the current thread.
+     *
+     * @return the cache, or null outside of a build
+     */
+    public static SchemaResolutionCache current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Gets the cache shared with the builds of other groups.
+     *
+     * @return the shared cache, may be null
+     */
+    public SchemaResolutionCache getShared() {
+        return shared;
+    }
+
+    /**
+     * Run the task with this cache bound to the current thread.
+     *
+     * @param task the task
+     */
+    public void run(Runnable task) {
+        SchemaResolutionCache previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            task.run();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Resolve a schema, or get it from the cache.
+     *
+     * @param type        the type
+     * @param jsonView    the json view
+     * @param annotations the context annotations
+     * @param resolver    the resolver, called on a miss
+     * @return the resolved schema
+     */
+    public ResolvedSchema resolve(Type type, JsonView jsonView, Annotation[] annotations, Supplier<ResolvedSchema> resolver) {
+        Key key = new Key(type, jsonView, annotations);
+        ResolvedSchema cached = resolvedSchemas.get(key);
+        if (cached != null)
+            return copyOf(cached);
+        ResolvedSchema sharedResolution = (shared == null) ? null : shared.resolvedSchemas.get(key);
+        if (sharedResolution != null) {
+            cached = resolvedSchemas.computeIfAbsent(key, k -> deepCopyOf(sharedResolution));
+            return copyOf(cached);
+        }
+        ResolvedSchema resolvedSchema = resolver.get();
+        if (resolvedSchema != null && (resolvedSchema.schema == null || copyOf(resolvedSchema.schema) != null)) {
+            // the shared copy is taken before the build gets to modify the referenced schemas
+            if (shared != null)
+                shared.resolvedSchemas.putIfAbsent(key, deepCopyOf(resolvedSchema));
+            resolvedSchemas.putIfAbsent(key, copyOf(resolvedSchema));
+        }
+        return resolvedSchema;
+    }
+
+    /**
+     * Copy of a resolved schema, with a fresh top level schema.
+     *
+     * @param resolvedSchema the resolved schema
+     * @return the copy
+     */
+    private static ResolvedSchema copyOf(ResolvedSchema resolvedSchema) {
+        ResolvedSchema copy = new ResolvedSchema();
+        copy.schema = (resolvedSchema.schema == null) ? null : copyOf(resolvedSchema.schema);
+        copy.referencedSchemas = resolvedSchema.referencedSchemas;
+        return copy;
+    }
+
+    /**
+     * Copy of a resolved schema, with a fresh top level schema and deep copies of the referenced schemas.
+     *
+     * @param resolvedSchema the resolved schema
+     * @return the copy
+     */
+    @SuppressWarnings("rawtypes")
+    private static ResolvedSchema deepCopyOf(ResolvedSchema resolvedSchema) {
+        ResolvedSchema copy = copyOf(resolvedSchema);
+        if (resolvedSchema.referencedSchemas != null) {
+            Map<String, Schema> referencedSchemas = new LinkedHashMap<>();
+            resolvedSchema.referencedSchemas.forEach((name, schema) ->
+                    referencedSchemas.put(name, Json.mapper().convertValue(schema, Schema.class)));
+            copy.referencedSchemas = referencedSchemas;
+        }
+        return copy;
+    }
+
+    /**
+     * Copy of a top level schema.
+     *
+     * @param schema the schema
+     * @return the copy, or null if the schema is not a plain reference or array of references
+     */
+    @SuppressWarnings("rawtypes")
+    private static Schema copyOf(Schema schema) {
+        Schema copy;
+        if (schema instanceof ArraySchema) {
+            Schema items = ((ArraySchema) schema).getItems();
+            if (items == null || items.get$ref() == null)
+                return null;
+            copy = new ArraySchema().items(new Schema<>().$ref(items.get$ref()));
+            if (schema.getUniqueItems() != null)
+                copy.setUniqueItems(schema.getUniqueItems());
+        } else if (schema.get$ref() != null && Schema.class.equals(schema.getClass()))
+            copy = new Schema<>().$ref(schema.get$ref());
+        else
+            return null;
+        return copy.equals(schema) ? copy : null;
+    }
+
+    /**
+     * The key of a resolution.
+     */
+    private static final class Key {
+
+        /**
+         * The Type.
+         */
+        private final Type type;
+
+        /**
+         * The Json view.
+         */
+        private final JsonView jsonView;
+
+        /**
+         * The Annotations.
+         */
+        private final Annotation[] annotations;
+
+        /**
+         * The Hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Instantiates a new Key.
+         *
+         * @param type        the type
+         * @param jsonView    the json view
+         * @param annotations the annotations
+         */
+        private Key(Type type, JsonView jsonView, Annotation[] annotations) {
+            this.type = type;
+            this.jsonView = jsonView;
+            this.annotations = annotations;
+            this.hashCode = Objects.hash(type, jsonView, Arrays.hashCode(annotations));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(type, key.type) &&
+                    Objects.equals(jsonView, key.jsonView) &&
+                    Arrays.equals(annotations, key.annotations);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.devappliance.ninjadoc.cache;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The formats the OpenAPI document can be rendered to.
+ */
+public enum SpecFormat {
+
+    /**
+     * Json format.
+     */
+    JSON("application/json"),
+
+    /**
+     * Yaml format.
+     */
+    YAML("text/plain"),
+
+    /**
+     * Smile format, the binary encoding of json defined by jackson.
+     */
+    SMILE("application/x-jackson-smile"),
+
+    /**
+     * Cbor format.
+     */
+    CBOR("application/cbor");
+
+    /**
+     * The Content type.
+     */
+    private final String contentType;
+
+    /**
+     * Instantiates a new Spec format.
+     *
+     * @param contentType the content type
+     */
+    SpecFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets content type.
+     *
+     * @return the content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Is binary boolean.
+     *
+     * @return the boolean
+     */
+    public boolean isBinary() {
+        return this == SMILE || this == CBOR;
+    }
+
+    /**
+     * Negotiate the format of the json api docs from an Accept header.
+     * A binary format is only chosen when the client prefers it to json, so clients sending no header,
+     * or a wildcard, keep getting json.
+     *
+     * @param accept the accept header
+     * @return the format
+     */
+    public static SpecFormat negotiate(String accept) {
+        if (StringUtils.isBlank(accept))
+            return JSON;
+        float jsonQuality = 0f;
+        float smileQuality = 0f;
+        float cborQuality = 0f;
+        for (String mediaRange : accept.split(",")) {
+            String[] parts = mediaRange.split(";");
+            String mediaType = parts[0].trim().toLowerCase();
+            float quality = 1f;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0f;
+                    }
+                }
+            }
+            if (JSON.contentType.equals(mediaType) || "application/*".equals(mediaType) || "*/*".equals(mediaType))
+                jsonQuality = Math.max(jsonQuality, quality);
+            else if (SMILE.contentType.equals(mediaType))
+                smileQuality = Math.max(smileQuality, quality);
+            else if (CBOR.contentType.equals(mediaType))
+                cborQuality = Math.max(cborQuality, quality);
+        }
+        if (smileQuality > jsonQuality && smileQuality >= cborQuality)
+            return SMILE;
+        if (cborQuality > jsonQuality)
+            return CBOR;
+        return JSON;
+    }
+}
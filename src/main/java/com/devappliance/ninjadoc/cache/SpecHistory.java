@@ -0,0 +1,244 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The last json renderings of a generated OpenAPI document, each identified by the digest of its content,
+ * so a client holding an older version can be sent the patch to the current one. The history is bounded
+ * by a number of versions and a number of bytes, the oldest versions being evicted first; the patches between
+ * versions are computed once and dropped with their versions.
+ * <p>
+ * The versions are the documents without the server url of the caller. Each version keeps the digests of the
+ * documents served for it with a server url, so a client can ask for the patch from the entity tag it holds.
+ * The server url comes from the request, so these aliases are bounded per version, the least recently used
+ * being evicted first: a client whose alias was evicted is sent the whole document.
+ */
+public class SpecHistory {
+
+    /**
+     * The default maximum number of versions.
+     */
+    public static final int DEFAULT_MAX_VERSIONS = 8;
+
+    /**
+     * The default maximum number of bytes.
+     */
+    public static final long DEFAULT_MAX_SIZE = 32L * 1024 * 1024;
+
+    /**
+     * The default maximum number of served documents kept per version.
+     */
+    public static final int DEFAULT_MAX_ALIASES = 16;
+
+    /**
+     * The versions, oldest first.
+     */
+    private final Map<String, Version> versions = new LinkedHashMap<>();
+
+    /**
+     * The patches, per source and target digest.
+     */
+    private final Map<String, RenderedSpec> patches = new LinkedHashMap<>();
+
+    /**
+     * The patches changing the servers, per source and target digest.
+     */
+    private final Set<String> serverPatches = new HashSet<>();
+
+    /**
+     * The Max versions.
+     */
+    private final int maxVersions;
+
+    /**
+     * The Max size.
+     */
+    private final long maxSize;
+
+    /**
+     * The max number of served documents kept per version.
+     */
+    private final int maxAliases;
+
+    /**
+     * The number of bytes held by the versions.
+     */
+    private long size;
+
+    /**
+     * Instantiates a new Spec history.
+     *
+     * @param maxVersions the max versions
+     * @param maxSize     the max number of bytes
+     */
+    public SpecHistory(int maxVersions, long maxSize) {
+        this(maxVersions, maxSize, DEFAULT_MAX_ALIASES);
+    }
+
+    /**
+     * Instantiates a new Spec history.
+     *
+     * @param maxVersions the max versions
+     * @param maxSize     the max number of bytes
+     * @param maxAliases  the max number of served documents kept per version
+     */
+    public SpecHistory(int maxVersions, long maxSize, int maxAliases) {
+        this.maxVersions = Math.max(1, maxVersions);
+        this.maxSize = maxSize;
+        this.maxAliases = Math.max(0, maxAliases);
+    }
+
+    /**
+     * Record a version.
+     *
+     * @param renderedSpec the rendered json document
+     */
+    public void record(RenderedSpec renderedSpec) {
+        record(renderedSpec, renderedSpec, null);
+    }
+
+    /**
+     * Record a version and a document served for it. It is called once per rendering, not per request.
+     *
+     * @param renderedSpec the rendered json document, without the server url of the caller
+     * @param served       the document served, the same as the version when no server url was overlaid
+     * @param serverUrl    the server url overlaid on the served document, null if none
+     */
+    public synchronized void record(RenderedSpec renderedSpec, RenderedSpec served, String serverUrl) {
+        Version version = versions.get(renderedSpec.getDigest());
+        if (version == null) {
+            version = new Version(renderedSpec, maxAliases);
+            versions.put(renderedSpec.getDigest(), version);
+            size += renderedSpec.getSize();
+            Iterator<Map.Entry<String, Version>> eldest = versions.entrySet().iterator();
+            while (versions.size() > 1 && (versions.size() > maxVersions || size > maxSize)) {
+                Map.Entry<String, Version> evicted = eldest.next();
+                size -= evicted.getValue().renderedSpec.getSize();
+                eldest.remove();
+                patches.keySet().removeIf(key -> key.startsWith(evicted.getKey() + ":") || key.endsWith(":" + evicted.getKey()));
+                serverPatches.removeIf(key -> key.startsWith(evicted.getKey() + ":") || key.endsWith(":" + evicted.getKey()));
+            }
+        }
+        if (served != renderedSpec && serverUrl != null)
+            version.aliases.put(served.getDigest(), serverUrl);
+    }
+
+    /**
+     * Gets the digest of the version a served document was rendered from.
+     *
+     * @param digest    the digest of the served document
+     * @param serverUrl the server url of the caller, null if none
+     * @return the digest of the version, or null if the document is not, or no longer, recorded, or was served
+     * with another server url
+     */
+    public synchronized String getVersionDigest(String digest, String serverUrl) {
+        if (versions.containsKey(digest))
+            return digest;
+        for (Map.Entry<String, Version> version : versions.entrySet()) {
+            String aliasServerUrl = version.getValue().aliases.get(digest);
+            if (aliasServerUrl != null)
+                return aliasServerUrl.equals(serverUrl) ? version.getKey() : null;
+        }
+        return null;
+    }
+
+    /**
+     * Gets a recorded version.
+     *
+     * @param digest the digest of the version
+     * @return the version, or null if it is not, or no longer, recorded
+     */
+    public synchronized RenderedSpec getVersion(String digest) {
+        Version version = versions.get(digest);
+        return (version == null) ? null : version.renderedSpec;
+    }
+
+    /**
+     * Gets the patch between two versions, if it was computed.
+     *
+     * @param sourceDigest the source digest
+     * @param targetDigest the target digest
+     * @return the patch, or null
+     */
+    public synchronized RenderedSpec getPatch(String sourceDigest, String targetDigest) {
+        return patches.get(sourceDigest + ":" + targetDigest);
+    }
+
+    /**
+     * Put the patch between two versions, as long as both are still recorded.
+     *
+     * @param sourceDigest the source digest
+     * @param targetDigest the target digest
+     * @param patch        the patch
+     */
+    public void putPatch(String sourceDigest, String targetDigest, RenderedSpec patch) {
+        putPatch(sourceDigest, targetDigest, patch, false);
+    }
+
+    /**
+     * Put the patch between two versions, as long as both are still recorded.
+     *
+     * @param sourceDigest   the source digest
+     * @param targetDigest   the target digest
+     * @param patch          the patch
+     * @param serversChanged true if the patch changes the servers
+     */
+    public synchronized void putPatch(String sourceDigest, String targetDigest, RenderedSpec patch, boolean serversChanged) {
+        if (versions.containsKey(sourceDigest) && versions.containsKey(targetDigest)) {
+            patches.put(sourceDigest + ":" + targetDigest, patch);
+            if (serversChanged)
+                serverPatches.add(sourceDigest + ":" + targetDigest);
+        }
+    }
+
+    /**
+     * True if the patch between two versions changes the servers. Such a patch does not apply to a document
+     * served with a server url, which is not part of the versions.
+     *
+     * @param sourceDigest the source digest
+     * @param targetDigest the target digest
+     * @return the boolean
+     */
+    public synchronized boolean isServersChanged(String sourceDigest, String targetDigest) {
+        return serverPatches.contains(sourceDigest + ":" + targetDigest);
+    }
+
+    /**
+     * A version and the documents served for it with a server url.
+     */
+    private static final class Version {
+
+        /**
+         * The Rendered spec.
+         */
+        private final RenderedSpec renderedSpec;
+
+        /**
+         * The server urls of the served documents, per digest, the least recently used first.
+         */
+        private final Map<String, String> aliases;
+
+        /**
+         * Instantiates a new Version.
+         *
+         * @param renderedSpec the rendered spec
+         * @param maxAliases   the max number of served documents kept
+         */
+        private Version(RenderedSpec renderedSpec, int maxAliases) {
+            this.renderedSpec = Objects.requireNonNull(renderedSpec, "renderedSpec");
+            this.aliases = new LinkedHashMap<String, String>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > maxAliases;
+                }
+            };
+        }
+    }
+}
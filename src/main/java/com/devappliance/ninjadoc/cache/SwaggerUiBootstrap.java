@@ -0,0 +1,66 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * What the swagger ui needs to start, as seen from one origin: its config parameters, already serialized
+ * for the swagger-config endpoint, and the url the swagger ui path redirects to. Instances are immutable.
+ */
+public final class SwaggerUiBootstrap {
+
+    /**
+     * The Config parameters.
+     */
+    private final Map<String, Object> configParameters;
+
+    /**
+     * The serialized config parameters.
+     */
+    private final byte[] configJson;
+
+    /**
+     * The Redirect url.
+     */
+    private final String redirectUrl;
+
+    /**
+     * Instantiates a new Swagger ui bootstrap.
+     *
+     * @param configParameters the config parameters
+     * @param configJson       the serialized config parameters
+     * @param redirectUrl      the redirect url
+     */
+    public SwaggerUiBootstrap(Map<String, Object> configParameters, byte[] configJson, String redirectUrl) {
+        this.configParameters = Collections.unmodifiableMap(configParameters);
+        this.configJson = configJson;
+        this.redirectUrl = redirectUrl;
+    }
+
+    /**
+     * Gets config parameters.
+     *
+     * @return the config parameters
+     */
+    public Map<String, Object> getConfigParameters() {
+        return configParameters;
+    }
+
+    /**
+     * Gets the serialized config parameters.
+     *
+     * @return the config json
+     */
+    public byte[] getConfigJson() {
+        return configJson;
+    }
+
+    /**
+     * Gets redirect url.
+     *
+     * @return the redirect url
+     */
+    public String getRedirectUrl() {
+        return redirectUrl;
+    }
+}
@@ -0,0 +1,96 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.util.Objects;
+
+/**
+ * A static asset of a webjar held in memory: its content, precompressed with gzip when that makes it smaller,
+ * its entity tag and its mime type.
+ */
+public final class WebJarAsset {
+
+    /**
+     * The Content.
+     */
+    private final RenderedSpec content;
+
+    /**
+     * The Mime type.
+     */
+    private final String mimeType;
+
+    /**
+     * The Gzip compressible.
+     */
+    private final boolean gzipCompressible;
+
+    /**
+     * Instantiates a new Web jar asset.
+     *
+     * @param content  the content
+     * @param mimeType the mime type, may be null
+     */
+    public WebJarAsset(byte[] content, String mimeType) {
+        this.content = new RenderedSpec(Objects.requireNonNull(content, "content"));
+        this.mimeType = mimeType;
+        this.gzipCompressible = this.content.getContent(ContentCoding.GZIP).length < content.length;
+    }
+
+    /**
+     * Gets the content with the given coding.
+     *
+     * @param contentCoding the content coding, as returned by {@link #getContentCoding(ContentCoding)}
+     * @return the content
+     */
+    public byte[] getContent(ContentCoding contentCoding) {
+        return content.getContent(contentCoding);
+    }
+
+    /**
+     * Gets the content coding to serve, given the one accepted by the client. Only gzip is kept in memory,
+     * and only for the assets it makes smaller.
+     *
+     * @param acceptedCoding the accepted coding, may be null
+     * @return the content coding, or null for the identity
+     */
+    public ContentCoding getContentCoding(ContentCoding acceptedCoding) {
+        return (acceptedCoding == ContentCoding.GZIP && gzipCompressible) ? ContentCoding.GZIP : null;
+    }
+
+    /**
+     * Gets the strong entity tag of the content with the given coding, quoted.
+     *
+     * @param contentCoding the content coding
+     * @return the etag
+     */
+    public String getEtag(ContentCoding contentCoding) {
+        return content.getEtag(contentCoding);
+    }
+
+    /**
+     * True if the If-None-Match header matches this asset.
+     *
+     * @param ifNoneMatch the If-None-Match header value, may be null
+     * @return the boolean
+     */
+    public boolean matches(String ifNoneMatch) {
+        return content.matches(ifNoneMatch);
+    }
+
+    /**
+     * Gets mime type.
+     *
+     * @return the mime type
+     */
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Gets the number of bytes held in memory.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return (long) content.getContent(null).length + (gzipCompressible ? content.getContent(ContentCoding.GZIP).length : 0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.devappliance.ninjadoc.cache;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the webjar assets served by the swagger ui, so each one is read from its jar once.
+ * The cache is bounded by the number of bytes it holds; once full, further assets are loaded on each request.
+ * Paths that match no asset are remembered as well, up to {@link #MAX_MISSING_ENTRIES}, to spare the class loader
+ * the repeated misses.
+ */
+public class WebJarAssetCache {
+
+    /**
+     * The max number of missing paths remembered.
+     */
+    public static final int MAX_MISSING_ENTRIES = 256;
+
+    /**
+     * The Assets, empty for the paths matching no asset.
+     */
+    private final ConcurrentMap<String, Optional<WebJarAsset>> assets = new ConcurrentHashMap<>();
+
+    /**
+     * The number of bytes held.
+     */
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * The number of missing paths remembered.
+     */
+    private final AtomicLong missingEntries = new AtomicLong();
+
+    /**
+     * The Max size.
+     */
+    private final long maxSize;
+
+    /**
+     * Instantiates a new Web jar asset cache.
+     *
+     * @param maxSize the max number of bytes held, 0 to disable the cache
+     */
+    public WebJarAssetCache(long maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Gets the asset at the given path, loading it on a miss.
+     *
+     * @param path   the path
+     * @param loader the loader, returning null when no asset exists at the path
+     * @return the asset, or null when no asset exists at the path
+     * @throws IOException the io exception
+     */
+    public WebJarAsset get(String path, Loader loader) throws IOException {
+        Optional<WebJarAsset> cached = assets.get(path);
+        if (cached != null)
+            return cached.orElse(null);
+        WebJarAsset asset = loader.load(path);
+        if (asset == null) {
+            if (maxSize > 0 && missingEntries.incrementAndGet() <= MAX_MISSING_ENTRIES)
+                assets.putIfAbsent(path, Optional.empty());
+        } else if (size.addAndGet(asset.getSize()) <= maxSize) {
+            Optional<WebJarAsset> existing = assets.putIfAbsent(path, Optional.of(asset));
+            if (existing != null) {
+                size.addAndGet(-asset.getSize());
+                return existing.orElse(null);
+            }
+        } else
+            size.addAndGet(-asset.getSize());
+        return asset;
+    }
+
+    /**
+     * Loads an asset.
+     */
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Load the asset at the given path.
+         *
+         * @param path the path
+         * @return the asset, or null when no asset exists at the path
+         * @throws IOException the io exception
+         */
+        WebJarAsset load(String path) throws IOException;
+    }
+}
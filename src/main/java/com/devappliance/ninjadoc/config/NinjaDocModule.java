@@ -19,6 +19,7 @@ package com.devappliance.ninjadoc.config;
 
 import com.devappliance.ninjadoc.*;
 import com.devappliance.ninjadoc.controllers.MultipleOpenApiResource;
+import com.devappliance.ninjadoc.controllers.OpenApiPreLoader;
 import com.devappliance.ninjadoc.converters.FileSupportConverter;
 import com.devappliance.ninjadoc.converters.ModelConverterRegistrar;
 import com.devappliance.ninjadoc.converters.ResponseSupportConverter;
@@ -27,6 +28,8 @@ import com.devappliance.ninjadoc.customizers.OpenApiBuilderCustomiser;
 import com.devappliance.ninjadoc.customizers.OpenApiCustomiser;
 import com.devappliance.ninjadoc.customizers.OperationCustomizer;
 import com.devappliance.ninjadoc.customizers.ParameterCustomizer;
+import com.devappliance.ninjadoc.metrics.JmxNinjaDocMetrics;
+import com.devappliance.ninjadoc.metrics.NinjaDocMetrics;
 import com.devappliance.ninjadoc.util.AfterInjectionListener;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
@@ -44,6 +47,7 @@ import io.swagger.v3.core.converter.ModelConverter;
 import io.swagger.v3.oas.models.OpenAPI;
 import ninja.AssetsController;
 import ninja.utils.NinjaProperties;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.util.*;
@@ -103,6 +107,8 @@ public class NinjaDocModule extends AbstractModule {
         });
         OptionalBinder.newOptionalBinder(binder(), new TypeLiteral<Set<ParameterCustomizer>>() {
         });
+        OptionalBinder.newOptionalBinder(binder(), NinjaDocMetrics.class)
+                .setDefault().to(JmxNinjaDocMetrics.class);
         bind(AbstractRequestBuilder.class).to(RequestBuilder.class);
         if (ninjaProperties.getBooleanWithDefault(ConfigKeys.NINJADOC_DEPRECATING_CONVERTER_ENABLED, NinjaDocDefaultConfig.NINJADOC_DEPRECATING_CONVERTER_ENABLED)) {
             bind(ModelConverter.class).toInstance(new SchemaPropertyDeprecatingConverter());
@@ -111,9 +117,14 @@ public class NinjaDocModule extends AbstractModule {
             install(new NinjaDocSwaggerUiModule(ninjaProperties));
         }
         try {
-            if (getPropertiesAsType("ninjadoc.", NinjaDocConfigProperties.class).getApiDocs().getGroups().isEnabled()) {
+            NinjaDocConfigProperties ninjaDocConfigProperties = getPropertiesAsType("ninjadoc.", NinjaDocConfigProperties.class);
+            if (ninjaDocConfigProperties.getApiDocs().getGroups().isEnabled()) {
                 bind(MultipleOpenApiResource.class);
             }
+            if (ninjaDocConfigProperties.isPreLoadingEnabled()
+                    || StringUtils.isNotBlank(ninjaDocConfigProperties.getCache().getDiskDirectory())) {
+                bind(OpenApiPreLoader.class).asEagerSingleton();
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
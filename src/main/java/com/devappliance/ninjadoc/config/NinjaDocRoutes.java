@@ -29,7 +29,11 @@ public class NinjaDocRoutes {
     public void register(Router router) {
         router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath()).with(OpenApiResource::openapiJson);
         router.GET().route(String.format("%s.yaml", ninjaDocConfigProperties.getApiDocs().getPath())).with(OpenApiResource::openapiYaml);
+        router.GET().route(String.format("%s.smile", ninjaDocConfigProperties.getApiDocs().getPath())).with(OpenApiResource::openapiSmile);
+        router.GET().route(String.format("%s.cbor", ninjaDocConfigProperties.getApiDocs().getPath())).with(OpenApiResource::openapiCbor);
         router.GET().route(String.format("%s/%s", ninjaDocConfigProperties.getApiDocs().getPath(), Constants.SWAGGGER_CONFIG_FILE)).with(SwaggerWelcome::getSwaggerUiConfig);
+        router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath() + "/operations/{operationId}").with(OpenApiResource::openapiOperation);
+        router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath() + "/schemas/{name}").with(OpenApiResource::openapiSchema);
         if (swaggerUiConfigProperties.isEnabled()) {
             router.GET().route(swaggerUiConfigProperties.getPath()).with(SwaggerWelcome::regirectUi);
             router.GET().route("/swagger-ui/index.html").with(SwaggerWelcome::swaggerUi);
@@ -38,6 +42,10 @@ public class NinjaDocRoutes {
         if (ninjaDocConfigProperties.getApiDocs().getGroups().isEnabled()) {
             router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath() + "/{group}").with(MultipleOpenApiResource::openapiJson);
             router.GET().route(String.format("%s.yaml%s", ninjaDocConfigProperties.getApiDocs().getPath(), "/{group}")).with(MultipleOpenApiResource::openapiYaml);
+            router.GET().route(String.format("%s.smile%s", ninjaDocConfigProperties.getApiDocs().getPath(), "/{group}")).with(MultipleOpenApiResource::openapiSmile);
+            router.GET().route(String.format("%s.cbor%s", ninjaDocConfigProperties.getApiDocs().getPath(), "/{group}")).with(MultipleOpenApiResource::openapiCbor);
+            router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath() + "/{group}/operations/{operationId}").with(MultipleOpenApiResource::openapiOperation);
+            router.GET().route(ninjaDocConfigProperties.getApiDocs().getPath() + "/{group}/schemas/{name}").with(MultipleOpenApiResource::openapiSchema);
         }
     }
 }
@@ -3,6 +3,7 @@ package com.devappliance.ninjadoc.config;
 import com.devappliance.ninjadoc.SwaggerUiConfigParameters;
 import com.devappliance.ninjadoc.SwaggerUiConfigProperties;
 import com.devappliance.ninjadoc.SwaggerUiOAuthProperties;
+import com.devappliance.ninjadoc.cache.WebJarAssetCache;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -45,6 +46,12 @@ public class NinjaDocSwaggerUiModule extends AbstractModule {
         return getPropertiesAsType("ninjadoc.swagger-ui.", SwaggerUiConfigProperties.class);
     }
 
+    @Provides
+    @Singleton
+    public WebJarAssetCache webJarAssetCache(SwaggerUiConfigProperties swaggerUiConfigProperties) {
+        return new WebJarAssetCache(swaggerUiConfigProperties.getAssetCacheMaxSize());
+    }
+
     @Provides
     @Singleton
     public SwaggerUiOAuthProperties swaggerUiOAuthProperties() throws IOException {
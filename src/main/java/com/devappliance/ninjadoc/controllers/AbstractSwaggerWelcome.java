@@ -1,6 +1,7 @@
 
 package com.devappliance.ninjadoc.controllers;
 
+import com.devappliance.ninjadoc.AbstractSwaggerUiConfigProperties.SwaggerUrl;
 import com.devappliance.ninjadoc.NinjaDocConfigProperties;
 import com.devappliance.ninjadoc.SwaggerUiConfigParameters;
 import com.devappliance.ninjadoc.SwaggerUiConfigProperties;
@@ -11,6 +12,8 @@ import org.apache.http.client.utils.URIBuilder;
 import org.springframework.util.CollectionUtils;
 
 import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Set;
 
 import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
 
@@ -65,48 +68,57 @@ public abstract class AbstractSwaggerWelcome {
         return contextPath + docsUrl;
     }
 
-    protected void buildConfigUrl(String contextPath, URIBuilder uriBuilder) throws URISyntaxException {
-        String apiDocsUrl = ninjaDocConfigProperties.getApiDocs().getPath();
+    /**
+     * Build the swagger ui config parameters as seen from one origin. The shared parameters are not modified,
+     * so concurrent requests from different origins do not interfere.
+     *
+     * @param contextPath the context path
+     * @param uriBuilder  the uri builder of the origin
+     * @return the config parameters
+     * @throws URISyntaxException the uri syntax exception
+     */
+    protected Map<String, Object> buildConfigParameters(String contextPath, URIBuilder uriBuilder) throws URISyntaxException {
+        String configUrl = swaggerUiConfigParameters.getConfigUrl();
+        String url = swaggerUiConfigParameters.getUrl();
+        Set<SwaggerUrl> urls = swaggerUiConfigParameters.getUrls();
         if (StringUtils.isEmpty(swaggerUiConfig.getConfigUrl())) {
-            String url = buildUrl(contextPath, apiDocsUrl);
-            String swaggerConfigUrl = url + DEFAULT_PATH_SEPARATOR + Constants.SWAGGGER_CONFIG_FILE;
-            swaggerUiConfigParameters.setConfigUrl(swaggerConfigUrl);
-            if (CollectionUtils.isEmpty(swaggerUiConfigParameters.getUrls())) {
+            String apiDocsUrl = buildUrl(contextPath, ninjaDocConfigProperties.getApiDocs().getPath());
+            configUrl = apiDocsUrl + DEFAULT_PATH_SEPARATOR + Constants.SWAGGGER_CONFIG_FILE;
+            if (CollectionUtils.isEmpty(urls)) {
                 String swaggerUiUrl = swaggerUiConfig.getUrl();
-                if (StringUtils.isEmpty(swaggerUiUrl))
-                    swaggerUiConfigParameters.setUrl(url);
-                else
-                    swaggerUiConfigParameters.setUrl(swaggerUiUrl);
+                url = StringUtils.isEmpty(swaggerUiUrl) ? apiDocsUrl : swaggerUiUrl;
             } else
-                swaggerUiConfigParameters.addUrl(url);
+                urls = swaggerUiConfigParameters.getUrls(apiDocsUrl);
         }
-        calculateOauth2RedirectUrl(uriBuilder);
+        return swaggerUiConfigParameters.getConfigParameters(configUrl, url, urls, calculateOauth2RedirectUrl(uriBuilder));
     }
 
     /**
      * Gets uri components builder.
      *
-     * @param sbUrl the sb url
+     * @param sbUrl            the sb url
+     * @param configParameters the config parameters
      * @return the uri components builder
      * @throws URISyntaxException
      */
-    protected URIBuilder getUriComponentsBuilder(String sbUrl) throws URISyntaxException {
+    protected URIBuilder getUriComponentsBuilder(String sbUrl, Map<String, Object> configParameters) throws URISyntaxException {
         URIBuilder uriBuilder = new URIBuilder(sbUrl);
-        if (swaggerUiConfig.isDisplayQueryParams() && StringUtils.isNotEmpty(swaggerUiConfigParameters.getUrl())) {
-            swaggerUiConfigParameters.getConfigParameters().entrySet().stream()
+        boolean urlPresent = StringUtils.isNotEmpty((String) configParameters.get("url"));
+        if (swaggerUiConfig.isDisplayQueryParams() && urlPresent) {
+            configParameters.entrySet().stream()
                     .filter(entry -> !SwaggerUiConfigParameters.CONFIG_URL_PROPERTY.equals(entry.getKey()))
                     .filter(entry -> !entry.getKey().startsWith(SwaggerUiConfigParameters.URLS_PROPERTY))
                     .filter(entry -> StringUtils.isNotEmpty((String) entry.getValue()))
                     .forEach(entry -> uriBuilder.addParameter(entry.getKey(), String.valueOf(entry.getValue())));
-        } else if (swaggerUiConfig.isDisplayQueryParamsWithoutOauth2() && StringUtils.isNotEmpty(swaggerUiConfigParameters.getUrl())) {
-            swaggerUiConfigParameters.getConfigParameters().entrySet().stream()
+        } else if (swaggerUiConfig.isDisplayQueryParamsWithoutOauth2() && urlPresent) {
+            configParameters.entrySet().stream()
                     .filter(entry -> !SwaggerUiConfigParameters.CONFIG_URL_PROPERTY.equals(entry.getKey()))
                     .filter(entry -> !SwaggerUiConfigParameters.OAUTH2_REDIRECT_URL_PROPERTY.equals(entry.getKey()))
                     .filter(entry -> !entry.getKey().startsWith(SwaggerUiConfigParameters.URLS_PROPERTY))
                     .filter(entry -> StringUtils.isNotEmpty((String) entry.getValue()))
                     .forEach(entry -> uriBuilder.addParameter(entry.getKey(), String.valueOf(entry.getValue())));
         } else {
-            uriBuilder.addParameter(SwaggerUiConfigParameters.CONFIG_URL_PROPERTY, swaggerUiConfigParameters.getConfigUrl());
+            uriBuilder.addParameter(SwaggerUiConfigParameters.CONFIG_URL_PROPERTY, (String) configParameters.get(SwaggerUiConfigParameters.CONFIG_URL_PROPERTY));
             if (StringUtils.isNotEmpty(swaggerUiConfigParameters.getLayout()))
                 uriBuilder.addParameter(SwaggerUiConfigParameters.LAYOUT_PROPERTY, swaggerUiConfigParameters.getLayout());
             if (StringUtils.isNotEmpty(swaggerUiConfigParameters.getFilter()))
@@ -122,5 +134,12 @@ public abstract class AbstractSwaggerWelcome {
      */
     protected abstract void calculateUiRootPath(StringBuilder... sbUrls);
 
-    protected abstract void calculateOauth2RedirectUrl(URIBuilder uriComponentsBuilder) throws URISyntaxException;
+    /**
+     * Calculate the oauth 2 redirect url as seen from one origin.
+     *
+     * @param uriComponentsBuilder the uri builder of the origin
+     * @return the oauth 2 redirect url
+     * @throws URISyntaxException the uri syntax exception
+     */
+    protected abstract String calculateOauth2RedirectUrl(URIBuilder uriComponentsBuilder) throws URISyntaxException;
 }
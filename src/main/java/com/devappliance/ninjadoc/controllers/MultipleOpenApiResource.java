@@ -21,18 +21,32 @@
 package com.devappliance.ninjadoc.controllers;
 
 import com.devappliance.ninjadoc.*;
+import com.devappliance.ninjadoc.cache.SchemaResolutionCache;
+import com.devappliance.ninjadoc.cache.SpecFormat;
+import com.devappliance.ninjadoc.metrics.NinjaDocMetrics;
 import com.devappliance.ninjadoc.util.AfterInjectionListener;
+import com.devappliance.ninjadoc.wrappers.RouteRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.inject.Injector;
 import io.swagger.v3.oas.annotations.Operation;
 import ninja.Context;
 import ninja.Result;
+import ninja.lifecycle.Dispose;
 import ninja.params.PathParam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.inject.Singleton;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
@@ -45,6 +59,11 @@ import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
 @Singleton
 public class MultipleOpenApiResource implements AfterInjectionListener {
 
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultipleOpenApiResource.class);
+
     /**
      * The Grouped open apis.
      */
@@ -85,6 +104,11 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
      */
     private final NinjaDocConfigProperties ninjaDocConfigProperties;
 
+    /**
+     * The Metrics.
+     */
+    private final NinjaDocMetrics metrics;
+
     //	/**
 //	 * The Spring security o auth 2 provider.
 //	 */
@@ -95,6 +119,26 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
      */
     private Map<String, OpenApiResource> groupedOpenApiResources;
 
+    /**
+     * Completed once every group has been built by {@link #buildAllGroupsAsync(Executor)}, replaced when a failed build is retried.
+     */
+    private final AtomicReference<CompletableFuture<Void>> allGroupsReady = new AtomicReference<>(new CompletableFuture<>());
+
+    /**
+     * The Concurrent build started.
+     */
+    private final AtomicBoolean concurrentBuildStarted = new AtomicBoolean();
+
+    /**
+     * The executor of the concurrent builds of the groups, created on first use and shut down on dispose.
+     */
+    private ExecutorService buildExecutor;
+
+    /**
+     * The Disposed.
+     */
+    private boolean disposed;
+
     /**
      * The Router function provider.
      */
@@ -114,13 +158,14 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
      * @param responseBuilder          the response builder
      * @param operationParser          the operation parser
      * @param ninjaDocConfigProperties the spring doc config properties
-     * @param injector
+     * @param metrics                  the metrics
+     * @param injector                 the injector
      */
     @Inject
     public MultipleOpenApiResource(Set<GroupedOpenApi> groupedOpenApis,
                                    Provider<OpenAPIBuilder> defaultOpenAPIBuilder, AbstractRequestBuilder requestBuilder,
                                    GenericResponseBuilder responseBuilder, OperationBuilder operationParser,
-                                   NinjaDocConfigProperties ninjaDocConfigProperties, Injector injector) {
+                                   NinjaDocConfigProperties ninjaDocConfigProperties, NinjaDocMetrics metrics, Injector injector) {
 
         this.groupedOpenApis = new ArrayList<>(groupedOpenApis);
         this.defaultOpenAPIBuilder = defaultOpenAPIBuilder;
@@ -130,6 +175,7 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
 //		this.requestMappingHandlerMapping = requestMappingHandlerMapping;
 //		this.actuatorProvider = actuatorProvider;
         this.ninjaDocConfigProperties = ninjaDocConfigProperties;
+        this.metrics = metrics;
 //		this.springSecurityOAuth2Provider = springSecurityOAuth2Provider;
 //		this.routerFunctionProvider = routerFunctionProvider;
 //		this.repositoryRestResourceProvider=repositoryRestResourceProvider;
@@ -151,6 +197,7 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
                                     Optional.of(new HashSet<>(item.getOperationCustomizers())),
                                     Optional.of(new HashSet<>(item.getOpenApiCustomisers())),
                                     ninjaDocConfigProperties,
+                                    metrics,
                                     injector
                             );
                         }
@@ -176,6 +223,141 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
         return getOpenApiResourceOrThrow(group).extractOpenapiYaml(request, ninjaDocConfigProperties.getApiDocs().getPath() + DEFAULT_PATH_SEPARATOR + group);
     }
 
+    /**
+     * Openapi smile.
+     *
+     * @param request the request
+     * @param group   the group
+     * @return the open api of the group in the smile format
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiSmile(Context request, @PathParam("group") String group) throws JsonProcessingException {
+        return getOpenApiResourceOrThrow(group).extractOpenapiBinary(request, ninjaDocConfigProperties.getApiDocs().getPath() + ".smile" + DEFAULT_PATH_SEPARATOR + group, SpecFormat.SMILE);
+    }
+
+    /**
+     * Openapi cbor.
+     *
+     * @param request the request
+     * @param group   the group
+     * @return the open api of the group in the cbor format
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiCbor(Context request, @PathParam("group") String group) throws JsonProcessingException {
+        return getOpenApiResourceOrThrow(group).extractOpenapiBinary(request, ninjaDocConfigProperties.getApiDocs().getPath() + ".cbor" + DEFAULT_PATH_SEPARATOR + group, SpecFormat.CBOR);
+    }
+
+    @Operation(hidden = true)
+    public Result openapiOperation(Context request, @PathParam("group") String group, @PathParam("operationId") String operationId)
+            throws JsonProcessingException {
+        return getOpenApiResourceOrThrow(group).openapiOperation(request, operationId);
+    }
+
+    @Operation(hidden = true)
+    public Result openapiSchema(Context request, @PathParam("group") String group, @PathParam("name") String name)
+            throws JsonProcessingException {
+        return getOpenApiResourceOrThrow(group).openapiSchema(request, name);
+    }
+
+
+    /**
+     * Build every group concurrently on the given executor. The route metadata is resolved once,
+     * before the builds start, and the groups share one schema resolution cache, so a schema used by several
+     * groups is only resolved once; groups already being built are joined rather than built twice.
+     *
+     * @param executor the executor
+     * @return the future completed once every group is built
+     */
+    public CompletableFuture<Void> buildAllGroupsAsync(Executor executor) {
+        Instant start = Instant.now();
+        CompletableFuture<Void> groupsReady = allGroupsReady.get();
+        if (groupsReady.isCompletedExceptionally()) {
+            // only one of the retries replaces the failed signal, the others complete the one it published
+            CompletableFuture<Void> retry = new CompletableFuture<>();
+            groupsReady = allGroupsReady.compareAndSet(groupsReady, retry) ? retry : allGroupsReady.get();
+        }
+        CompletableFuture<Void> completedGroupsReady = groupsReady;
+        injector.getInstance(RouteRegistry.class).getRoutes();
+        SchemaResolutionCache sharedSchemaResolutionCache = ninjaDocConfigProperties.getCache().isSchemaResolutionEnabled()
+                ? new SchemaResolutionCache() : null;
+        CompletableFuture<?>[] builds = groupedOpenApiResources.values().stream()
+                .map(openApiResource -> openApiResource.preLoad(executor, sharedSchemaResolutionCache))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(builds).whenComplete((result, e) -> {
+            if (e == null) {
+                LOGGER.info("NinjaDoc {} groups initialized in: {} ms", builds.length,
+                        Duration.between(start, Instant.now()).toMillis());
+                completedGroupsReady.complete(null);
+            } else
+                completedGroupsReady.completeExceptionally(e);
+        });
+    }
+
+    /**
+     * Gets the all groups ready signal. It completes exceptionally when the build of a group fails.
+     *
+     * @return the future completed once every group has been built together
+     */
+    public CompletableFuture<Void> getAllGroupsReady() {
+        return allGroupsReady.get();
+    }
+
+    /**
+     * Start building every group concurrently, once, when the concurrent build is enabled.
+     */
+    private void startConcurrentBuild() {
+        if (!ninjaDocConfigProperties.getApiDocs().getGroups().isConcurrentBuildEnabled()
+                || ninjaDocConfigProperties.isCacheDisabled()
+                || !concurrentBuildStarted.compareAndSet(false, true))
+            return;
+        Executor executor = getBuildExecutor();
+        if (executor == null)
+            return;
+        buildAllGroupsAsync(executor).whenComplete((result, e) -> {
+            if (e != null) {
+                LOGGER.error("NinjaDoc concurrent build of the groups failed", e);
+                concurrentBuildStarted.set(false);
+            }
+        });
+    }
+
+    /**
+     * Gets the executor of the concurrent builds of the groups, creating it on first use. Its threads exit once idle.
+     *
+     * @return the executor, or null once disposed
+     */
+    private synchronized Executor getBuildExecutor() {
+        if (disposed)
+            return null;
+        if (buildExecutor == null)
+            buildExecutor = OpenApiPreLoader.newBuildExecutor(groupedOpenApiResources.size());
+        return buildExecutor;
+    }
+
+    /**
+     * Gets grouped open api resources.
+     *
+     * @return the grouped open api resources
+     */
+    Collection<OpenApiResource> getGroupedOpenApiResources() {
+        return groupedOpenApiResources.values();
+    }
+
+    /**
+     * Shut down the executor of the concurrent builds, and dispose the open api resources of the groups.
+     */
+    @Dispose
+    public void dispose() {
+        synchronized (this) {
+            disposed = true;
+            if (buildExecutor != null)
+                buildExecutor.shutdownNow();
+        }
+        if (groupedOpenApiResources != null)
+            groupedOpenApiResources.values().forEach(OpenApiResource::dispose);
+    }
 
     /**
      * Gets open api resource or throw.
@@ -188,6 +370,7 @@ public class MultipleOpenApiResource implements AfterInjectionListener {
         if (openApiResource == null) {
             throw new IllegalArgumentException("No OpenAPI resource found for group: " + group);
         }
+        startConcurrentBuild();
         return openApiResource;
     }
 }
@@ -0,0 +1,95 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.devappliance.ninjadoc.NinjaDocConfigProperties;
+import com.devappliance.ninjadoc.cache.PrebuiltOpenApi;
+import com.devappliance.ninjadoc.cache.SpecFormat;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import ninja.Bootstrap;
+import ninja.utils.NinjaMode;
+import ninja.utils.NinjaPropertiesImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the OpenAPI documents of an application at build time. The application is booted in test mode,
+ * without starting a server, and the json and yaml documents of every group are written under
+ * {@value PrebuiltOpenApi#LOCATION} in the output directory, together with the fingerprint of the application.
+ * Once the output directory is packaged in the application, the api docs are served from it instead of being built,
+ * as long as the application does not change, once enabled with {@code ninjadoc.prebuilt-enabled=true}.
+ * <p>
+ * Usage: {@code java com.devappliance.ninjadoc.controllers.OpenApiGenerator <output directory>}
+ */
+public final class OpenApiGenerator {
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenApiGenerator.class);
+
+    /**
+     * The Injector.
+     */
+    private final Injector injector;
+
+    /**
+     * Instantiates a new Open api generator.
+     *
+     * @param injector the injector of the booted application
+     */
+    public OpenApiGenerator(Injector injector) {
+        this.injector = injector;
+    }
+
+    /**
+     * Boot the application and generate its api docs.
+     *
+     * @param args the output directory
+     * @throws IOException the io exception
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1)
+            throw new IllegalArgumentException("Usage: OpenApiGenerator <output directory>");
+        LOGGER.info("NinjaDoc generates the api docs into {}", args[0]);
+        Bootstrap bootstrap = new Bootstrap(new NinjaPropertiesImpl(NinjaMode.test));
+        bootstrap.boot();
+        try {
+            new OpenApiGenerator(bootstrap.getInjector()).generate(Paths.get(args[0]));
+        } finally {
+            bootstrap.shutdown();
+        }
+    }
+
+    /**
+     * Generate the api docs of every group into the output directory.
+     *
+     * @param outputDirectory the output directory, the root of the class path
+     * @throws IOException the io exception
+     */
+    public void generate(Path outputDirectory) throws IOException {
+        // the documents already packaged must not be served back
+        injector.getInstance(NinjaDocConfigProperties.class).setPrebuiltEnabled(false);
+        List<OpenApiResource> openApiResources = new ArrayList<>();
+        openApiResources.add(injector.getInstance(OpenApiResource.class));
+        Binding<MultipleOpenApiResource> multipleOpenApiResourceBinding = injector.getExistingBinding(Key.get(MultipleOpenApiResource.class));
+        if (multipleOpenApiResourceBinding != null)
+            openApiResources.addAll(multipleOpenApiResourceBinding.getProvider().get().getGroupedOpenApiResources());
+        for (OpenApiResource openApiResource : openApiResources) {
+            String groupName = openApiResource.getGroupName();
+            Files.deleteIfExists(outputDirectory.resolve(PrebuiltOpenApi.LOCATION + PrebuiltOpenApi.getFingerprintName(groupName)));
+            PrebuiltOpenApi.write(outputDirectory, groupName, SpecFormat.JSON, openApiResource.generate(SpecFormat.JSON));
+            PrebuiltOpenApi.write(outputDirectory, groupName, SpecFormat.YAML, openApiResource.generate(SpecFormat.YAML));
+            // written last, so an interrupted generation leaves nothing of the group that would be served
+            PrebuiltOpenApi.writeFingerprint(outputDirectory, groupName, openApiResource.getPrebuiltFingerprint());
+            LOGGER.info("NinjaDoc generated the api docs of group {}", groupName);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.devappliance.ninjadoc.NinjaDocConfigProperties;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import ninja.lifecycle.Start;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the OpenAPI documents of the default group and of every grouped api in the background
+ * when the application starts, so the first request to the api docs does not pay for the generation.
+ * Requests arriving before a build finishes wait on that same build.
+ * Enabled with {@code ninjadoc.pre-loading-enabled=true}.
+ * <p>
+ * When a disk cache directory is configured, the disk caches are created at startup as well, since their
+ * fingerprint reads the class file of every controller.
+ */
+@Singleton
+public class OpenApiPreLoader {
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenApiPreLoader.class);
+
+    /**
+     * The Open api resource.
+     */
+    private final OpenApiResource openApiResource;
+
+    /**
+     * The Spring doc config properties.
+     */
+    private final NinjaDocConfigProperties ninjaDocConfigProperties;
+
+    /**
+     * The Injector.
+     */
+    private final Injector injector;
+
+    /**
+     * Instantiates a new Open api pre loader.
+     *
+     * @param openApiResource          the open api resource
+     * @param ninjaDocConfigProperties the spring doc config properties
+     * @param injector                 the injector
+     */
+    @Inject
+    public OpenApiPreLoader(OpenApiResource openApiResource, NinjaDocConfigProperties ninjaDocConfigProperties, Injector injector) {
+        this.openApiResource = openApiResource;
+        this.ninjaDocConfigProperties = ninjaDocConfigProperties;
+        this.injector = injector;
+    }
+
+    /**
+     * Start building the open api documents.
+     */
+    @Start(order = 100)
+    public void preLoad() {
+        if (ninjaDocConfigProperties.isCacheDisabled()) {
+            if (ninjaDocConfigProperties.isPreLoadingEnabled())
+                LOGGER.warn("NinjaDoc pre-loading is ignored as the cache is disabled");
+            return;
+        }
+        Binding<MultipleOpenApiResource> multipleOpenApiResourceBinding = injector.getExistingBinding(Key.get(MultipleOpenApiResource.class));
+        MultipleOpenApiResource multipleOpenApiResource = (multipleOpenApiResourceBinding == null) ? null : multipleOpenApiResourceBinding.getProvider().get();
+        openApiResource.preLoadDiskSpecCache();
+        if (multipleOpenApiResource != null)
+            multipleOpenApiResource.getGroupedOpenApiResources().forEach(OpenApiResource::preLoadDiskSpecCache);
+        if (!ninjaDocConfigProperties.isPreLoadingEnabled())
+            return;
+        int groups = 1 + ((multipleOpenApiResource == null) ? 0 : multipleOpenApiResource.getGroupedOpenApiResources().size());
+
+        ExecutorService executor = newBuildExecutor(groups);
+        try {
+            openApiResource.preLoad(executor).whenComplete((snapshot, e) -> {
+                if (e != null)
+                    LOGGER.error("NinjaDoc pre-loading failed for group {}", openApiResource.getGroupName(), e);
+            });
+            if (multipleOpenApiResource != null)
+                multipleOpenApiResource.buildAllGroupsAsync(executor).whenComplete((result, e) -> {
+                    if (e != null)
+                        LOGGER.error("NinjaDoc pre-loading of the groups failed", e);
+                });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Create the executor running the builds of the given number of groups, with at most one thread per processor.
+     * Its threads are daemons, so a build still running does not prevent the application from stopping, and exit
+     * once idle.
+     *
+     * @param groups the number of groups
+     * @return the executor service
+     */
+    static ExecutorService newBuildExecutor(int groups) {
+        int threads = Math.max(1, Math.min(groups, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ninjadoc-builder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -21,37 +21,79 @@
 package com.devappliance.ninjadoc.controllers;
 
 import com.devappliance.ninjadoc.*;
+import com.devappliance.ninjadoc.api.ErrorMessage;
+import com.devappliance.ninjadoc.cache.ContentCoding;
+import com.devappliance.ninjadoc.cache.OpenApiSnapshot;
+import com.devappliance.ninjadoc.cache.OpenApiView;
+import com.devappliance.ninjadoc.cache.PrebuiltOpenApi;
+import com.devappliance.ninjadoc.cache.RenderedSpec;
+import com.devappliance.ninjadoc.cache.SchemaResolutionCache;
+import com.devappliance.ninjadoc.cache.SpecFormat;
 import com.devappliance.ninjadoc.config.ConfigKeys;
 import com.devappliance.ninjadoc.config.NinjaDocDefaultConfig;
 import com.devappliance.ninjadoc.customizers.OpenApiCustomiser;
 import com.devappliance.ninjadoc.customizers.OperationCustomizer;
+import com.devappliance.ninjadoc.fn.RouterOperation;
+import com.devappliance.ninjadoc.metrics.NinjaDocMetrics;
 import com.devappliance.ninjadoc.wrappers.HandlerMethod;
 import com.devappliance.ninjadoc.wrappers.RequestMethod;
+import com.devappliance.ninjadoc.wrappers.RouteInfo;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.io.CountingOutputStream;
 import com.google.inject.Injector;
-import io.swagger.v3.core.util.Json;
-import io.swagger.v3.core.util.PathUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.models.OpenAPI;
 import ninja.Context;
+import ninja.Renderable;
 import ninja.Result;
 import ninja.Results;
-import ninja.Route;
+import ninja.params.PathParam;
+import ninja.utils.HttpHeaderConstants;
 import ninja.utils.NinjaProperties;
+import ninja.utils.ResponseStreams;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+import static com.devappliance.ninjadoc.util.Constants.ACCEPT;
+import static com.devappliance.ninjadoc.util.Constants.ACCEPT_ENCODING;
+import static com.devappliance.ninjadoc.util.Constants.CONTENT_ENCODING;
+import static com.devappliance.ninjadoc.util.Constants.JSON_PATCH_CONTENT_TYPE;
+import static com.devappliance.ninjadoc.util.Constants.PATHS_PARAMETER;
+import static com.devappliance.ninjadoc.util.Constants.SINCE_PARAMETER;
+import static com.devappliance.ninjadoc.util.Constants.TAGS_PARAMETER;
+import static com.devappliance.ninjadoc.util.Constants.VARY;
 import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
 
 /**
  * The type Open api resource.
+ * <p>
+ * Ninja gets a controller instance from Guice for every request, so the resource is a singleton: otherwise each
+ * request would get a fresh resource, rebuild the open api and lose the published snapshot, the rendered documents
+ * and the build in flight shared by concurrent callers.
  *
  * @author bnasslahsen
  */
+@Singleton
 public class OpenApiResource extends AbstractOpenApiResource {
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenApiResource.class);
+
     private NinjaProperties ninjaProperties;
 
     /**
@@ -69,15 +111,16 @@ public class OpenApiResource extends AbstractOpenApiResource {
      * @param operationCustomizers        the operation customizers
      * @param openApiCustomisers          the open api customisers
      * @param ninjaDocConfigProperties    the spring doc config properties
+     * @param metrics                     the metrics
+     * @param injector                    the injector
      */
     public OpenApiResource(String groupName, Provider<OpenAPIBuilder> openAPIBuilderObjectFactory, AbstractRequestBuilder requestBuilder,
                            GenericResponseBuilder responseBuilder, OperationBuilder operationParser,
                            Optional<Set<OperationCustomizer>> operationCustomizers,
                            Optional<Set<OpenApiCustomiser>> openApiCustomisers,
-                           NinjaDocConfigProperties ninjaDocConfigProperties, Injector injector) {
+                           NinjaDocConfigProperties ninjaDocConfigProperties, NinjaDocMetrics metrics, Injector injector) {
         super(groupName, openAPIBuilderObjectFactory, requestBuilder, responseBuilder, operationParser, operationCustomizers,
-                openApiCustomisers, ninjaDocConfigProperties, injector);
-
+                openApiCustomisers, ninjaDocConfigProperties, metrics, injector);
     }
 
     @Inject
@@ -85,9 +128,10 @@ public class OpenApiResource extends AbstractOpenApiResource {
                            GenericResponseBuilder responseBuilder, OperationBuilder operationParser,
                            Optional<Set<OperationCustomizer>> operationCustomizers,
                            Optional<Set<OpenApiCustomiser>> openApiCustomisers,
-                           NinjaDocConfigProperties ninjaDocConfigProperties, Injector injector, NinjaProperties ninjaProperties) {
+                           NinjaDocConfigProperties ninjaDocConfigProperties, NinjaDocMetrics metrics, Injector injector,
+                           NinjaProperties ninjaProperties) {
         super(NinjaDocDefaultConfig.DEFAULT_GROUP_NAME, openAPIBuilderObjectFactory, requestBuilder, responseBuilder, operationParser,
-                operationCustomizers, openApiCustomisers, ninjaDocConfigProperties, injector);
+                operationCustomizers, openApiCustomisers, ninjaDocConfigProperties, metrics, injector);
         this.ninjaProperties = ninjaProperties;
     }
 
@@ -98,12 +142,54 @@ public class OpenApiResource extends AbstractOpenApiResource {
     }
 
     public Result extractOpenapiJson(Context context, String apiDocsUrl) throws JsonProcessingException {
-        calculateServerUrl(context, apiDocsUrl);
-        OpenAPI openAPI = this.getOpenApi();
-        if (!ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter())
-            return Results.json().renderRaw(Json.mapper().writeValueAsString(openAPI).getBytes());
-        else
-            return Results.json().render(Json.mapper().writerWithDefaultPrettyPrinter().writeValueAsString(openAPI).getBytes());
+        SpecFormat format = SpecFormat.negotiate(context.getHeader(ACCEPT));
+        if (format.isBinary())
+            return addVary(extractOpenapiBinary(context, apiDocsUrl, format), ACCEPT);
+        String serverBaseUrl = calculateServerUrl(context, apiDocsUrl);
+        OpenApiView view = getOpenApiView(context);
+        String since = context.getParameter(SINCE_PARAMETER);
+        if (StringUtils.isNotBlank(since) && (view != null || ninjaDocConfigProperties.isCacheDisabled()))
+            return addVary(sinceNotSupported(), ACCEPT);
+        if (ninjaDocConfigProperties.isCacheDisabled())
+            return addVary(streamOpenApi(Results.json(), SpecFormat.JSON, serverBaseUrl, view), ACCEPT);
+        // a patch stands for the whole document, so it is not modified either
+        Result notModified = renderNotModified(context, getRenderedDigest(SpecFormat.JSON, serverBaseUrl, view));
+        if (notModified != null)
+            return addVary(notModified, ACCEPT);
+        RenderedSpec renderedSpec = getRenderedOpenApi(SpecFormat.JSON, serverBaseUrl, view);
+        if (StringUtils.isNotBlank(since)) {
+            RenderedSpec patch = getRenderedPatch(toDigest(since), renderedSpec, serverBaseUrl);
+            // a version no longer kept gets the full document
+            if (patch != null)
+                return addVary(renderOpenApi(context, Results.contentType(JSON_PATCH_CONTENT_TYPE), patch, renderedSpec), ACCEPT);
+        }
+        return addVary(renderOpenApi(context, Results.json(), renderedSpec), ACCEPT);
+    }
+
+    /**
+     * Answer 400 to a request for a patch that cannot be served: patches are only computed between the json
+     * documents of the full open api, which are only kept while the rendered documents are cached.
+     *
+     * @return the result
+     */
+    private static Result sinceNotSupported() {
+        return Results.badRequest().json().render(new ErrorMessage("The " + SINCE_PARAMETER
+                + " parameter is only supported on the full json api docs, with the cache enabled"));
+    }
+
+    /**
+     * Convert the since query parameter, a digest or an entity tag as sent by the server, to a digest.
+     *
+     * @param since the since query parameter
+     * @return the digest
+     */
+    private static String toDigest(String since) {
+        String digest = since.trim();
+        if (digest.startsWith("W/"))
+            digest = digest.substring(2);
+        digest = StringUtils.strip(digest, "\"");
+        int codingSeparator = digest.indexOf('-');
+        return (codingSeparator < 0) ? digest : digest.substring(0, codingSeparator);
     }
 
     @Operation(hidden = true)
@@ -113,50 +199,327 @@ public class OpenApiResource extends AbstractOpenApiResource {
     }
 
     public Result extractOpenapiYaml(Context context, String apiDocsUrl) throws JsonProcessingException {
-        calculateServerUrl(context, apiDocsUrl);
-        OpenAPI openAPI = this.getOpenApi();
-        if (!ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter())
-            return Results.contentType("text/plain").render(getYamlMapper().writeValueAsString(openAPI));
-        else
-            return Results.contentType("text/plain").render(getYamlMapper().writerWithDefaultPrettyPrinter().writeValueAsString(openAPI));
+        if (StringUtils.isNotBlank(context.getParameter(SINCE_PARAMETER)))
+            return sinceNotSupported();
+        String serverBaseUrl = calculateServerUrl(context, apiDocsUrl);
+        OpenApiView view = getOpenApiView(context);
+        if (ninjaDocConfigProperties.isCacheDisabled())
+            return streamOpenApi(Results.contentType(SpecFormat.YAML.getContentType()), SpecFormat.YAML, serverBaseUrl, view);
+        Result notModified = renderNotModified(context, getRenderedDigest(SpecFormat.YAML, serverBaseUrl, view));
+        if (notModified != null)
+            return notModified;
+        return renderOpenApi(context, Results.contentType(SpecFormat.YAML.getContentType()), getRenderedOpenApi(SpecFormat.YAML, serverBaseUrl, view));
+    }
+
+    /**
+     * Openapi smile.
+     *
+     * @param context the context
+     * @return the open api in the smile format
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiSmile(Context context) throws JsonProcessingException {
+        return extractOpenapiBinary(context, ninjaDocConfigProperties.getApiDocs().getPath() + ".smile", SpecFormat.SMILE);
+    }
+
+    /**
+     * Openapi cbor.
+     *
+     * @param context the context
+     * @return the open api in the cbor format
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiCbor(Context context) throws JsonProcessingException {
+        return extractOpenapiBinary(context, ninjaDocConfigProperties.getApiDocs().getPath() + ".cbor", SpecFormat.CBOR);
+    }
+
+    /**
+     * Extract the open api in a binary format. The binary documents are rendered, cached and
+     * identified by their entity tag like the json and yaml ones.
+     *
+     * @param context    the context
+     * @param apiDocsUrl the api docs url
+     * @param format     the binary format
+     * @return the result
+     * @throws JsonProcessingException the json processing exception
+     */
+    public Result extractOpenapiBinary(Context context, String apiDocsUrl, SpecFormat format) throws JsonProcessingException {
+        if (StringUtils.isNotBlank(context.getParameter(SINCE_PARAMETER)))
+            return sinceNotSupported();
+        String serverBaseUrl = calculateServerUrl(context, apiDocsUrl);
+        OpenApiView view = getOpenApiView(context);
+        if (ninjaDocConfigProperties.isCacheDisabled())
+            return streamOpenApi(Results.contentType(format.getContentType()), format, serverBaseUrl, view);
+        Result notModified = renderNotModified(context, getRenderedDigest(format, serverBaseUrl, view));
+        if (notModified != null)
+            return notModified;
+        return renderOpenApi(context, Results.contentType(format.getContentType()), getRenderedOpenApi(format, serverBaseUrl, view));
+    }
+
+    /**
+     * Openapi operation.
+     *
+     * @param context     the context
+     * @param operationId the operation id
+     * @return the document of the operation, with the components it references
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiOperation(Context context, @PathParam("operationId") String operationId) throws JsonProcessingException {
+        RenderedSpec renderedSpec = getRenderedOperation(operationId);
+        return (renderedSpec == null) ? Results.notFound().render(Result.NO_HTTP_BODY) : renderOpenApi(context, Results.json(), renderedSpec);
+    }
+
+    /**
+     * Openapi schema.
+     *
+     * @param context the context
+     * @param name    the name of the schema
+     * @return the document of the schema, with the components it references
+     * @throws JsonProcessingException the json processing exception
+     */
+    @Operation(hidden = true)
+    public Result openapiSchema(Context context, @PathParam("name") String name) throws JsonProcessingException {
+        RenderedSpec renderedSpec = getRenderedSchema(name);
+        return (renderedSpec == null) ? Results.notFound().render(Result.NO_HTTP_BODY) : renderOpenApi(context, Results.json(), renderedSpec);
+    }
+
+    /**
+     * Gets the view selected by the tags and paths query parameters, both comma separated.
+     *
+     * @param context the context
+     * @return the view, or null for the full open api
+     */
+    protected OpenApiView getOpenApiView(Context context) {
+        return OpenApiView.of(context.getParameter(TAGS_PARAMETER), context.getParameter(PATHS_PARAMETER));
+    }
+
+    /**
+     * Stream open api straight to the response, used when the rendered documents are not cached.
+     * The open api is calculated before the response is committed, so a failing build still reports an error.
+     *
+     * @param result        the result
+     * @param format        the format
+     * @param serverBaseUrl the server base url
+     * @param view          the view, null for the full open api
+     * @return the result
+     */
+    protected Result streamOpenApi(Result result, SpecFormat format, String serverBaseUrl, OpenApiView view) {
+        OpenAPI openApi = getOpenApiSnapshot(view).getOpenAPI(serverBaseUrl);
+        boolean pretty = ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter();
+        Object renderable = (Renderable) (context, renderResult) -> {
+            ResponseStreams responseStreams = context.finalizeHeadersWithoutFlashAndSessionCookie(renderResult);
+            // the response stream belongs to the framework, it is flushed, not closed
+            try {
+                CountingOutputStream outputStream = new CountingOutputStream(responseStreams.getOutputStream());
+                writeOpenApi(format, pretty, openApi, outputStream);
+                getMetrics().recordBytesServed(getGroupName(), outputStream.getCount());
+            } catch (IOException e) {
+                LOGGER.warn("Streaming of the open api of group {} failed: {}", getGroupName(), e.getMessage());
+            }
+        };
+        return result.render(renderable);
+    }
+
+    /**
+     * Render open api, or answer 304 when the client already holds the same variant.
+     * The content is compressed with the coding preferred by the client, when compression is enabled.
+     *
+     * @param context      the context
+     * @param result       the result
+     * @param renderedSpec the rendered spec
+     * @return the result
+     */
+    protected Result renderOpenApi(Context context, Result result, RenderedSpec renderedSpec) {
+        return renderOpenApi(context, result, renderedSpec, renderedSpec);
+    }
+
+    /**
+     * Render a representation of the open api, such as a patch, identified by the entity tag of the document
+     * it stands for, as delta encoding does.
+     *
+     * @param context      the context
+     * @param result       the result
+     * @param content      the content sent
+     * @param renderedSpec the document the content stands for
+     * @return the result
+     */
+    protected Result renderOpenApi(Context context, Result result, RenderedSpec content, RenderedSpec renderedSpec) {
+        Result notModified = renderNotModified(context, renderedSpec.getDigest());
+        if (notModified != null)
+            return notModified;
+        boolean compressionEnabled = isCompressionEnabled();
+        ContentCoding contentCoding = compressionEnabled ? ContentCoding.negotiate(context.getHeader(ACCEPT_ENCODING)) : null;
+        String etag = renderedSpec.getEtag(contentCoding);
+        if (contentCoding == null && content.isMapped()) {
+            getMetrics().recordBytesServed(getGroupName(), content.getSize());
+            result.addHeader(HttpHeaderConstants.ETAG, etag).render(mappedRenderable(content));
+        } else {
+            byte[] encodedContent = content.getContent(contentCoding);
+            getMetrics().recordBytesServed(getGroupName(), encodedContent.length);
+            result.addHeader(HttpHeaderConstants.ETAG, etag).renderRaw(encodedContent);
+            if (contentCoding != null)
+                result.addHeader(CONTENT_ENCODING, contentCoding.getName());
+        }
+        if (compressionEnabled)
+            addVary(result, ACCEPT_ENCODING);
+        return result;
+    }
+
+    /**
+     * Answer 304 when the client already holds the document of the given digest, with any content coding.
+     *
+     * @param context the context
+     * @param digest  the digest of the document, may be null
+     * @return the 304 result, or null when the document must be sent
+     */
+    protected Result renderNotModified(Context context, String digest) {
+        if (digest == null || !RenderedSpec.matches(digest, context.getHeader(HttpHeaderConstants.IF_NONE_MATCH)))
+            return null;
+        boolean compressionEnabled = isCompressionEnabled();
+        ContentCoding contentCoding = compressionEnabled ? ContentCoding.negotiate(context.getHeader(ACCEPT_ENCODING)) : null;
+        getMetrics().recordNotModified(getGroupName());
+        Result result = Results.status(Result.SC_304_NOT_MODIFIED)
+                .addHeader(HttpHeaderConstants.ETAG, RenderedSpec.getEtag(digest, contentCoding)).render(Result.NO_HTTP_BODY);
+        if (compressionEnabled)
+            addVary(result, ACCEPT_ENCODING);
+        return result;
+    }
+
+    /**
+     * Is compression enabled boolean.
+     *
+     * @return the boolean
+     */
+    private boolean isCompressionEnabled() {
+        return !ninjaDocConfigProperties.isCacheDisabled() && ninjaDocConfigProperties.getCache().isCompressionEnabled();
+    }
+
+    /**
+     * Renderable writing a mapped document straight from its file pages, without copying it to the heap.
+     *
+     * @param content the mapped content
+     * @return the renderable
+     */
+    private Renderable mappedRenderable(RenderedSpec content) {
+        return (context, renderResult) -> {
+            ResponseStreams responseStreams = context.finalizeHeadersWithoutFlashAndSessionCookie(renderResult);
+            // the response stream belongs to the framework, it is flushed, not closed
+            try {
+                OutputStream outputStream = responseStreams.getOutputStream();
+                WritableByteChannel channel = Channels.newChannel(outputStream);
+                ByteBuffer buffer = content.getContentBuffer();
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+                outputStream.flush();
+            } catch (IOException e) {
+                LOGGER.warn("Sending the open api of group {} failed: {}", getGroupName(), e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Add a request header to the Vary header of the result, keeping the ones already listed.
+     *
+     * @param result the result
+     * @param header the request header the response depends on
+     * @return the result
+     */
+    private static Result addVary(Result result, String header) {
+        String vary = result.getHeaders().get(VARY);
+        return result.addHeader(VARY, StringUtils.isBlank(vary) ? header : vary + ", " + header);
+    }
+
+    @Override
+    protected OpenAPI loadPrebuiltOpenApi() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null)
+            classLoader = OpenApiResource.class.getClassLoader();
+        return PrebuiltOpenApi.load(classLoader, getGroupName(), getPrebuiltFingerprint());
+    }
+
+    /**
+     * Gets the fingerprint the prebuilt documents of the group are generated with, and checked against when loaded.
+     * The ninjadoc properties are left out, the documents being generated with the properties of the build.
+     *
+     * @return the prebuilt fingerprint
+     */
+    String getPrebuiltFingerprint() {
+        return getApplicationFingerprint();
+    }
+
+    /**
+     * Render the open api as packaged at build time: the model shared by every server url, its generated server
+     * left without url.
+     *
+     * @param format the format
+     * @return the rendered open api
+     * @throws JsonProcessingException the json processing exception
+     */
+    byte[] generate(SpecFormat format) throws JsonProcessingException {
+        return writeOpenApi(format, ninjaDocConfigProperties.isWriterWithDefaultPrettyPrinter(), getOpenApiSnapshot().getOpenAPI(null));
+    }
+
+    /**
+     * Start building the open api on the given executor, or join the build already in flight.
+     *
+     * @param executor the executor
+     * @return the future of the open api snapshot
+     */
+    CompletableFuture<OpenApiSnapshot> preLoad(Executor executor) {
+        return buildOpenApiSnapshotAsync(executor);
+    }
+
+    /**
+     * Create the disk cache of the api docs, when configured, before the first request.
+     */
+    void preLoadDiskSpecCache() {
+        initDiskSpecCache();
+    }
+
+    /**
+     * Pre load the open api on the given executor, sharing the schema resolutions with the other groups.
+     *
+     * @param executor                    the executor
+     * @param sharedSchemaResolutionCache the schema resolution cache shared by the groups, may be null
+     * @return the future of the snapshot
+     */
+    CompletableFuture<OpenApiSnapshot> preLoad(Executor executor, SchemaResolutionCache sharedSchemaResolutionCache) {
+        return buildOpenApiSnapshotAsync(executor, sharedSchemaResolutionCache);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected void getPaths(Map<String, Object> restControllers) {
-        Map<Route, HandlerMethod> routes = applicationContext.getRoutes().stream().collect(Collectors.toMap(route -> route, o -> new HandlerMethod(applicationContext.getBean(o.getControllerClass()), o.getControllerMethod())));
-        calculatePath(restControllers, routes);
+        calculatePath(restControllers, routeRegistry.getRoutes());
     }
 
     /**
      * Calculate path.
      *
      * @param restControllers the rest controllers
-     * @param map             the map
-     */
-    protected void calculatePath(Map<String, Object> restControllers, Map<Route, HandlerMethod> map) {
-        for (Map.Entry<Route, HandlerMethod> entry : map.entrySet()) {
-            Route route = entry.getKey();
-            HandlerMethod handlerMethod = entry.getValue();
-            Set<String> patterns = Collections.singleton(route.getUri());
-            Map<String, String> regexMap = new LinkedHashMap<>();
-            for (String pattern : patterns) {
-                String operationPath = PathUtils.parsePath(pattern, regexMap);
-                if ((isRestController(restControllers, handlerMethod, operationPath))
-                        && isPackageToScan(handlerMethod.getBeanType().getPackage())
-                        && isPathToMatch(operationPath)) {
-                    Set<RequestMethod> requestMethods = new HashSet<RequestMethod>();
-                    requestMethods.add(RequestMethod.valueOf(route.getHttpMethod()));
-                    // default allowed requestmethods
-                    if (requestMethods.isEmpty())
-                        requestMethods = this.getDefaultAllowedHttpMethods();
-                    calculatePath(handlerMethod, operationPath, requestMethods);
-                }
+     * @param routes          the routes
+     */
+    protected void calculatePath(Map<String, Object> restControllers, List<RouteInfo> routes) {
+        List<PathOperation> pathOperations = new ArrayList<>();
+        for (RouteInfo routeInfo : routes) {
+            HandlerMethod handlerMethod = routeInfo.getHandlerMethod();
+            String operationPath = routeInfo.getOperationPath();
+            if ((isRestController(restControllers, handlerMethod, operationPath))
+                    && isPackageToScan(routeInfo.getControllerPackage())
+                    && isPathToMatch(operationPath)) {
+                Set<RequestMethod> requestMethods = new HashSet<RequestMethod>();
+                requestMethods.add(routeInfo.getRequestMethod());
+                // default allowed requestmethods
+                if (requestMethods.isEmpty())
+                    requestMethods = this.getDefaultAllowedHttpMethods();
+                pathOperations.add(new PathOperation(handlerMethod, new RouterOperation(operationPath, requestMethods.toArray(new RequestMethod[0]))));
             }
         }
+        calculatePaths(pathOperations);
     }
 
-
     /**
      * Is rest controller boolean.
      *
@@ -175,14 +538,13 @@ public class OpenApiResource extends AbstractOpenApiResource {
     /**
      * Calculate server url.
      *
-     * @param context
+     * @param context    the context
      * @param apiDocsUrl the api docs url
+     * @return the calculated server url
      */
-    protected void calculateServerUrl(Context context, String apiDocsUrl) {
-        super.initOpenAPIBuilder();
+    protected String calculateServerUrl(Context context, String apiDocsUrl) {
         String requestUrl = decode(String.format("%s://%s%s%s", context.getScheme(), context.getHostname(), context.getContextPath(), context.getRequestPath()));
-        String calculatedUrl = requestUrl.substring(0, requestUrl.length() - apiDocsUrl.length());
-        openAPIBuilder.setServerBaseUrl(calculatedUrl);
+        return requestUrl.substring(0, requestUrl.length() - apiDocsUrl.length());
     }
 
 }
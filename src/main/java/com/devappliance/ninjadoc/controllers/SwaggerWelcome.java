@@ -4,25 +4,39 @@ package com.devappliance.ninjadoc.controllers;
 import com.devappliance.ninjadoc.NinjaDocConfigProperties;
 import com.devappliance.ninjadoc.SwaggerUiConfigParameters;
 import com.devappliance.ninjadoc.SwaggerUiConfigProperties;
+import com.devappliance.ninjadoc.cache.ContentCoding;
+import com.devappliance.ninjadoc.cache.SwaggerUiBootstrap;
+import com.devappliance.ninjadoc.cache.WebJarAsset;
+import com.devappliance.ninjadoc.cache.WebJarAssetCache;
 import com.devappliance.ninjadoc.util.Constants;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.io.ByteStreams;
 import com.google.inject.Inject;
+import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.annotations.Operation;
 import ninja.*;
 import ninja.params.PathParam;
-import ninja.utils.HttpCacheToolkit;
+import ninja.utils.HttpHeaderConstants;
 import ninja.utils.MimeTypes;
+import ninja.utils.NinjaConstant;
+import ninja.utils.NinjaProperties;
 import ninja.utils.ResponseStreams;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.utils.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -35,7 +49,16 @@ import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
  */
 public class SwaggerWelcome extends AbstractSwaggerWelcome {
 
-    private final HttpCacheToolkit httpCacheToolkit;
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SwaggerWelcome.class);
+
+    /**
+     * The max number of origins whose swagger ui bootstrap is kept.
+     */
+    private static final int MAX_CACHED_ORIGINS = 64;
+
     private final MimeTypes mimeTypes;
     private final ReverseRouter reverseRouter;
     /**
@@ -47,6 +70,18 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
      */
     private URIBuilder oauthPrefix;
     private AssetsControllerHelper assetsControllerHelper;
+    /**
+     * The Web jar asset cache.
+     */
+    private final WebJarAssetCache webJarAssetCache;
+    /**
+     * The Cache control of the webjar assets, as set by the Ninja assets controller.
+     */
+    private final String cacheControl;
+    /**
+     * The swagger ui bootstraps, per scheme, host and context path.
+     */
+    private final ConcurrentMap<List<String>, SwaggerUiBootstrap> swaggerUiBootstraps = new ConcurrentHashMap<>();
 
     /**
      * Instantiates a new Swagger welcome.
@@ -55,17 +90,20 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
      * @param ninjaDocConfigProperties  the spring doc config properties
      * @param swaggerUiConfigParameters the swagger ui config parameters
      * @param assetsControllerHelper
-     * @param httpCacheToolkit
+     * @param webJarAssetCache          the web jar asset cache
      * @param mimeTypes
      * @param reverseRouter
+     * @param ninjaProperties           the ninja properties
      */
     @Inject
     public SwaggerWelcome(SwaggerUiConfigProperties swaggerUiConfig, NinjaDocConfigProperties ninjaDocConfigProperties,
-                          SwaggerUiConfigParameters swaggerUiConfigParameters, AssetsControllerHelper assetsControllerHelper, HttpCacheToolkit httpCacheToolkit, MimeTypes mimeTypes, ReverseRouter reverseRouter) {
+                          SwaggerUiConfigParameters swaggerUiConfigParameters, AssetsControllerHelper assetsControllerHelper, WebJarAssetCache webJarAssetCache, MimeTypes mimeTypes, ReverseRouter reverseRouter,
+                          NinjaProperties ninjaProperties) {
         super(swaggerUiConfig, ninjaDocConfigProperties, swaggerUiConfigParameters);
         this.webJarsPrefixUrl = ninjaDocConfigProperties.getWebjars().getPrefix();
         this.assetsControllerHelper = assetsControllerHelper;
-        this.httpCacheToolkit = httpCacheToolkit;
+        this.webJarAssetCache = webJarAssetCache;
+        this.cacheControl = cacheControlOf(ninjaProperties);
         this.mimeTypes = mimeTypes;
         this.reverseRouter = reverseRouter;
     }
@@ -76,14 +114,8 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
      * @return
      */
     @Operation(hidden = true)
-    public Result regirectUi(Context context) throws URISyntaxException {
-        buildConfigUrl(context.getContextPath(), new URIBuilder()
-                .setScheme(context.getScheme())
-                .setHost(context.getHostname())
-                .setPath(context.getContextPath()));
-        String sbUrl = this.buildUrl("", new URIBuilder(reverseRouter.with(SwaggerWelcome::swaggerUi).build()).getPath());
-        URIBuilder uriBuilder = getUriComponentsBuilder(sbUrl);
-        return Results.redirect(uriBuilder.build().toString());
+    public Result regirectUi(Context context) throws URISyntaxException, JsonProcessingException {
+        return Results.redirect(getSwaggerUiBootstrap(context).getRedirectUrl());
     }
 
     /**
@@ -95,8 +127,7 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
     public Result swaggerUi() {
         Object renderable = (Renderable) (context1, result) -> {
             String fileName = Constants.SWAGGER_UI_URL;
-            URL url = getStaticFileFromMetaInfResourcesDir(fileName);
-            streamOutUrlEntity(url, context1, result);
+            serveWebJarAsset(fileName, context1, result);
         };
         return Results.ok().render(renderable);
     }
@@ -110,8 +141,7 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
     public Result swaggerResources(@PathParam("fileName") String file) {
         Object renderable = (Renderable) (context1, result) -> {
             String fileName = Constants.SWAGGER_RES_BASE + file;
-            URL url = getStaticFileFromMetaInfResourcesDir(fileName);
-            streamOutUrlEntity(url, context1, result);
+            serveWebJarAsset(fileName, context1, result);
         };
         return Results.ok().render(renderable);
     }
@@ -123,12 +153,49 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
      * @return the swagger ui config
      */
     @Operation(hidden = true)
-    public Result getSwaggerUiConfig(Context context) throws URISyntaxException {
-        buildConfigUrl(context.getContextPath(), new URIBuilder()
+    public Result getSwaggerUiConfig(Context context) throws URISyntaxException, JsonProcessingException {
+        return Results.json().renderRaw(getSwaggerUiBootstrap(context).getConfigJson());
+    }
+
+    /**
+     * Gets the swagger ui bootstrap of the origin of the request, building it on the first request from that origin.
+     *
+     * @param context the context
+     * @return the swagger ui bootstrap
+     * @throws URISyntaxException      the uri syntax exception
+     * @throws JsonProcessingException the json processing exception
+     */
+    private SwaggerUiBootstrap getSwaggerUiBootstrap(Context context) throws URISyntaxException, JsonProcessingException {
+        List<String> origin = Arrays.asList(context.getScheme(), context.getHostname(), context.getContextPath());
+        SwaggerUiBootstrap swaggerUiBootstrap = swaggerUiBootstraps.get(origin);
+        if (swaggerUiBootstrap != null)
+            return swaggerUiBootstrap;
+        swaggerUiBootstrap = buildSwaggerUiBootstrap(context);
+        // the host comes from the request: past the bound, the bootstrap of new origins is built on each request
+        if (swaggerUiBootstraps.size() < MAX_CACHED_ORIGINS) {
+            SwaggerUiBootstrap existing = swaggerUiBootstraps.putIfAbsent(origin, swaggerUiBootstrap);
+            if (existing != null)
+                return existing;
+        }
+        return swaggerUiBootstrap;
+    }
+
+    /**
+     * Build the swagger ui bootstrap of the origin of the request.
+     *
+     * @param context the context
+     * @return the swagger ui bootstrap
+     * @throws URISyntaxException      the uri syntax exception
+     * @throws JsonProcessingException the json processing exception
+     */
+    private SwaggerUiBootstrap buildSwaggerUiBootstrap(Context context) throws URISyntaxException, JsonProcessingException {
+        Map<String, Object> configParameters = buildConfigParameters(context.getContextPath(), new URIBuilder()
                 .setScheme(context.getScheme())
                 .setHost(context.getHostname())
                 .setPath(context.getContextPath()));
-        return Results.json().render(swaggerUiConfigParameters.getConfigParameters());
+        String sbUrl = this.buildUrl("", new URIBuilder(reverseRouter.with(SwaggerWelcome::swaggerUi).build()).getPath());
+        URIBuilder uriBuilder = getUriComponentsBuilder(sbUrl, configParameters);
+        return new SwaggerUiBootstrap(configParameters, Json.mapper().writeValueAsBytes(configParameters), uriBuilder.build().toString());
     }
 
     @Override
@@ -143,36 +210,16 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
     }
 
     @Override
-    protected void calculateOauth2RedirectUrl(URIBuilder uriComponentsBuilder) throws URISyntaxException {
-        if (!swaggerUiConfigParameters.isValidUrl(swaggerUiConfigParameters.getOauth2RedirectUrl())) {
-            String path = constructPath(swaggerUiConfigParameters.getUiRootPath(), swaggerUiConfigParameters.getOauth2RedirectUrl());
-            if (path.startsWith("/")) {
-                path = path.replaceFirst("/", "");
-            }
-            swaggerUiConfigParameters.setOauth2RedirectUrl(uriComponentsBuilder
-                    .setPath(path)
-                    .build()
-                    .toString());
-        }
-    }
-
-    /**
-     * From current context path string.
-     *
-     * @param request the request
-     * @return the string
-     */
-    private String fromCurrentContextPath(ninja.Context request) throws URISyntaxException {
-        String contextPath = request.getContextPath();
-        String url = new URIBuilder()
-                .setScheme(request.getScheme())
-                .setHost(request.getHostname())
-                .setPath(constructPath(request.getContextPath(), request.getRequestPath().replaceFirst("/", "")))
+    protected String calculateOauth2RedirectUrl(URIBuilder uriComponentsBuilder) throws URISyntaxException {
+        String oauth2RedirectUrl = swaggerUiConfigParameters.getOauth2RedirectUrl();
+        if (swaggerUiConfigParameters.isValidUrl(oauth2RedirectUrl))
+            return oauth2RedirectUrl;
+        // the path of an absolute url starts with a slash, or it is appended to the host as is
+        String path = DEFAULT_PATH_SEPARATOR + constructPath(swaggerUiConfigParameters.getUiRootPath(), oauth2RedirectUrl);
+        return uriComponentsBuilder
+                .setPath(path)
                 .build()
                 .toString();
-        url = url.replace(request.getRequestPath(), "");
-        buildConfigUrl(contextPath, new URIBuilder(url));
-        return contextPath;
     }
 
     private String constructPath(String... segments) {
@@ -195,48 +242,79 @@ public class SwaggerWelcome extends AbstractSwaggerWelcome {
         return url;
     }
 
-    private void streamOutUrlEntity(URL url, Context context, Result result) {
-        // check if stream exists. if not print a notfound exception
-        if (url == null) {
-            context.finalizeHeadersWithoutFlashAndSessionCookie(Results.notFound());
-        } else if (assetsControllerHelper.isDirectoryURL(url)) {
-            // Disable listing of directory contents
-            context.finalizeHeadersWithoutFlashAndSessionCookie(Results.notFound());
-        } else {
-            try {
-                URLConnection urlConnection = url.openConnection();
-                Long lastModified = urlConnection.getLastModified();
-                httpCacheToolkit.addEtag(context, result, lastModified);
-
-                if (result.getStatusCode() == Result.SC_304_NOT_MODIFIED) {
-                    // Do not stream anything out. Simply return 304
-                    context.finalizeHeadersWithoutFlashAndSessionCookie(result);
-                } else {
-                    result.status(200);
-
-                    // Try to set the mimetype:
-                    String mimeType = mimeTypes.getContentType(context,
-                            url.getFile());
-
-                    if (mimeType != null && !mimeType.isEmpty()) {
-                        result.contentType(mimeType);
-                    }
-
-                    ResponseStreams responseStreams = context
-                            .finalizeHeadersWithoutFlashAndSessionCookie(result);
-
-                    try (InputStream inputStream = urlConnection.getInputStream();
-                         OutputStream outputStream = responseStreams.getOutputStream()) {
-                        ByteStreams.copy(inputStream, outputStream);
-                    }
-
-                }
-
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    /**
+     * Gets the cache control of the webjar assets, the way the HttpCacheToolkit of Ninja sets it: no-cache outside
+     * of prod, else the max age of the http.cache_control property.
+     *
+     * @param ninjaProperties the ninja properties
+     * @return the cache control
+     */
+    private static String cacheControlOf(NinjaProperties ninjaProperties) {
+        if (!ninjaProperties.isProd())
+            return "no-cache";
+        String maxAge = ninjaProperties.getWithDefault(NinjaConstant.HTTP_CACHE_CONTROL, NinjaConstant.HTTP_CACHE_CONTROL_DEFAULT);
+        return "0".equals(maxAge) ? "no-cache" : "max-age=" + maxAge;
+    }
 
+    /**
+     * Serve a webjar asset from the asset cache, loading it from the webjar on a miss.
+     *
+     * @param fileName the file name
+     * @param context  the context
+     * @param result   the result
+     */
+    private void serveWebJarAsset(String fileName, Context context, Result result) {
+        WebJarAsset asset;
+        try {
+            asset = webJarAssetCache.get(assetsControllerHelper.normalizePathWithoutLeadingSlash(fileName, true),
+                    path -> loadWebJarAsset(fileName, context));
+        } catch (IOException e) {
+            LOGGER.error("Unable to load the swagger ui asset {}", fileName, e);
+            context.finalizeHeadersWithoutFlashAndSessionCookie(Results.internalServerError());
+            return;
+        }
+        if (asset == null) {
+            context.finalizeHeadersWithoutFlashAndSessionCookie(Results.notFound());
+            return;
         }
+        ContentCoding contentCoding = asset.getContentCoding(ContentCoding.negotiate(context.getHeader(Constants.ACCEPT_ENCODING)));
+        result.addHeader(HttpHeaderConstants.CACHE_CONTROL, cacheControl);
+        result.addHeader(HttpHeaderConstants.ETAG, asset.getEtag(contentCoding));
+        result.addHeader(Constants.VARY, Constants.ACCEPT_ENCODING);
+        if (asset.matches(context.getHeader(HttpHeaderConstants.IF_NONE_MATCH))) {
+            // Do not stream anything out. Simply return 304
+            context.finalizeHeadersWithoutFlashAndSessionCookie(result.status(Result.SC_304_NOT_MODIFIED));
+            return;
+        }
+        result.status(200);
+        if (asset.getMimeType() != null)
+            result.contentType(asset.getMimeType());
+        if (contentCoding != null)
+            result.addHeader(Constants.CONTENT_ENCODING, contentCoding.getName());
+        ResponseStreams responseStreams = context.finalizeHeadersWithoutFlashAndSessionCookie(result);
+        try (OutputStream outputStream = responseStreams.getOutputStream()) {
+            outputStream.write(asset.getContent(contentCoding));
+        } catch (IOException e) {
+            LOGGER.debug("Unable to write the swagger ui asset {}: {}", fileName, e.getMessage());
+        }
+    }
 
+    /**
+     * Load a webjar asset.
+     *
+     * @param fileName the file name, as requested
+     * @param context  the context
+     * @return the asset, or null if the path is not a file of a webjar
+     * @throws IOException the io exception
+     */
+    private WebJarAsset loadWebJarAsset(String fileName, Context context) throws IOException {
+        URL url = getStaticFileFromMetaInfResourcesDir(fileName);
+        // Disable listing of directory contents
+        if (url == null || assetsControllerHelper.isDirectoryURL(url))
+            return null;
+        String mimeType = mimeTypes.getContentType(context, url.getFile());
+        try (InputStream inputStream = url.openStream()) {
+            return new WebJarAsset(ByteStreams.toByteArray(inputStream), StringUtils.isEmpty(mimeType) ? null : mimeType);
+        }
     }
 }
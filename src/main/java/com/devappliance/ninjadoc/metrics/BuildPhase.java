@@ -0,0 +1,48 @@
+package com.devappliance.ninjadoc.metrics;
+
+/**
+ * The timed phases of the generation of an OpenAPI document.
+ * Phases may nest: schema resolution happens while requests and responses are built, and is also counted there.
+ */
+public enum BuildPhase {
+
+    /**
+     * Scanning of the controllers and routes to document.
+     */
+    ROUTE_SCANNING,
+
+    /**
+     * Parsing of the operation annotations.
+     */
+    OPERATION_PARSING,
+
+    /**
+     * Building of the parameters and request bodies.
+     */
+    REQUEST_BUILDING,
+
+    /**
+     * Building of the responses.
+     */
+    RESPONSE_BUILDING,
+
+    /**
+     * Resolution of the schemas of the models.
+     */
+    SCHEMA_RESOLUTION,
+
+    /**
+     * The operation and open api customisers.
+     */
+    CUSTOMISERS,
+
+    /**
+     * Removal of the broken reference definitions.
+     */
+    BROKEN_REFERENCE_REMOVAL,
+
+    /**
+     * Serialization of the document, timed on every rendering rather than during the build.
+     */
+    SERIALIZATION
+}
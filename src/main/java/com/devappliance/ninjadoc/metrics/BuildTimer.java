@@ -0,0 +1,107 @@
+package com.devappliance.ninjadoc.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Accumulates the time spent in each phase of the build of one OpenAPI document.
+ * The timer is bound to the threads working on the build with {@link #call(Supplier)}, and code deep in the build
+ * reports to it with {@link #start()} and {@link #record(BuildPhase, long)}, which does nothing outside of a build.
+ * Phases are timed exclusively: the time of a phase nested in another one, such as the schema resolution within
+ * the request building, only counts for the nested phase, so the phases of one thread add up to at most the build time.
+ * When the operations are built in parallel, the times of all the threads add up.
+ */
+public final class BuildTimer {
+
+    /**
+     * The timer bound to the current thread.
+     */
+    private static final ThreadLocal<BuildTimer> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The time recorded so far by the current thread, in nanoseconds, excluding the time of the phases it is in.
+     */
+    private static final ThreadLocal<long[]> RECORDED_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * The Phase nanos.
+     */
+    private final Map<BuildPhase, LongAdder> phaseNanos = new EnumMap<>(BuildPhase.class);
+
+    /**
+     * Instantiates a new Build timer.
+     */
+    public BuildTimer() {
+        for (BuildPhase phase : BuildPhase.values())
+            phaseNanos.put(phase, new LongAdder());
+    }
+
+    /**
+     * Gets the timer bound to the current thread.
+     *
+     * @return the timer, or null outside of a build
+     */
+    public static BuildTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Start timing a phase on the current thread.
+     *
+     * @return the start, to give to {@link #record(BuildPhase, long)} on the same thread
+     */
+    public static long start() {
+        // the time recorded by the nested phases is taken off the start, so it is not counted twice
+        return System.nanoTime() - RECORDED_NANOS.get()[0];
+    }
+
+    /**
+     * Add the time elapsed since the start, less the time of the phases nested in it, to a phase of the timer
+     * bound to the current thread, if any. A nested phase that never records, because it failed, counts for
+     * the phase around it.
+     *
+     * @param phase      the phase
+     * @param startNanos the start, as given by {@link #start()}
+     */
+    public static void record(BuildPhase phase, long startNanos) {
+        BuildTimer buildTimer = CURRENT.get();
+        if (buildTimer != null) {
+            long[] recordedNanos = RECORDED_NANOS.get();
+            long nanos = System.nanoTime() - recordedNanos[0] - startNanos;
+            recordedNanos[0] += nanos;
+            buildTimer.phaseNanos.get(phase).add(nanos);
+        }
+    }
+
+    /**
+     * Run the task with this timer bound to the current thread.
+     *
+     * @param <T>  the type of the result
+     * @param task the task
+     * @return the result of the task
+     */
+    public <T> T call(Supplier<T> task) {
+        BuildTimer previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Gets the time spent in a phase.
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getNanos(BuildPhase phase) {
+        return phaseNanos.get(phase).sum();
+    }
+}
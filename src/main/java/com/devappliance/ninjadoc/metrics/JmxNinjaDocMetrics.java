@@ -0,0 +1,325 @@
+package com.devappliance.ninjadoc.metrics;
+
+import ninja.lifecycle.Dispose;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Singleton;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The default metrics, exposed over JMX with one MBean per group, named
+ * {@code com.devappliance.ninjadoc:type=Metrics,group=<group>}, in the platform MBean server.
+ * Counters are lock-free; the MBean of a group is registered on its first metric and unregistered on shutdown.
+ * An MBean of another application in the same JVM is never replaced: when the name is taken, the MBean is
+ * registered with an {@code instance=<n>} key added to it.
+ */
+@Singleton
+public class JmxNinjaDocMetrics implements NinjaDocMetrics {
+
+    /**
+     * The constant DOMAIN.
+     */
+    public static final String DOMAIN = "com.devappliance.ninjadoc";
+
+    /**
+     * The constant LOGGER.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmxNinjaDocMetrics.class);
+
+    /**
+     * The Mbean server.
+     */
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * The metrics of each group.
+     */
+    private final ConcurrentMap<String, GroupMetrics> groupMetrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordPhase(String groupName, BuildPhase phase, long nanos) {
+        GroupMetrics metrics = getGroupMetrics(groupName);
+        metrics.phaseNanos.get(phase).add(nanos);
+        if (phase == BuildPhase.SERIALIZATION)
+            metrics.serializationCount.increment();
+    }
+
+    @Override
+    public void recordBuild(String groupName, long nanos) {
+        GroupMetrics metrics = getGroupMetrics(groupName);
+        metrics.buildCount.increment();
+        metrics.buildNanos.add(nanos);
+        metrics.lastBuildNanos = nanos;
+    }
+
+    @Override
+    public void recordBuildFailure(String groupName) {
+        getGroupMetrics(groupName).buildFailureCount.increment();
+    }
+
+    @Override
+    public void recordCacheHit(String groupName) {
+        getGroupMetrics(groupName).cacheHitCount.increment();
+    }
+
+    @Override
+    public void recordCacheMiss(String groupName) {
+        getGroupMetrics(groupName).cacheMissCount.increment();
+    }
+
+    @Override
+    public void recordNotModified(String groupName) {
+        getGroupMetrics(groupName).notModifiedCount.increment();
+    }
+
+    @Override
+    public void recordBytesServed(String groupName, long bytes) {
+        getGroupMetrics(groupName).bytesServed.add(bytes);
+    }
+
+    /**
+     * Unregister the MBeans of every group.
+     */
+    @Dispose
+    public void unregister() {
+        for (Map.Entry<String, GroupMetrics> entry : groupMetrics.entrySet()) {
+            String groupName = entry.getKey();
+            ObjectName objectName = entry.getValue().objectName;
+            if (objectName == null)
+                continue;
+            try {
+                mBeanServer.unregisterMBean(objectName);
+            } catch (InstanceNotFoundException e) {
+                // already unregistered
+            } catch (JMException e) {
+                LOGGER.warn("NinjaDoc cannot unregister the metrics of group {}: {}", groupName, e.getMessage());
+            }
+        }
+        groupMetrics.clear();
+    }
+
+    /**
+     * Gets the metrics of a group, registering its MBean on first use.
+     *
+     * @param groupName the group name
+     * @return the group metrics
+     */
+    private GroupMetrics getGroupMetrics(String groupName) {
+        GroupMetrics metrics = groupMetrics.get(groupName);
+        if (metrics != null)
+            return metrics;
+        metrics = new GroupMetrics();
+        GroupMetrics existing = groupMetrics.putIfAbsent(groupName, metrics);
+        if (existing != null)
+            return existing;
+        register(groupName, metrics);
+        return metrics;
+    }
+
+    /**
+     * Register the MBean of a group, under the first free instance of its name. Failures are logged,
+     * the metrics being still counted.
+     *
+     * @param groupName the group name
+     * @param metrics   the group metrics
+     */
+    private void register(String groupName, GroupMetrics metrics) {
+        try {
+            StandardMBean mBean = new StandardMBean(metrics, NinjaDocGroupMetricsMBean.class);
+            for (int instance = 1; ; instance++) {
+                ObjectName objectName = getObjectName(groupName, instance);
+                try {
+                    mBeanServer.registerMBean(mBean, objectName);
+                } catch (InstanceAlreadyExistsException e) {
+                    // the MBean of another application, left as is
+                    continue;
+                }
+                metrics.objectName = objectName;
+                if (instance > 1)
+                    LOGGER.info("NinjaDoc registered the metrics of group {} as {}, the name was taken", groupName, objectName);
+                return;
+            }
+        } catch (JMException e) {
+            LOGGER.warn("NinjaDoc cannot register the metrics of group {}: {}", groupName, e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the object name of an instance of the MBean of a group.
+     *
+     * @param groupName the group name
+     * @param instance  the instance, from 1; the first one has no instance key
+     * @return the object name
+     * @throws JMException the jm exception
+     */
+    private static ObjectName getObjectName(String groupName, int instance) throws JMException {
+        String objectName = DOMAIN + ":type=Metrics,group=" + ObjectName.quote(groupName);
+        return new ObjectName((instance == 1) ? objectName : objectName + ",instance=" + instance);
+    }
+
+    /**
+     * The metrics of one group.
+     */
+    private static final class GroupMetrics implements NinjaDocGroupMetricsMBean {
+
+        /**
+         * The time spent in each phase.
+         */
+        private final Map<BuildPhase, LongAdder> phaseNanos = new EnumMap<>(BuildPhase.class);
+
+        /**
+         * The Build count.
+         */
+        private final LongAdder buildCount = new LongAdder();
+
+        /**
+         * The Build failure count.
+         */
+        private final LongAdder buildFailureCount = new LongAdder();
+
+        /**
+         * The Build nanos.
+         */
+        private final LongAdder buildNanos = new LongAdder();
+
+        /**
+         * The Serialization count.
+         */
+        private final LongAdder serializationCount = new LongAdder();
+
+        /**
+         * The Cache hit count.
+         */
+        private final LongAdder cacheHitCount = new LongAdder();
+
+        /**
+         * The Cache miss count.
+         */
+        private final LongAdder cacheMissCount = new LongAdder();
+
+        /**
+         * The Not modified count.
+         */
+        private final LongAdder notModifiedCount = new LongAdder();
+
+        /**
+         * The Bytes served.
+         */
+        private final LongAdder bytesServed = new LongAdder();
+
+        /**
+         * The Last build nanos.
+         */
+        private volatile long lastBuildNanos;
+
+        /**
+         * The name the MBean is registered under, null until registered.
+         */
+        private volatile ObjectName objectName;
+
+        /**
+         * Instantiates a new Group metrics.
+         */
+        private GroupMetrics() {
+            for (BuildPhase phase : BuildPhase.values())
+                phaseNanos.put(phase, new LongAdder());
+        }
+
+        @Override
+        public long getBuildCount() {
+            return buildCount.sum();
+        }
+
+        @Override
+        public long getBuildFailureCount() {
+            return buildFailureCount.sum();
+        }
+
+        @Override
+        public long getBuildNanos() {
+            return buildNanos.sum();
+        }
+
+        @Override
+        public long getLastBuildNanos() {
+            return lastBuildNanos;
+        }
+
+        @Override
+        public long getRouteScanningNanos() {
+            return phaseNanos.get(BuildPhase.ROUTE_SCANNING).sum();
+        }
+
+        @Override
+        public long getOperationParsingNanos() {
+            return phaseNanos.get(BuildPhase.OPERATION_PARSING).sum();
+        }
+
+        @Override
+        public long getRequestBuildingNanos() {
+            return phaseNanos.get(BuildPhase.REQUEST_BUILDING).sum();
+        }
+
+        @Override
+        public long getResponseBuildingNanos() {
+            return phaseNanos.get(BuildPhase.RESPONSE_BUILDING).sum();
+        }
+
+        @Override
+        public long getSchemaResolutionNanos() {
+            return phaseNanos.get(BuildPhase.SCHEMA_RESOLUTION).sum();
+        }
+
+        @Override
+        public long getCustomisersNanos() {
+            return phaseNanos.get(BuildPhase.CUSTOMISERS).sum();
+        }
+
+        @Override
+        public long getBrokenReferenceRemovalNanos() {
+            return phaseNanos.get(BuildPhase.BROKEN_REFERENCE_REMOVAL).sum();
+        }
+
+        @Override
+        public long getSerializationNanos() {
+            return phaseNanos.get(BuildPhase.SERIALIZATION).sum();
+        }
+
+        @Override
+        public long getSerializationCount() {
+            return serializationCount.sum();
+        }
+
+        @Override
+        public long getCacheHitCount() {
+            return cacheHitCount.sum();
+        }
+
+        @Override
+        public long getCacheMissCount() {
+            return cacheMissCount.sum();
+        }
+
+        @Override
+        public long getNotModifiedCount() {
+            return notModifiedCount.sum();
+        }
+
+        @Override
+        public long getBytesServed() {
+            return bytesServed.sum();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.devappliance.ninjadoc.metrics;
+
+/**
+ * The metrics of the api docs of one group, as exposed over JMX by {@link JmxNinjaDocMetrics}.
+ * Times are totals in nanoseconds since startup, so dashboards can derive rates and averages from the counts.
+ */
+public interface NinjaDocGroupMetricsMBean {
+
+    /**
+     * Gets build count.
+     *
+     * @return the build count
+     */
+    long getBuildCount();
+
+    /**
+     * Gets build failure count.
+     *
+     * @return the build failure count
+     */
+    long getBuildFailureCount();
+
+    /**
+     * Gets build nanos.
+     *
+     * @return the build nanos
+     */
+    long getBuildNanos();
+
+    /**
+     * Gets last build nanos.
+     *
+     * @return the last build nanos
+     */
+    long getLastBuildNanos();
+
+    /**
+     * Gets route scanning nanos.
+     *
+     * @return the route scanning nanos
+     */
+    long getRouteScanningNanos();
+
+    /**
+     * Gets operation parsing nanos.
+     *
+     * @return the operation parsing nanos
+     */
+    long getOperationParsingNanos();
+
+    /**
+     * Gets request building nanos.
+     *
+     * @return the request building nanos
+     */
+    long getRequestBuildingNanos();
+
+    /**
+     * Gets response building nanos.
+     *
+     * @return the response building nanos
+     */
+    long getResponseBuildingNanos();
+
+    /**
+     * Gets schema resolution nanos.
+     *
+     * @return the schema resolution nanos
+     */
+    long getSchemaResolutionNanos();
+
+    /**
+     * Gets customisers nanos.
+     *
+     * @return the customisers nanos
+     */
+    long getCustomisersNanos();
+
+    /**
+     * Gets broken reference removal nanos.
+     *
+     * @return the broken reference removal nanos
+     */
+    long getBrokenReferenceRemovalNanos();
+
+    /**
+     * Gets serialization nanos.
+     *
+     * @return the serialization nanos
+     */
+    long getSerializationNanos();
+
+    /**
+     * Gets serialization count.
+     *
+     * @return the serialization count
+     */
+    long getSerializationCount();
+
+    /**
+     * Gets cache hit count.
+     *
+     * @return the cache hit count
+     */
+    long getCacheHitCount();
+
+    /**
+     * Gets cache miss count.
+     *
+     * @return the cache miss count
+     */
+    long getCacheMissCount();
+
+    /**
+     * Gets not modified count.
+     *
+     * @return the not modified count
+     */
+    long getNotModifiedCount();
+
+    /**
+     * Gets bytes served.
+     *
+     * @return the bytes served
+     */
+    long getBytesServed();
+}
@@ -0,0 +1,80 @@
+package com.devappliance.ninjadoc.metrics;
+
+/**
+ * Receives the timings and counters of the api docs, per group. Every method does nothing by default,
+ * so an implementation only overrides what it reports.
+ * <p>
+ * Bound with an {@code OptionalBinder} in the ninjadoc module, defaulting to {@link JmxNinjaDocMetrics}.
+ * An application replaces it from its own module with
+ * {@code OptionalBinder.newOptionalBinder(binder(), NinjaDocMetrics.class).setBinding().to(...)},
+ * or turns the metrics off by binding {@link #NOOP}.
+ * Implementations are called on the request threads and must not block.
+ */
+public interface NinjaDocMetrics {
+
+    /**
+     * The metrics that report nothing.
+     */
+    NinjaDocMetrics NOOP = new NinjaDocMetrics() {
+    };
+
+    /**
+     * Record the time spent in a phase of a build, or in one serialization.
+     *
+     * @param groupName the group name
+     * @param phase     the phase
+     * @param nanos     the time in nanoseconds
+     */
+    default void recordPhase(String groupName, BuildPhase phase, long nanos) {
+    }
+
+    /**
+     * Record a completed build.
+     *
+     * @param groupName the group name
+     * @param nanos     the time of the whole build in nanoseconds
+     */
+    default void recordBuild(String groupName, long nanos) {
+    }
+
+    /**
+     * Record a failed build.
+     *
+     * @param groupName the group name
+     */
+    default void recordBuildFailure(String groupName) {
+    }
+
+    /**
+     * Record a rendered document served from a cache, in memory or on disk.
+     *
+     * @param groupName the group name
+     */
+    default void recordCacheHit(String groupName) {
+    }
+
+    /**
+     * Record a document rendered as it was not cached.
+     *
+     * @param groupName the group name
+     */
+    default void recordCacheMiss(String groupName) {
+    }
+
+    /**
+     * Record a 304 answered to a client already holding the document.
+     *
+     * @param groupName the group name
+     */
+    default void recordNotModified(String groupName) {
+    }
+
+    /**
+     * Record the bytes of a document sent to a client, once encoded.
+     *
+     * @param groupName the group name
+     * @param bytes     the number of bytes
+     */
+    default void recordBytesServed(String groupName, long bytes) {
+    }
+}
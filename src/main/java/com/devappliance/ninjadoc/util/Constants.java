@@ -210,6 +210,51 @@ public final class Constants {
      */
     public static final String SWAGGGER_CONFIG_FILE = "swagger-config";
 
+    /**
+     * The constant DEFAULT_ASSET_CACHE_MAX_SIZE, in bytes.
+     */
+    public static final long DEFAULT_ASSET_CACHE_MAX_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * The constant TAGS_PARAMETER, selecting the tags of a filtered view.
+     */
+    public static final String TAGS_PARAMETER = "tags";
+
+    /**
+     * The constant PATHS_PARAMETER, selecting the path patterns of a filtered view.
+     */
+    public static final String PATHS_PARAMETER = "paths";
+
+    /**
+     * The constant SINCE_PARAMETER, selecting the version a JSON Patch is computed from.
+     */
+    public static final String SINCE_PARAMETER = "since";
+
+    /**
+     * The constant JSON_PATCH_CONTENT_TYPE.
+     */
+    public static final String JSON_PATCH_CONTENT_TYPE = "application/json-patch+json";
+
+    /**
+     * The constant ACCEPT.
+     */
+    public static final String ACCEPT = "Accept";
+
+    /**
+     * The constant ACCEPT_ENCODING.
+     */
+    public static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    /**
+     * The constant CONTENT_ENCODING.
+     */
+    public static final String CONTENT_ENCODING = "Content-Encoding";
+
+    /**
+     * The constant VARY.
+     */
+    public static final String VARY = "Vary";
+
     /**
      * Instantiates a new Constants.
      */
@@ -0,0 +1,95 @@
+package com.devappliance.ninjadoc.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+
+/**
+ * Computes the RFC 6902 JSON Patch turning one json document into another.
+ * Objects are compared member by member and arrays of the same length element by element;
+ * an array whose length changed is replaced as a whole, which keeps the patch valid and simple to apply.
+ */
+public final class JsonPatchGenerator {
+
+    /**
+     * Instantiates a new Json patch generator.
+     */
+    private JsonPatchGenerator() {
+    }
+
+    /**
+     * Compute the patch from the source document to the target document.
+     *
+     * @param source the source
+     * @param target the target
+     * @return the patch, empty when the documents are equal
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = JsonNodeFactory.instance.arrayNode();
+        diff(patch, "", source, target);
+        return patch;
+    }
+
+    /**
+     * Add to the patch the operations turning the source node into the target node.
+     *
+     * @param patch  the patch
+     * @param path   the json pointer of the nodes
+     * @param source the source
+     * @param target the target
+     */
+    private static void diff(ArrayNode patch, String path, JsonNode source, JsonNode target) {
+        if (source.equals(target))
+            return;
+        if (source.isObject() && target.isObject()) {
+            Iterator<String> sourceNames = source.fieldNames();
+            while (sourceNames.hasNext()) {
+                String name = sourceNames.next();
+                String memberPath = path + "/" + escape(name);
+                if (target.has(name))
+                    diff(patch, memberPath, source.get(name), target.get(name));
+                else
+                    addOperation(patch, "remove", memberPath, null);
+            }
+            Iterator<String> targetNames = target.fieldNames();
+            while (targetNames.hasNext()) {
+                String name = targetNames.next();
+                if (!source.has(name))
+                    addOperation(patch, "add", path + "/" + escape(name), target.get(name));
+            }
+        } else if (source.isArray() && target.isArray() && source.size() == target.size()) {
+            for (int i = 0; i < source.size(); i++)
+                diff(patch, path + "/" + i, source.get(i), target.get(i));
+        } else
+            addOperation(patch, "replace", path, target);
+    }
+
+    /**
+     * Add an operation to the patch.
+     *
+     * @param patch the patch
+     * @param op    the operation
+     * @param path  the json pointer
+     * @param value the value, null for a removal
+     */
+    private static void addOperation(ArrayNode patch, String op, String path, JsonNode value) {
+        ObjectNode operation = patch.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null)
+            operation.set("value", value);
+    }
+
+    /**
+     * Escape a member name for a json pointer.
+     *
+     * @param name the name
+     * @return the escaped name
+     */
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
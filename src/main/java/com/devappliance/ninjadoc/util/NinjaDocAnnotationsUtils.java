@@ -20,6 +20,9 @@
 
 package com.devappliance.ninjadoc.util;
 
+import com.devappliance.ninjadoc.cache.SchemaResolutionCache;
+import com.devappliance.ninjadoc.metrics.BuildPhase;
+import com.devappliance.ninjadoc.metrics.BuildTimer;
 import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.v3.core.converter.AnnotatedType;
 import io.swagger.v3.core.converter.ModelConverters;
@@ -86,13 +89,19 @@ public class NinjaDocAnnotationsUtils extends AnnotationsUtils {
     public static Schema extractSchema(Components components, Type returnType, JsonView jsonView, Annotation[] annotations) {
         Schema schemaN = null;
         ResolvedSchema resolvedSchema = null;
+        long start = BuildTimer.start();
         try {
-            resolvedSchema = ModelConverters.getInstance()
-                    .resolveAsResolvedSchema(
-                            new AnnotatedType(returnType).resolveAsRef(true).jsonViewAnnotation(jsonView).ctxAnnotations(annotations));
+            SchemaResolutionCache schemaResolutionCache = SchemaResolutionCache.current();
+            if (schemaResolutionCache == null)
+                resolvedSchema = resolveSchema(returnType, jsonView, annotations);
+            else
+                resolvedSchema = schemaResolutionCache.resolve(returnType, jsonView, annotations,
+                        () -> resolveSchema(returnType, jsonView, annotations));
         } catch (Exception e) {
             LOGGER.warn(Constants.GRACEFUL_EXCEPTION_OCCURRED, e);
             return null;
+        } finally {
+            BuildTimer.record(BuildPhase.SCHEMA_RESOLUTION, start);
         }
         if (resolvedSchema.schema != null) {
             schemaN = resolvedSchema.schema;
@@ -113,6 +122,20 @@ public class NinjaDocAnnotationsUtils extends AnnotationsUtils {
         return schemaN;
     }
 
+    /**
+     * Resolve schema.
+     *
+     * @param type        the type
+     * @param jsonView    the json view
+     * @param annotations the annotations
+     * @return the resolved schema
+     */
+    private static ResolvedSchema resolveSchema(Type type, JsonView jsonView, Annotation[] annotations) {
+        return ModelConverters.getInstance()
+                .resolveAsResolvedSchema(
+                        new AnnotatedType(type).resolveAsRef(true).jsonViewAnnotation(jsonView).ctxAnnotations(annotations));
+    }
+
     /**
      * Extract schema schema.
      *
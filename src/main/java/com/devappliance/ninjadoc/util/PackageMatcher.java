@@ -0,0 +1,113 @@
+package com.devappliance.ninjadoc.util;
+
+import org.springframework.util.CollectionUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches package names against packages to scan and packages to exclude.
+ * A package matches a configured package when it is that package or one of its sub packages.
+ * The configured packages are compiled into a trie of package segments, so a lookup costs one step
+ * per segment of the package name, whatever the number of configured packages.
+ */
+public final class PackageMatcher {
+
+    /**
+     * The Packages to scan, null to scan every package.
+     */
+    private final Node packagesToScan;
+
+    /**
+     * The Packages to exclude, null to exclude none.
+     */
+    private final Node packagesToExclude;
+
+    /**
+     * Instantiates a new Package matcher.
+     *
+     * @param packagesToScan    the packages to scan
+     * @param packagesToExclude the packages to exclude
+     */
+    public PackageMatcher(List<String> packagesToScan, List<String> packagesToExclude) {
+        this.packagesToScan = compile(packagesToScan);
+        this.packagesToExclude = compile(packagesToExclude);
+    }
+
+    /**
+     * Matches boolean.
+     *
+     * @param packageName the package name
+     * @return the boolean
+     */
+    public boolean matches(String packageName) {
+        boolean include = packagesToScan == null || packagesToScan.matches(packageName);
+        boolean exclude = packagesToExclude != null && packagesToExclude.matches(packageName);
+        return include && !exclude;
+    }
+
+    /**
+     * Compile the packages into a trie.
+     *
+     * @param packages the packages
+     * @return the root node, or null when there is no package
+     */
+    private static Node compile(List<String> packages) {
+        if (CollectionUtils.isEmpty(packages))
+            return null;
+        Node root = new Node();
+        for (String pack : packages) {
+            Node node = root;
+            for (String segment : split(pack))
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            node.terminal = true;
+        }
+        return root;
+    }
+
+    /**
+     * Split a package name into its segments. Empty segments are kept, so that a malformed package
+     * such as {@code com.example.} never matches a real package.
+     *
+     * @param packageName the package name
+     * @return the segments
+     */
+    private static String[] split(String packageName) {
+        return packageName.split("\\.", -1);
+    }
+
+    /**
+     * A segment of a package name.
+     */
+    private static final class Node {
+
+        /**
+         * The Children.
+         */
+        private final Map<String, Node> children = new HashMap<>();
+
+        /**
+         * True if a configured package ends at this segment.
+         */
+        private boolean terminal;
+
+        /**
+         * True if the package is one of the packages of the trie, or one of their sub packages.
+         *
+         * @param packageName the package name
+         * @return the boolean
+         */
+        private boolean matches(String packageName) {
+            Node node = this;
+            for (String segment : split(packageName)) {
+                node = node.children.get(segment);
+                if (node == null)
+                    return false;
+                if (node.terminal)
+                    return true;
+            }
+            return false;
+        }
+    }
+}
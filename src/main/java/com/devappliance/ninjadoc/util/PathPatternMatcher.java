@@ -0,0 +1,168 @@
+package com.devappliance.ninjadoc.util;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.springframework.util.AntPathMatcher.DEFAULT_PATH_SEPARATOR;
+
+/**
+ * Matches operation paths against paths to match and paths to exclude, with the semantics of {@link AntPathMatcher}.
+ * The patterns are compiled once: literal patterns become a set lookup, {@code /prefix/**} patterns become a prefix
+ * check, and only the remaining patterns go through the ant matcher.
+ */
+public final class PathPatternMatcher {
+
+    /**
+     * The suffix of the patterns matching a path and everything below it.
+     */
+    private static final String PREFIX_PATTERN_SUFFIX = DEFAULT_PATH_SEPARATOR + "**";
+
+    /**
+     * The Paths to match, null to match every path.
+     */
+    private final CompiledPatterns pathsToMatch;
+
+    /**
+     * The Paths to exclude, null to exclude none.
+     */
+    private final CompiledPatterns pathsToExclude;
+
+    /**
+     * Instantiates a new Path pattern matcher.
+     *
+     * @param pathsToMatch   the paths to match
+     * @param pathsToExclude the paths to exclude
+     * @param antPathMatcher the ant path matcher
+     */
+    public PathPatternMatcher(List<String> pathsToMatch, List<String> pathsToExclude, AntPathMatcher antPathMatcher) {
+        this.pathsToMatch = compile(pathsToMatch, antPathMatcher);
+        this.pathsToExclude = compile(pathsToExclude, antPathMatcher);
+    }
+
+    /**
+     * Matches boolean.
+     *
+     * @param operationPath the operation path
+     * @return the boolean
+     */
+    public boolean matches(String operationPath) {
+        boolean include = pathsToMatch == null || pathsToMatch.matches(operationPath);
+        boolean exclude = pathsToExclude != null && pathsToExclude.matches(operationPath);
+        return include && !exclude;
+    }
+
+    /**
+     * Compile the patterns.
+     *
+     * @param patterns       the patterns
+     * @param antPathMatcher the ant path matcher
+     * @return the compiled patterns, or null when there is no pattern
+     */
+    private static CompiledPatterns compile(List<String> patterns, AntPathMatcher antPathMatcher) {
+        if (CollectionUtils.isEmpty(patterns))
+            return null;
+        return new CompiledPatterns(patterns, antPathMatcher);
+    }
+
+    /**
+     * Is literal pattern boolean. Empty path segments are left to the ant matcher, which ignores them.
+     *
+     * @param pattern the pattern
+     * @return the boolean
+     */
+    private static boolean isLiteral(String pattern) {
+        return pattern.startsWith(DEFAULT_PATH_SEPARATOR) && !pattern.contains("//") && !pattern.contains("*")
+                && !pattern.contains("?") && !pattern.contains("{");
+    }
+
+    /**
+     * Is literal prefix boolean.
+     *
+     * @param prefix the prefix of a {@code /prefix/**} pattern
+     * @return the boolean
+     */
+    private static boolean isLiteralPrefix(String prefix) {
+        return isLiteral(prefix) && !prefix.endsWith(DEFAULT_PATH_SEPARATOR);
+    }
+
+    /**
+     * A list of patterns, split by kind.
+     */
+    private static final class CompiledPatterns {
+
+        /**
+         * The Literal paths.
+         */
+        private final Set<String> literals = new HashSet<>();
+
+        /**
+         * The prefixes of the {@code /prefix/**} patterns.
+         */
+        private final List<String> prefixes = new ArrayList<>();
+
+        /**
+         * The other patterns.
+         */
+        private final List<String> patterns = new ArrayList<>();
+
+        /**
+         * The Ant path matcher.
+         */
+        private final AntPathMatcher antPathMatcher;
+
+        /**
+         * Instantiates new Compiled patterns.
+         *
+         * @param patterns       the patterns
+         * @param antPathMatcher the ant path matcher
+         */
+        private CompiledPatterns(List<String> patterns, AntPathMatcher antPathMatcher) {
+            this.antPathMatcher = antPathMatcher;
+            for (String pattern : patterns) {
+                if (isLiteral(pattern))
+                    literals.add(pattern);
+                else if (pattern.endsWith(PREFIX_PATTERN_SUFFIX) && isLiteralPrefix(pattern.substring(0, pattern.length() - PREFIX_PATTERN_SUFFIX.length())))
+                    prefixes.add(pattern.substring(0, pattern.length() - PREFIX_PATTERN_SUFFIX.length()));
+                else
+                    this.patterns.add(pattern);
+            }
+        }
+
+        /**
+         * Matches boolean.
+         *
+         * @param operationPath the operation path
+         * @return the boolean
+         */
+        private boolean matches(String operationPath) {
+            // paths with empty segments are left to the ant matcher, which ignores them
+            if (!operationPath.contains("//")) {
+                if (literals.contains(operationPath))
+                    return true;
+                for (String prefix : prefixes) {
+                    if (operationPath.equals(prefix) || operationPath.startsWith(prefix + DEFAULT_PATH_SEPARATOR))
+                        return true;
+                }
+            } else {
+                for (String literal : literals) {
+                    if (antPathMatcher.match(literal, operationPath))
+                        return true;
+                }
+                for (String prefix : prefixes) {
+                    if (antPathMatcher.match(prefix + PREFIX_PATTERN_SUFFIX, operationPath))
+                        return true;
+                }
+            }
+            for (String pattern : patterns) {
+                if (antPathMatcher.match(pattern, operationPath))
+                    return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.devappliance.ninjadoc.wrappers;
+
+import io.swagger.v3.core.util.PathUtils;
+import ninja.Route;
+
+import java.util.LinkedHashMap;
+
+/**
+ * The documentation metadata of a Ninja route: its handler method, parsed path and http method.
+ * Instances are immutable and shared by every group.
+ */
+public final class RouteInfo {
+
+    /**
+     * The Route.
+     */
+    private final Route route;
+
+    /**
+     * The Handler method.
+     */
+    private final HandlerMethod handlerMethod;
+
+    /**
+     * The Operation path.
+     */
+    private final String operationPath;
+
+    /**
+     * The Controller package.
+     */
+    private final Package controllerPackage;
+
+    /**
+     * Instantiates a new Route info.
+     *
+     * @param route         the route
+     * @param handlerMethod the handler method
+     */
+    public RouteInfo(Route route, HandlerMethod handlerMethod) {
+        this.route = route;
+        this.handlerMethod = handlerMethod;
+        this.operationPath = PathUtils.parsePath(route.getUri(), new LinkedHashMap<>());
+        this.controllerPackage = handlerMethod.getBeanType().getPackage();
+    }
+
+    /**
+     * Gets route.
+     *
+     * @return the route
+     */
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Gets handler method.
+     *
+     * @return the handler method
+     */
+    public HandlerMethod getHandlerMethod() {
+        return handlerMethod;
+    }
+
+    /**
+     * Gets operation path.
+     *
+     * @return the operation path
+     */
+    public String getOperationPath() {
+        return operationPath;
+    }
+
+    /**
+     * Gets controller package.
+     *
+     * @return the controller package
+     */
+    public Package getControllerPackage() {
+        return controllerPackage;
+    }
+
+    /**
+     * Gets http method.
+     *
+     * @return the http method
+     */
+    public String getHttpMethod() {
+        return route.getHttpMethod();
+    }
+
+    /**
+     * Gets request method.
+     *
+     * @return the request method
+     * @throws IllegalArgumentException if the http method is not a supported request method
+     */
+    public RequestMethod getRequestMethod() {
+        return RequestMethod.valueOf(route.getHttpMethod());
+    }
+}
@@ -0,0 +1,163 @@
+package com.devappliance.ninjadoc.wrappers;
+
+import com.devappliance.ninjadoc.cache.RenderedSpec;
+import com.google.inject.Injector;
+import ninja.Route;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The documentation metadata of every Ninja route, resolved once per route table and shared by all the groups.
+ * The registry is keyed on the route list of the router: it is built on first use, once the router has been
+ * compiled, and rebuilt whenever the router returns another route list, or after {@link #refresh()}.
+ */
+@Singleton
+public class RouteRegistry {
+
+    /**
+     * The Application context.
+     */
+    private final ApplicationContext applicationContext;
+
+    /**
+     * The Route table.
+     */
+    private volatile RouteTable routeTable;
+
+    /**
+     * Instantiates a new Route registry.
+     *
+     * @param injector the injector
+     */
+    @Inject
+    public RouteRegistry(Injector injector) {
+        this.applicationContext = ApplicationContext.from(injector);
+    }
+
+    /**
+     * Gets the routes, in router order.
+     *
+     * @return the routes
+     */
+    public List<RouteInfo> getRoutes() {
+        RouteTable table = getRouteTable();
+        List<RouteInfo> result = table.routes;
+        if (result == null) {
+            synchronized (table) {
+                result = table.routes;
+                if (result == null) {
+                    result = buildRoutes(table.source);
+                    table.routes = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the fingerprint of the route table: the SHA-256 digest, in hex, of the method, uri and controller
+     * method of every route. It only reads the router, so it is cheap to compute before any route is documented,
+     * and it is computed once per route table.
+     *
+     * @return the fingerprint
+     */
+    public String getFingerprint() {
+        RouteTable table = getRouteTable();
+        String result = table.fingerprint;
+        if (result == null) {
+            StringBuilder routeTable = new StringBuilder();
+            for (Route route : table.source)
+                routeTable.append(route.getHttpMethod()).append(' ').append(route.getUri()).append(' ')
+                        .append(route.getControllerMethod()).append('\n');
+            table.fingerprint = result = RenderedSpec.computeDigest(routeTable.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the route list of the router the registry is currently built from. The same list is returned as long
+     * as the route table does not change, so it can be compared by identity.
+     *
+     * @return the route list
+     */
+    public List<Route> getSource() {
+        return getRouteTable().source;
+    }
+
+    /**
+     * Drop the routes and fingerprint, so they are rebuilt from the router on next use.
+     */
+    public void refresh() {
+        routeTable = null;
+    }
+
+    /**
+     * Gets the route table of the current route list of the router.
+     *
+     * @return the route table
+     */
+    private RouteTable getRouteTable() {
+        List<Route> source = applicationContext.getRoutes();
+        RouteTable table = routeTable;
+        if (table == null || table.source != source) {
+            synchronized (this) {
+                table = routeTable;
+                if (table == null || table.source != source) {
+                    table = new RouteTable(source);
+                    routeTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Build routes.
+     *
+     * @param source the route list of the router
+     * @return the routes
+     */
+    private List<RouteInfo> buildRoutes(List<Route> source) {
+        List<RouteInfo> routeInfos = new ArrayList<>();
+        for (Route route : source) {
+            HandlerMethod handlerMethod = new HandlerMethod(applicationContext.getBean(route.getControllerClass()), route.getControllerMethod());
+            routeInfos.add(new RouteInfo(route, handlerMethod));
+        }
+        return Collections.unmodifiableList(routeInfos);
+    }
+
+    /**
+     * The routes and fingerprint of one route list of the router.
+     */
+    private static final class RouteTable {
+
+        /**
+         * The Source.
+         */
+        private final List<Route> source;
+
+        /**
+         * The Routes.
+         */
+        private volatile List<RouteInfo> routes;
+
+        /**
+         * The Fingerprint.
+         */
+        private volatile String fingerprint;
+
+        /**
+         * Instantiates a new Route table.
+         *
+         * @param source the route list of the router
+         */
+        private RouteTable(List<Route> source) {
+            this.source = source;
+        }
+    }
+}
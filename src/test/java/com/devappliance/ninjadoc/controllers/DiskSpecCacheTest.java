@@ -0,0 +1,128 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import ninja.utils.NinjaTestServer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves the rendered api docs kept on disk by a previous run of the application.
+ */
+public class DiskSpecCacheTest extends AbstractNinjaDocTest {
+
+    /**
+     * The host of every request, the port of the test server changing on restart.
+     */
+    private static final String HOST = "ninjadoc.test:8080";
+
+    /**
+     * The host of the requests served after the restart only.
+     */
+    private static final String OTHER_HOST = "other.ninjadoc.test:9090";
+
+    private static final String DEFAULT_GROUP = "ninjadocDefault";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Override
+    protected Map<String, String> getConfigsForTest() {
+        Map<String, String> properties = super.getConfigsForTest();
+        properties.put("ninjadoc.cache.disk-directory", temporaryFolder.getRoot().getAbsolutePath());
+        return properties;
+    }
+
+    @Test
+    public void shouldServeTheDocumentsKeptOnDiskAfterARestart() throws Exception {
+        Response json = givenAsSent().header("Host", HOST).when().get(ninjaDocConfig.getApiDocsUrl());
+        json.then().statusCode(200);
+        Response yaml = givenAsSent().header("Host", HOST).when().get(ninjaDocConfig.getApiDocsUrlYaml());
+        yaml.then().statusCode(200);
+        List<String> files = listFiles(temporaryFolder.getRoot().toPath());
+        assertTrue(files.toString(), files.stream().anyMatch(file -> file.endsWith(".json")));
+        assertTrue(files.toString(), files.stream().anyMatch(file -> file.endsWith(".yaml")));
+
+        restart();
+
+        Response restartedJson = givenAsSent().header("Host", HOST).when().get(ninjaDocConfig.getApiDocsUrl());
+        restartedJson.then().statusCode(200)
+                .header("ETag", equalTo(json.getHeader("ETag")))
+                .body("servers[0].url", equalTo("http://" + HOST));
+        assertArrayEquals(json.asByteArray(), restartedJson.asByteArray());
+        givenAsSent().header("Host", HOST).header("If-None-Match", yaml.getHeader("ETag"))
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(304);
+        // another host is spliced into the document read back
+        givenAsSent().header("Host", OTHER_HOST).when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("servers[0].url", equalTo("http://" + OTHER_HOST));
+        givenAsSent().header("Host", OTHER_HOST).when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200)
+                .body(containsString("url: http://" + OTHER_HOST + "\n"));
+        // read back, not built
+        assertEquals(0, getMetric(DEFAULT_GROUP, "OperationParsingNanos"));
+    }
+
+    @Test
+    public void shouldPruneTheStaleDocumentsOfTheGroup() throws Exception {
+        Path root = temporaryFolder.getRoot().toPath();
+        Path stale = createVariant(root.resolve("stale").resolve(DEFAULT_GROUP), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path recent = createVariant(root.resolve("recent").resolve(DEFAULT_GROUP), FileTime.from(Instant.now()));
+        Path otherGroup = createVariant(root.resolve("stale").resolve("otherGroup"), FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        restart();
+
+        assertFalse(Files.exists(stale.getParent()));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(otherGroup));
+    }
+
+    private static Path createVariant(Path directory, FileTime lastModifiedTime) throws IOException {
+        Path variant = Files.createDirectories(directory).resolve("variant.json");
+        Files.write(variant, "{}".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(variant, lastModifiedTime);
+        Files.setLastModifiedTime(directory, lastModifiedTime);
+        return variant;
+    }
+
+    private void restart() {
+        ninjaDocTestServer.shutdown();
+        ninjaDocTestServer = new NinjaTestServer();
+        injector = ninjaDocTestServer.getInjector();
+        injector.injectMembers(this);
+        RestAssured.baseURI = getServerAddress();
+    }
+
+    private static List<String> listFiles(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).map(Path::toString).collect(Collectors.toList());
+        }
+    }
+}
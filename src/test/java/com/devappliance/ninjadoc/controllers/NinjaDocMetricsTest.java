@@ -0,0 +1,71 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.devappliance.ninjadoc.metrics.JmxNinjaDocMetrics;
+import conf.AbstractNinjaDocTest;
+import ninja.utils.NinjaTestServer;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exposes the build, cache and traffic counters of each group over JMX.
+ */
+public class NinjaDocMetricsTest extends AbstractNinjaDocTest {
+
+    private static final String DEFAULT_GROUP = "ninjadocDefault";
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldCountTheBuildsAndTheRequests() throws Exception {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200);
+        String etag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().header("ETag");
+        givenAsSent().header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(304);
+
+        assertEquals(1, getMetric(DEFAULT_GROUP, "BuildCount"));
+        assertEquals(0, getMetric(DEFAULT_GROUP, "BuildFailureCount"));
+        assertTrue(getMetric(DEFAULT_GROUP, "BuildNanos") > 0);
+        assertTrue(getMetric(DEFAULT_GROUP, "SerializationCount") >= 1);
+        assertTrue(getMetric(DEFAULT_GROUP, "CacheMissCount") >= 1);
+        assertTrue(getMetric(DEFAULT_GROUP, "CacheHitCount") >= 1);
+        assertEquals(1, getMetric(DEFAULT_GROUP, "NotModifiedCount"));
+        assertTrue(getMetric(DEFAULT_GROUP, "BytesServed") > 0);
+    }
+
+    @Test
+    public void shouldRegisterTheMetricsOfAnotherApplicationUnderAnotherInstance() throws Exception {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName first = new ObjectName(JmxNinjaDocMetrics.DOMAIN + ":type=Metrics,group=" + ObjectName.quote(DEFAULT_GROUP));
+        ObjectName second = new ObjectName(first + ",instance=2");
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200);
+
+        NinjaTestServer otherServer = new NinjaTestServer();
+        try {
+            givenAsSent().when().get(otherServer.getServerUrl() + ninjaDocConfig.getApiDocsUrl())
+                    .then().statusCode(200);
+            assertTrue(mBeanServer.isRegistered(second));
+            assertEquals(1L, mBeanServer.getAttribute(second, "BuildCount"));
+        } finally {
+            otherServer.shutdown();
+        }
+
+        assertFalse(mBeanServer.isRegistered(second));
+        assertTrue(mBeanServer.isRegistered(first));
+        assertEquals(1, getMetric(DEFAULT_GROUP, "BuildCount"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import conf.AbstractNinjaDocTest;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Serves the api docs in the smile and cbor binary formats, by extension or by Accept header.
+ */
+public class OpenApiResourceBinaryFormatTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeTheSmileDocument() throws IOException {
+        Response smile = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + ".smile");
+        smile.then().statusCode(200)
+                .contentType(containsString("application/x-jackson-smile"));
+
+        assertEquals(getJsonTree(), new ObjectMapper(new SmileFactory()).readTree(smile.asByteArray()));
+    }
+
+    @Test
+    public void shouldServeTheCborDocument() throws IOException {
+        Response cbor = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + ".cbor");
+        cbor.then().statusCode(200)
+                .contentType(containsString("application/cbor"));
+
+        assertEquals(getJsonTree(), new ObjectMapper(new CBORFactory()).readTree(cbor.asByteArray()));
+    }
+
+    @Test
+    public void shouldNegotiateTheFormat() throws IOException {
+        Response cbor = givenAsSent().header("Accept", "application/cbor, application/json;q=0.5")
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        cbor.then().statusCode(200)
+                .contentType(containsString("application/cbor"))
+                .header("Vary", containsString("Accept"));
+        assertEquals(getJsonTree(), new ObjectMapper(new CBORFactory()).readTree(cbor.asByteArray()));
+
+        // json is preferred, or as good as a binary format
+        givenAsSent().header("Accept", "application/x-jackson-smile;q=0.5, application/json")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .contentType(containsString("application/json"))
+                .body("paths.'/api/v1/schools'.post.operationId", equalTo("createSchool"));
+        givenAsSent().header("Accept", "*/*, application/cbor")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .contentType(containsString("application/json"));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedToABinaryEtag() {
+        String json = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag");
+        String etag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + ".smile")
+                .then().statusCode(200)
+                .extract().header("ETag");
+        assertNotEquals(json, etag);
+
+        givenAsSent().header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl() + ".smile")
+                .then().statusCode(304)
+                .header("ETag", equalTo(etag));
+        givenAsSent().header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl() + ".cbor")
+                .then().statusCode(200);
+    }
+
+    private JsonNode getJsonTree() throws IOException {
+        return objectMapper.readTree(givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).asByteArray());
+    }
+}
@@ -0,0 +1,77 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.devappliance.ninjadoc.wrappers.RouteRegistry;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Rebuilds the api docs, while the cache is disabled, only once what they are generated from changed.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.cache.disabled=true",
+        "ninjadoc.cache.change-detection-enabled=true"})
+public class OpenApiResourceChangeDetectionTest extends AbstractNinjaDocTest {
+
+    private static final String DEFAULT_GROUP = "ninjadocDefault";
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldNotRebuildUnchangedApiDocs() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                    .then().statusCode(200)
+                    .body("paths.'/api/v1/schools'", notNullValue());
+        }
+        assertEquals(1, getMetric(DEFAULT_GROUP, "BuildCount"));
+    }
+
+    @Test
+    public void shouldRebuildOnceThePathsChanged() throws Exception {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/api/v1/schools'", notNullValue());
+
+        ninjaDocConfigProperties.setPathsToExclude(Collections.singletonList("/api/v1/schools"));
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/api/v1/schools'", nullValue());
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200);
+        assertEquals(2, getMetric(DEFAULT_GROUP, "BuildCount"));
+    }
+
+    @Test
+    public void shouldNotRebuildForTheSameRouteList() throws Exception {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200);
+
+        // the route list of the router is compared, not the table derived from it
+        injector.getInstance(RouteRegistry.class).refresh();
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/api/v1/schools'", notNullValue());
+        assertEquals(1, getMetric(DEFAULT_GROUP, "BuildCount"));
+    }
+
+    @Test
+    public void shouldRebuildOnEveryRequestWithoutDetection() throws Exception {
+        ninjaDocConfigProperties.getCache().setChangeDetectionEnabled(false);
+
+        for (int i = 0; i < 3; i++) {
+            givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                    .then().statusCode(200);
+        }
+        assertEquals(3, getMetric(DEFAULT_GROUP, "BuildCount"));
+    }
+}
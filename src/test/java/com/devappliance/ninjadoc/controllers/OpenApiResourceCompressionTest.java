@@ -0,0 +1,92 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.google.common.io.ByteStreams;
+import conf.AbstractNinjaDocTest;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Serves the pre-compressed renderings of the api docs according to Accept-Encoding.
+ */
+public class OpenApiResourceCompressionTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeTheGzipRendering() throws IOException {
+        Response identity = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl());
+        String etag = identity.getHeader("ETag");
+
+        Response gzip = givenAsSent().header("Accept-Encoding", "gzip")
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        gzip.then().statusCode(200)
+                .header("Content-Encoding", equalTo("gzip"))
+                .header("ETag", equalTo(etag.substring(0, etag.length() - 1) + "-gzip\""))
+                .header("Vary", containsString("Accept-Encoding"));
+
+        assertArrayEquals(identity.asByteArray(), decode(new GZIPInputStream(new ByteArrayInputStream(gzip.asByteArray()))));
+    }
+
+    @Test
+    public void shouldServeTheDeflateRendering() throws IOException {
+        Response identity = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrlYaml());
+
+        Response deflate = givenAsSent().header("Accept-Encoding", "gzip;q=0.5, deflate")
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml());
+        deflate.then().statusCode(200)
+                .header("Content-Encoding", equalTo("deflate"))
+                .header("ETag", containsString("-deflate\""));
+
+        assertArrayEquals(identity.asByteArray(), decode(new InflaterInputStream(new ByteArrayInputStream(deflate.asByteArray()))));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedToTheEtagOfAnyCoding() {
+        String gzipEtag = givenAsSent().header("Accept-Encoding", "gzip")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .getHeader("ETag");
+
+        // the 304 carries the tag of the coding of the request
+        givenAsSent().header("If-None-Match", gzipEtag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(304)
+                .header("ETag", not(containsString("-gzip")));
+        givenAsSent().header("Accept-Encoding", "deflate").header("If-None-Match", gzipEtag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(304)
+                .header("ETag", containsString("-deflate\""));
+    }
+
+    @Test
+    public void shouldNotCompressOnceDisabled() {
+        ninjaDocConfigProperties.getCache().setCompressionEnabled(false);
+
+        givenAsSent().header("Accept-Encoding", "gzip, deflate")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .header("ETag", not(containsString("-gzip")))
+                .header("Vary", equalTo("Accept"));
+    }
+
+    private static byte[] decode(InputStream inputStream) throws IOException {
+        try (InputStream decoded = inputStream) {
+            return ByteStreams.toByteArray(decoded);
+        }
+    }
+}
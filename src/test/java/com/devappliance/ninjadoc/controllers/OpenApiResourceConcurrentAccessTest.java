@@ -0,0 +1,61 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves concurrent requests from one published snapshot, built once by the first of them.
+ */
+public class OpenApiResourceConcurrentAccessTest extends AbstractNinjaDocTest {
+
+    private static final int REQUESTS = 16;
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeConcurrentRequestsFromOneSnapshot() throws Exception {
+        OpenApiResource openApiResource = injector.getInstance(OpenApiResource.class);
+        assertFalse(openApiResource.isOpenApiReady());
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                Callable<String> request = () -> {
+                    start.await();
+                    return given().when().get(ninjaDocConfig.getApiDocsUrl())
+                            .then().statusCode(200)
+                            .extract().asString();
+                };
+                responses.add(executor.submit(request));
+            }
+            start.countDown();
+            String expected = responses.get(0).get(30, TimeUnit.SECONDS);
+            for (Future<String> response : responses)
+                assertEquals(expected, response.get(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(openApiResource.isOpenApiReady());
+        assertEquals(0, openApiResource.getFailedBuildCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Identifies the api docs with a strong entity tag and answers 304 to a client already holding them.
+ */
+public class OpenApiResourceEtagTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeAStrongEtagPerDocument() {
+        Response json = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl());
+        json.then().statusCode(200);
+        Response yaml = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrlYaml());
+        yaml.then().statusCode(200);
+
+        String etag = json.getHeader("ETag");
+        assertTrue(etag, etag.matches("\"[0-9a-f]{64}\""));
+        assertEquals(etag, givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag"));
+        assertNotEquals(etag, yaml.getHeader("ETag"));
+        assertThat(getVary(json), hasItems("Accept", "Accept-Encoding"));
+        assertThat(getVary(yaml), hasItems("Accept-Encoding"));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedToAMatchingEtag() {
+        String etag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag");
+
+        for (String ifNoneMatch : new String[]{etag, "W/" + etag, "\"other\", " + etag, "*"}) {
+            Response response = givenAsSent().header("If-None-Match", ifNoneMatch)
+                    .when().get(ninjaDocConfig.getApiDocsUrl());
+            response.then().statusCode(304)
+                    .header("ETag", equalTo(etag));
+            assertEquals(0, response.asByteArray().length);
+            assertThat(getVary(response), hasItems("Accept", "Accept-Encoding"));
+        }
+
+        givenAsSent().header("If-None-Match", "\"other\"")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("ETag", equalTo(etag));
+    }
+
+    @Test
+    public void shouldNotMatchTheEtagOfAnotherDocument() {
+        String jsonEtag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag");
+        givenAsSent().header("If-None-Match", jsonEtag)
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200);
+
+        String yamlEtag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrlYaml()).getHeader("ETag");
+        givenAsSent().header("If-None-Match", yamlEtag)
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(304);
+
+        // another host gets another server url, so another document
+        givenAsSent().header("Host", "first.example.com").header("If-None-Match", jsonEtag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("ETag", not(equalTo(jsonEtag)));
+    }
+
+    private static List<String> getVary(Response response) {
+        return Arrays.asList(response.getHeader("Vary").split("\\s*,\\s*"));
+    }
+}
@@ -0,0 +1,11 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.NinjaDocParallelBuildTest;
+
+public class OpenApiResourceParallelBuildTest extends NinjaDocParallelBuildTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds the api docs in the background at startup, before the first request.
+ */
+@TestPropertySource(properties = {"ninjadoc.pre-loading-enabled=true"})
+public class OpenApiResourcePreLoadingTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldBuildTheApiDocsBeforeTheFirstRequest() throws InterruptedException {
+        OpenApiResource openApiResource = injector.getInstance(OpenApiResource.class);
+        await(openApiResource::isOpenApiReady, 30000);
+        assertEquals(0, openApiResource.getFailedBuildCount());
+
+        // the document built without a request still gets the server url of each request
+        given().header("Host", "first.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/api/v1/schools'.post.operationId", equalTo("createSchool"))
+                .body("servers[0].url", equalTo("http://first.example.com"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves the api docs rendered on the first request, once per format and server url.
+ */
+public class OpenApiResourceRenderedCacheTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeTheSameJsonOnEveryRequest() {
+        byte[] first = given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asByteArray();
+        byte[] second = given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asByteArray();
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void shouldServeTheSameYamlOnEveryRequest() {
+        byte[] first = given().when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200)
+                .contentType(containsString("text/plain"))
+                .body(containsString("openapi: 3.0.1"))
+                .extract().asByteArray();
+        byte[] second = given().when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200)
+                .extract().asByteArray();
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void shouldKeepTheRenderingOfEachServerUrl() {
+        String first = given().header("Host", "first.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asString();
+        String second = given().header("Host", "second.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asString();
+        String firstAgain = given().header("Host", "first.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asString();
+
+        assertTrue(first.contains("http://first.example.com"));
+        assertTrue(second.contains("http://second.example.com"));
+        assertNotEquals(first, second);
+        assertEquals(first, firstAgain);
+    }
+}
@@ -0,0 +1,61 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import conf.AbstractNinjaDocTest;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Overlays the server url of each request on the cached api docs, leaving the shared document untouched.
+ */
+public class OpenApiResourceServerUrlTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeTheServerUrlOfEachHost() {
+        given().header("Host", "first.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("servers.size()", equalTo(1))
+                .body("servers[0].url", equalTo("http://first.example.com"));
+
+        given().header("Host", "second.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("servers.size()", equalTo(1))
+                .body("servers[0].url", equalTo("http://second.example.com"));
+
+        given().header("Host", "third.example.com")
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200)
+                .body(containsString("url: http://third.example.com"));
+    }
+
+    @Test
+    public void shouldOnlyDifferByTheServerUrl() throws IOException {
+        ObjectNode first = getApiDocs("first.example.com");
+        ObjectNode second = getApiDocs("second.example.com");
+
+        assertEquals("http://first.example.com", first.remove("servers").get(0).get("url").asText());
+        assertEquals("http://second.example.com", second.remove("servers").get(0).get("url").asText());
+        assertEquals(first, second);
+    }
+
+    private ObjectNode getApiDocs(String host) throws IOException {
+        byte[] content = given().header("Host", host)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asByteArray();
+        return (ObjectNode) objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,53 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Streams the api docs straight to the response while the cache is disabled.
+ */
+@TestPropertySource(properties = {"ninjadoc.cache.disabled=true"})
+public class OpenApiResourceStreamingTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldStreamTheRenderedDocuments() {
+        String[] urls = {ninjaDocConfig.getApiDocsUrl(), ninjaDocConfig.getApiDocsUrlYaml(), ninjaDocConfig.getApiDocsUrl() + ".smile"};
+        byte[][] streamed = new byte[urls.length][];
+        for (int i = 0; i < urls.length; i++) {
+            Response response = givenAsSent().header("Accept-Encoding", "gzip").when().get(urls[i]);
+            // nothing is kept to identify or compress
+            response.then().statusCode(200)
+                    .header("ETag", nullValue())
+                    .header("Content-Encoding", nullValue());
+            streamed[i] = response.asByteArray();
+        }
+
+        ninjaDocConfigProperties.getCache().setDisabled(false);
+        for (int i = 0; i < urls.length; i++) {
+            byte[] rendered = givenAsSent().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asByteArray();
+            assertArrayEquals(rendered, streamed[i]);
+        }
+    }
+
+    @Test
+    public void shouldStreamAView() {
+        givenAsSent().queryParam("tags", "test-controller")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("ETag", nullValue())
+                .body("paths.'/api/v1/schools'.post.operationId", equalTo("createSchool"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.devappliance.ninjadoc.controllers;
+
+import com.devappliance.ninjadoc.cache.PrebuiltOpenApi;
+import com.devappliance.ninjadoc.cache.SpecFormat;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import io.restassured.RestAssured;
+import ninja.utils.NinjaTestServer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves the api docs generated at build time, as packaged in the class path of the application.
+ */
+@TestPropertySource(properties = {"ninjadoc.prebuilt-enabled=true"})
+public class PrebuiltOpenApiTest extends AbstractNinjaDocTest {
+
+    private static final String DEFAULT_GROUP = "ninjadocDefault";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeThePrebuiltDocument() throws Exception {
+        Path outputDirectory = temporaryFolder.getRoot().toPath();
+        new OpenApiGenerator(injector).generate(outputDirectory);
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader packagedClassLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, classLoader)) {
+            Thread.currentThread().setContextClassLoader(packagedClassLoader);
+            restart();
+        } finally {
+            Thread.currentThread().setContextClassLoader(classLoader);
+        }
+
+        ObjectNode served = (ObjectNode) objectMapper.readTree(givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .extract().asByteArray());
+        ObjectNode prebuilt = (ObjectNode) objectMapper.readTree(outputDirectory.resolve(PrebuiltOpenApi.LOCATION
+                + PrebuiltOpenApi.getName(DEFAULT_GROUP, SpecFormat.JSON)).toFile());
+        // the server url of the caller is overlaid on the prebuilt document
+        served.remove("servers");
+        prebuilt.remove("servers");
+        assertEquals(prebuilt, served);
+
+        // nothing was parsed
+        assertEquals(0, getMetric(DEFAULT_GROUP, "OperationParsingNanos"));
+    }
+
+    @Test
+    public void shouldIgnoreTheDocumentOfAnotherApplication() throws Exception {
+        Path outputDirectory = temporaryFolder.getRoot().toPath();
+        new OpenApiGenerator(injector).generate(outputDirectory);
+        PrebuiltOpenApi.writeFingerprint(outputDirectory, DEFAULT_GROUP, "another application");
+
+        try (URLClassLoader packagedClassLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+            assertNull(PrebuiltOpenApi.load(packagedClassLoader, DEFAULT_GROUP, injector.getInstance(OpenApiResource.class).getPrebuiltFingerprint()));
+        }
+    }
+
+    @Test
+    public void shouldGenerateTheDocumentsAndTheirFingerprint() throws IOException {
+        Path outputDirectory = temporaryFolder.getRoot().toPath();
+
+        new OpenApiGenerator(injector).generate(outputDirectory);
+
+        assertTrue(Files.exists(outputDirectory.resolve(PrebuiltOpenApi.LOCATION + PrebuiltOpenApi.getName(DEFAULT_GROUP, SpecFormat.JSON))));
+        assertTrue(Files.exists(outputDirectory.resolve(PrebuiltOpenApi.LOCATION + PrebuiltOpenApi.getName(DEFAULT_GROUP, SpecFormat.YAML))));
+        String fingerprint = new String(Files.readAllBytes(outputDirectory.resolve(PrebuiltOpenApi.LOCATION + PrebuiltOpenApi.getFingerprintName(DEFAULT_GROUP))),
+                StandardCharsets.UTF_8);
+        assertEquals(injector.getInstance(OpenApiResource.class).getPrebuiltFingerprint(), fingerprint);
+
+        // the generation does not serve back the documents already packaged
+        assertFalse(ninjaDocConfigProperties.isPrebuiltEnabled());
+    }
+
+    private void restart() {
+        ninjaDocTestServer.shutdown();
+        ninjaDocTestServer = new NinjaTestServer();
+        injector = ninjaDocTestServer.getInjector();
+        injector.injectMembers(this);
+        RestAssured.baseURI = getServerAddress();
+    }
+}
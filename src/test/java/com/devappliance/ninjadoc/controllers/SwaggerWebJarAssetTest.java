@@ -0,0 +1,57 @@
+package com.devappliance.ninjadoc.controllers;
+
+import conf.AbstractNinjaDocTest;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Serves the swagger ui assets from memory, with their entity tag and the cache control of Ninja.
+ */
+public class SwaggerWebJarAssetTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected String getConfigBasePackage() {
+        return null;
+    }
+
+    @Test
+    public void shouldServeAnAssetWithItsCacheHeaders() {
+        Response response = givenAsSent().when().get("/swagger-ui/swagger-ui.css");
+        // no max age outside of prod, as for the assets of the application
+        response.then().statusCode(200)
+                .contentType(containsString("text/css"))
+                .header("Cache-Control", equalTo("no-cache"))
+                .header("ETag", notNullValue())
+                .header("Vary", equalTo("Accept-Encoding"));
+
+        Response again = givenAsSent().when().get("/swagger-ui/swagger-ui.css");
+        assertEquals(response.getHeader("ETag"), again.getHeader("ETag"));
+        assertArrayEquals(response.asByteArray(), again.asByteArray());
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedToAMatchingEtag() {
+        String etag = givenAsSent().when().get("/swagger-ui/index.html")
+                .then().statusCode(200)
+                .header("Cache-Control", equalTo("no-cache"))
+                .extract().header("ETag");
+
+        givenAsSent().header("If-None-Match", etag)
+                .when().get("/swagger-ui/index.html")
+                .then().statusCode(304)
+                .header("ETag", equalTo(etag))
+                .header("Cache-Control", equalTo("no-cache"));
+    }
+
+    @Test
+    public void shouldNotServeAMissingAsset() {
+        givenAsSent().when().get("/swagger-ui/missing.js")
+                .then().statusCode(404);
+    }
+}
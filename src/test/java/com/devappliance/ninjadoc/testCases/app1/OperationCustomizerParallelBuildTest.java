@@ -0,0 +1,6 @@
+package com.devappliance.ninjadoc.testCases.app1;
+
+import conf.NinjaDocParallelBuildTest;
+
+public class OperationCustomizerParallelBuildTest extends NinjaDocParallelBuildTest {
+}
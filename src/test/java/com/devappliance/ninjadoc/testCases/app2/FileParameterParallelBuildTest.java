@@ -0,0 +1,6 @@
+package com.devappliance.ninjadoc.testCases.app2;
+
+import conf.NinjaDocParallelBuildTest;
+
+public class FileParameterParallelBuildTest extends NinjaDocParallelBuildTest {
+}
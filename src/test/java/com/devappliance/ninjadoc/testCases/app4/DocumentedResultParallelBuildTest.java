@@ -0,0 +1,6 @@
+package com.devappliance.ninjadoc.testCases.app4;
+
+import conf.NinjaDocParallelBuildTest;
+
+public class DocumentedResultParallelBuildTest extends NinjaDocParallelBuildTest {
+}
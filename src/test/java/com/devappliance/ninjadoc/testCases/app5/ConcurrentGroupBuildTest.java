@@ -0,0 +1,40 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import com.devappliance.ninjadoc.controllers.MultipleOpenApiResource;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds every group together on the first request of one of them.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.api-docs.groups.enabled=true",
+        "ninjadoc.api-docs.groups.concurrent-build-enabled=true"})
+public class ConcurrentGroupBuildTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldBuildAllGroupsOnTheFirstRequest() throws Exception {
+        MultipleOpenApiResource multipleOpenApiResource = injector.getInstance(MultipleOpenApiResource.class);
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets")
+                .then().statusCode(200)
+                .body("paths.'/pet'", notNullValue());
+
+        multipleOpenApiResource.getAllGroupsReady().get(30, TimeUnit.SECONDS);
+        // built by the concurrent build, without a request of its own
+        assertEquals(1, getMetric("stores", "BuildCount"));
+        assertEquals(1, getMetric("pets", "BuildCount"));
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/stores")
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue());
+        assertEquals(1, getMetric("stores", "BuildCount"));
+    }
+}
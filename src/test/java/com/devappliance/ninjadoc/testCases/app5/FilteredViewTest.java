@@ -0,0 +1,97 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Serves the views of the api docs selected by the tags and paths query parameters.
+ */
+@TestPropertySource(properties = {"ninjadoc.api-docs.groups.enabled=true"})
+public class FilteredViewTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldKeepTheOperationsOfTheTags() {
+        givenAsSent().queryParam("tags", "pet-controller")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/pet'", notNullValue())
+                .body("paths.'/pet/{petId}'", notNullValue())
+                .body("paths.'/store/inventory'", nullValue())
+                .body("components.schemas.Pet", notNullValue())
+                .body("components.schemas.Inventory", nullValue())
+                .body("components.schemas.Order", nullValue());
+    }
+
+    @Test
+    public void shouldKeepTheOperationsOfThePathsAndTheirComponents() {
+        // an order references a pet, so the view keeps both
+        givenAsSent().queryParam("paths", "/store/orders/**")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/orders'", notNullValue())
+                .body("paths.'/store/orders/{orderId}'", notNullValue())
+                .body("paths.'/store/inventory'", nullValue())
+                .body("paths.'/pet'", nullValue())
+                .body("components.schemas.Order", notNullValue())
+                .body("components.schemas.Pet", notNullValue())
+                .body("components.schemas.Inventory", nullValue());
+    }
+
+    @Test
+    public void shouldCombineTheTagsAndPaths() {
+        givenAsSent().queryParam("tags", "store-controller, pet-controller").queryParam("paths", "/store/inventory,/pet")
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(200)
+                .body(containsString("/store/inventory:"))
+                .body(containsString("/pet:"))
+                .body(not(containsString("petId")));
+
+        givenAsSent().queryParam("tags", "store-controller").queryParam("paths", "/pet/**")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/pet'", nullValue())
+                .body("paths.'/store/inventory'", nullValue());
+    }
+
+    @Test
+    public void shouldIdentifyEachView() {
+        String full = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag");
+        Response view = givenAsSent().queryParam("tags", "pet-controller")
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        String etag = view.getHeader("ETag");
+        assertNotEquals(full, etag);
+
+        // the tags are a set, so this is the same view
+        givenAsSent().queryParam("tags", " pet-controller,pet-controller")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("ETag", equalTo(etag));
+        givenAsSent().queryParam("tags", "pet-controller").header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(304);
+        givenAsSent().header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+        assertEquals(full, givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl()).getHeader("ETag"));
+    }
+
+    @Test
+    public void shouldFilterTheViewOfAGroup() {
+        givenAsSent().queryParam("paths", "/pet")
+                .when().get(ninjaDocConfig.getApiDocsUrl() + "/pets")
+                .then().statusCode(200)
+                .body("paths.'/pet'", notNullValue())
+                .body("paths.'/pet/{petId}'", nullValue());
+    }
+}
@@ -0,0 +1,67 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * Selects the operations of a document with the paths and packages to match or exclude.
+ */
+@TestPropertySource(properties = {"ninjadoc.api-docs.groups.enabled=true"})
+public class GroupFilterTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldMatchThePathsOfEachGroup() {
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets")
+                .then().statusCode(200)
+                .body("paths.'/pet'", notNullValue())
+                .body("paths.'/pet/{petId}'", notNullValue())
+                .body("paths.'/store/inventory'", nullValue());
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/stores")
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue())
+                .body("paths.'/store/orders'", notNullValue())
+                .body("paths.'/store/orders/{orderId}'", notNullValue())
+                .body("paths.'/pet'", nullValue());
+    }
+
+    @Test
+    public void shouldExcludeThePathsBelowAPattern() {
+        // the filters are compiled on the first build
+        ninjaDocConfigProperties.setPathsToExclude(Collections.singletonList("/store/orders/**"));
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue())
+                .body("paths.'/store/orders'", nullValue())
+                .body("paths.'/store/orders/{orderId}'", nullValue())
+                .body("paths.'/pet'", notNullValue());
+    }
+
+    @Test
+    public void shouldExcludeTheSubPackagesOfAPackage() {
+        ninjaDocConfigProperties.setPackagesToExclude(Collections.singletonList("com.devappliance.ninjadoc.testCases.app5"));
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", nullValue())
+                .body("paths.'/pet'", nullValue());
+    }
+
+    @Test
+    public void shouldMatchPackagesByWholeSegments() {
+        ninjaDocConfigProperties.setPackagesToExclude(Collections.singletonList("com.devappliance.ninjadoc.testCases.app"));
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue())
+                .body("paths.'/pet'", notNullValue());
+    }
+}
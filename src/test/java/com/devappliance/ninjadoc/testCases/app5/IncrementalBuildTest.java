@@ -0,0 +1,52 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds the same document when reusing the operations and schemas of the unchanged controllers.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.api-docs.groups.enabled=true",
+        "ninjadoc.cache.disabled=true",
+        "ninjadoc.cache.incremental-build-enabled=true"})
+public class IncrementalBuildTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldBuildTheSameDocumentIncrementally() {
+        String[] urls = {ninjaDocConfig.getApiDocsUrl(), ninjaDocConfig.getApiDocsUrl() + "/stores", ninjaDocConfig.getApiDocsUrl() + "/pets"};
+        String[] incremental = new String[urls.length];
+        for (int i = 0; i < urls.length; i++) {
+            incremental[i] = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString();
+            // rebuilt from the fragments of the first build
+            assertEquals(incremental[i], given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString());
+        }
+
+        ninjaDocConfigProperties.getCache().setIncrementalBuildEnabled(false);
+        for (int i = 0; i < urls.length; i++) {
+            String full = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString();
+            assertEquals(full, incremental[i]);
+        }
+    }
+
+    @Test
+    public void shouldKeepTheOperationIdsOfTheReusedOperations() {
+        for (int i = 0; i < 2; i++) {
+            given().when().get(ninjaDocConfig.getApiDocsUrl())
+                    .then().statusCode(200)
+                    .body("paths.'/store/orders/{orderId}'.get.operationId", equalTo("find"))
+                    .body("paths.'/pet/{petId}'.get.operationId", equalTo("find_1"));
+        }
+    }
+}
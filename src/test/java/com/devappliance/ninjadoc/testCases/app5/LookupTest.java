@@ -0,0 +1,70 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+/**
+ * Looks up one operation or schema of the api docs, with the components it references.
+ */
+@TestPropertySource(properties = {"ninjadoc.api-docs.groups.enabled=true"})
+public class LookupTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldLookUpAnOperation() {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/operations/placeOrder")
+                .then().statusCode(200)
+                .body("openapi", equalTo("3.0.1"))
+                .body("paths.size()", equalTo(1))
+                .body("paths.'/store/orders'.post.operationId", equalTo("placeOrder"))
+                .body("paths.'/store/orders'.get", nullValue())
+                // referenced by the order
+                .body("components.schemas.Order", notNullValue())
+                .body("components.schemas.Pet", notNullValue())
+                .body("components.schemas.Inventory", nullValue());
+    }
+
+    @Test
+    public void shouldLookUpASchema() {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/schemas/Order")
+                .then().statusCode(200)
+                .body("paths", nullValue())
+                .body("components.schemas.Order.properties.pet.'$ref'", equalTo("#/components/schemas/Pet"))
+                .body("components.schemas.Pet.properties.name.type", equalTo("string"))
+                .body("components.schemas.Inventory", nullValue());
+    }
+
+    @Test
+    public void shouldLookUpInAGroup() {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets/operations/find")
+                .then().statusCode(200)
+                .body("paths.'/pet/{petId}'.get.operationId", equalTo("find"));
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets/schemas/Order")
+                .then().statusCode(404);
+    }
+
+    @Test
+    public void shouldNotFindAnUnknownOperationOrSchema() {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/operations/unknown")
+                .then().statusCode(404);
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/schemas/Unknown")
+                .then().statusCode(404);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedToALookup() {
+        String etag = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl() + "/operations/find_1")
+                .then().statusCode(200)
+                .body("paths.'/pet/{petId}'.get.operationId", equalTo("find_1"))
+                .extract().header("ETag");
+
+        givenAsSent().header("If-None-Match", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl() + "/operations/find_1")
+                .then().statusCode(304)
+                .header("ETag", equalTo(etag));
+    }
+}
@@ -0,0 +1,38 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+
+/**
+ * Suffixes the operation ids used more than once in a document, in route order.
+ */
+@TestPropertySource(properties = {"ninjadoc.api-docs.groups.enabled=true"})
+public class OperationIdTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldSuffixDuplicateOperationIds() {
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'.get.operationId", equalTo("getInventory"))
+                .body("paths.'/store/orders/{orderId}'.get.operationId", equalTo("find"))
+                .body("paths.'/store/orders'.post.operationId", equalTo("placeOrder"))
+                .body("paths.'/pet/{petId}'.get.operationId", equalTo("find_1"))
+                .body("paths.'/pet'.post.operationId", equalTo("addPet"));
+    }
+
+    @Test
+    public void shouldOnlySuffixTheOperationIdsOfTheSameGroup() {
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets")
+                .then().statusCode(200)
+                .body("paths.'/pet/{petId}'.get.operationId", equalTo("find"))
+                .body("paths.'/pet'.post.operationId", equalTo("addPet"));
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/stores")
+                .then().statusCode(200)
+                .body("paths.'/store/orders/{orderId}'.get.operationId", equalTo("find"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds the api docs of several controllers and groups in parallel, then sequentially, and checks both are the same.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.api-docs.groups.enabled=true",
+        "ninjadoc.parallel-build-enabled=true",
+        "ninjadoc.cache.disabled=true"})
+public class PetStoreParallelBuildTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void testParallelBuild() {
+        String[] urls = {ninjaDocConfig.getApiDocsUrl(), ninjaDocConfig.getApiDocsUrl() + "/stores", ninjaDocConfig.getApiDocsUrl() + "/pets"};
+        String[] parallel = new String[urls.length];
+        for (int i = 0; i < urls.length; i++)
+            parallel[i] = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .body("openapi", equalTo("3.0.1"))
+                    .extract().asString();
+
+        ninjaDocConfigProperties.setParallelBuildEnabled(false);
+        for (int i = 0; i < urls.length; i++) {
+            String sequential = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString();
+            assertEquals(sequential, parallel[i]);
+        }
+    }
+}
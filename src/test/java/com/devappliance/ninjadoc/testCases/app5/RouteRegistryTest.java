@@ -0,0 +1,63 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import com.devappliance.ninjadoc.wrappers.RouteInfo;
+import com.devappliance.ninjadoc.wrappers.RouteRegistry;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Resolves the routes once and shares them across the builds of every group.
+ */
+@TestPropertySource(properties = {"ninjadoc.api-docs.groups.enabled=true"})
+public class RouteRegistryTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldShareTheRoutesAcrossGroups() {
+        RouteRegistry routeRegistry = injector.getInstance(RouteRegistry.class);
+        List<RouteInfo> routes = routeRegistry.getRoutes();
+        String fingerprint = routeRegistry.getFingerprint();
+
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue())
+                .body("paths.'/pet'", notNullValue());
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/stores")
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", notNullValue())
+                .body("paths.'/pet'", nullValue());
+        given().when().get(ninjaDocConfig.getApiDocsUrl() + "/pets")
+                .then().statusCode(200)
+                .body("paths.'/store/inventory'", nullValue())
+                .body("paths.'/pet'", notNullValue());
+
+        assertSame(injector.getInstance(RouteRegistry.class), routeRegistry);
+        assertSame(routes, routeRegistry.getRoutes());
+        assertEquals(fingerprint, routeRegistry.getFingerprint());
+        assertThat(routes.stream().map(RouteInfo::getOperationPath).collect(Collectors.toList()),
+                hasItems("/store/inventory", "/store/orders/{orderId}", "/store/orders", "/pet/{petId}", "/pet"));
+    }
+
+    @Test
+    public void shouldRebuildTheRoutesOnRefresh() {
+        RouteRegistry routeRegistry = injector.getInstance(RouteRegistry.class);
+        List<RouteInfo> routes = routeRegistry.getRoutes();
+        String fingerprint = routeRegistry.getFingerprint();
+
+        routeRegistry.refresh();
+
+        assertEquals(routes.size(), routeRegistry.getRoutes().size());
+        assertEquals(fingerprint, routeRegistry.getFingerprint());
+    }
+}
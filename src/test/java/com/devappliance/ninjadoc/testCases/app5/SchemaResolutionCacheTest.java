@@ -0,0 +1,47 @@
+package com.devappliance.ninjadoc.testCases.app5;
+
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Builds the same document with and without memoizing the schema resolutions.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.api-docs.groups.enabled=true",
+        "ninjadoc.cache.disabled=true"})
+public class SchemaResolutionCacheTest extends AbstractNinjaDocTest {
+
+    @Test
+    public void shouldBuildTheSameDocumentWithoutTheCache() {
+        String[] urls = {ninjaDocConfig.getApiDocsUrl(), ninjaDocConfig.getApiDocsUrl() + "/stores", ninjaDocConfig.getApiDocsUrl() + "/pets"};
+        String[] memoized = new String[urls.length];
+        for (int i = 0; i < urls.length; i++)
+            memoized[i] = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString();
+
+        ninjaDocConfigProperties.getCache().setSchemaResolutionEnabled(false);
+        for (int i = 0; i < urls.length; i++) {
+            String resolved = given().when().get(urls[i])
+                    .then().statusCode(200)
+                    .extract().asString();
+            assertEquals(resolved, memoized[i]);
+        }
+    }
+
+    @Test
+    public void shouldReferenceTheSharedModels() {
+        // Pet is returned, sent and referenced by Order: each use is a reference to the same schema
+        given().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("paths.'/pet/{petId}'.get.responses.'200'.content.'*/*'.schema.'$ref'", equalTo("#/components/schemas/Pet"))
+                .body("paths.'/pet'.post.requestBody.content.'application/json'.schema.'$ref'", equalTo("#/components/schemas/Pet"))
+                .body("components.schemas.Order.properties.pet.'$ref'", equalTo("#/components/schemas/Pet"))
+                .body("components.schemas.Pet.properties.name.type", equalTo("string"));
+    }
+}
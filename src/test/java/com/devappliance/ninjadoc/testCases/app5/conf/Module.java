@@ -0,0 +1,41 @@
+package com.devappliance.ninjadoc.testCases.app5.conf;
+
+import com.devappliance.ninjadoc.GroupedOpenApi;
+import com.devappliance.ninjadoc.config.NinjaDocModule;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.multibindings.ProvidesIntoSet;
+import ninja.utils.NinjaProperties;
+
+/**
+ * A pet store split in two groups, used when the groups are enabled.
+ */
+public class Module extends AbstractModule {
+    private NinjaProperties ninjaProperties;
+
+    @Inject
+    public Module(NinjaProperties ninjaProperties) {
+        this.ninjaProperties = ninjaProperties;
+    }
+
+    @Override
+    protected void configure() {
+        install(new NinjaDocModule(ninjaProperties));
+    }
+
+    @ProvidesIntoSet
+    public GroupedOpenApi storeOpenApi() {
+        return GroupedOpenApi.builder()
+                .group("stores")
+                .pathsToMatch("/store/**")
+                .build();
+    }
+
+    @ProvidesIntoSet
+    public GroupedOpenApi petOpenApi() {
+        return GroupedOpenApi.builder()
+                .group("pets")
+                .pathsToMatch("/pet/**")
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.devappliance.ninjadoc.testCases.app5.conf;
+
+import com.devappliance.ninjadoc.api.annotations.DocumentReturnType;
+import com.devappliance.ninjadoc.config.NinjaDocRoutes;
+import com.google.inject.Inject;
+import ninja.Result;
+import ninja.Results;
+import ninja.Router;
+import ninja.application.ApplicationRoutes;
+import ninja.params.PathParam;
+
+import javax.inject.Named;
+
+/**
+ * Two controllers sharing their models, with a method name used by both.
+ */
+@Named
+public class Routes implements ApplicationRoutes {
+
+    @Inject
+    private NinjaDocRoutes ninjaDocRoutes;
+
+    @Override
+    public void init(Router router) {
+        ninjaDocRoutes.register(router);
+        router.GET().route("/store/inventory").with(StoreController::getInventory);
+        router.GET().route("/store/orders/{orderId}").with(StoreController::find);
+        router.POST().route("/store/orders").with(StoreController::placeOrder);
+        router.GET().route("/pet/{petId}").with(PetController::find);
+        router.POST().route("/pet").with(PetController::addPet);
+    }
+
+    public static class StoreController {
+        @DocumentReturnType(type = Inventory.class)
+        public Result getInventory() {
+            return Results.json();
+        }
+
+        @DocumentReturnType(type = Order.class)
+        public Result find(@PathParam("orderId") Long orderId) {
+            return Results.json();
+        }
+
+        @DocumentReturnType(type = Order.class)
+        public Result placeOrder(Order order) {
+            return Results.json();
+        }
+    }
+
+    public static class PetController {
+        @DocumentReturnType(type = Pet.class)
+        public Result find(@PathParam("petId") Long petId) {
+            return Results.json();
+        }
+
+        @DocumentReturnType(type = Pet.class)
+        public Result addPet(Pet pet) {
+            return Results.json();
+        }
+    }
+
+    public static class Inventory {
+        private Integer available;
+        private Integer sold;
+
+        public Integer getAvailable() {
+            return available;
+        }
+
+        public Inventory setAvailable(Integer available) {
+            this.available = available;
+            return this;
+        }
+
+        public Integer getSold() {
+            return sold;
+        }
+
+        public Inventory setSold(Integer sold) {
+            this.sold = sold;
+            return this;
+        }
+    }
+
+    public static class Order {
+        private Long id;
+        private Pet pet;
+        private Integer quantity;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Order setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public Pet getPet() {
+            return pet;
+        }
+
+        public Order setPet(Pet pet) {
+            this.pet = pet;
+            return this;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public Order setQuantity(Integer quantity) {
+            this.quantity = quantity;
+            return this;
+        }
+    }
+
+    public static class Pet {
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public Pet setId(Long id) {
+            this.id = id;
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Pet setName(String name) {
+            this.name = name;
+            return this;
+        }
+    }
+}
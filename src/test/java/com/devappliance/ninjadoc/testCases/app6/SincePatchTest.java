@@ -0,0 +1,117 @@
+package com.devappliance.ninjadoc.testCases.app6;
+
+import com.devappliance.ninjadoc.testCases.app6.conf.Module;
+import com.fasterxml.jackson.databind.JsonNode;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Answers the since query parameter with the JSON Patch from a past version of the api docs.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.cache.stale-while-revalidate-enabled=true",
+        "ninjadoc.cache.refresh-ttl=1"})
+public class SincePatchTest extends AbstractNinjaDocTest {
+
+    @After
+    public void resetRevision() {
+        Module.REVISION.set("1");
+    }
+
+    @Test
+    public void shouldServeThePatchSinceAPastVersion() throws Exception {
+        String since = awaitRevision("1");
+        Module.REVISION.set("2");
+        String etag = awaitRevision("2");
+        assertNotEquals(since, etag);
+
+        Response patch = givenAsSent().queryParam("since", since)
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        patch.then().statusCode(200)
+                .contentType(containsString("application/json-patch+json"))
+                .header("ETag", equalTo(etag));
+        JsonNode operations = readTree(patch);
+        assertEquals(1, operations.size());
+        assertEquals("replace", operations.get(0).get("op").asText());
+        assertEquals("/info/description", operations.get(0).get("path").asText());
+        assertEquals("revision 2", operations.get(0).get("value").asText());
+
+        // the tag of a compressed or weak rendering names the same version
+        String weakGzip = "W/" + since.substring(0, since.length() - 1) + "-gzip\"";
+        Response again = givenAsSent().queryParam("since", weakGzip)
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        assertEquals(operations, readTree(again));
+    }
+
+    @Test
+    public void shouldServeAnEmptyPatchSinceTheCurrentVersion() throws Exception {
+        String etag = awaitRevision("1");
+
+        Response patch = givenAsSent().queryParam("since", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl());
+        patch.then().statusCode(200)
+                .contentType(containsString("application/json-patch+json"));
+        assertEquals(0, readTree(patch).size());
+    }
+
+    @Test
+    public void shouldServeTheDocumentSinceAnUnknownVersion() {
+        givenAsSent().queryParam("since", "\"0000000000000000000000000000000000000000000000000000000000000000\"")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .contentType(containsString("application/json"))
+                .body("info.description", equalTo("revision 1"));
+    }
+
+    @Test
+    public void shouldRejectTheSinceParameterWhereNoPatchIsKept() throws Exception {
+        String etag = awaitRevision("1");
+
+        givenAsSent().queryParam("since", etag).queryParam("tags", "revision-controller")
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(400);
+        givenAsSent().queryParam("since", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrlYaml())
+                .then().statusCode(400);
+        givenAsSent().queryParam("since", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl() + ".smile")
+                .then().statusCode(400);
+
+        ninjaDocConfigProperties.getCache().setDisabled(true);
+        givenAsSent().queryParam("since", etag)
+                .when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(400);
+    }
+
+    /**
+     * Request the api docs until they describe a revision, the refresh of the cached document being asynchronous.
+     *
+     * @param revision the revision
+     * @return the entity tag of the document describing it
+     * @throws InterruptedException the interrupted exception
+     */
+    private String awaitRevision(String revision) throws InterruptedException {
+        String[] etag = new String[1];
+        await(() -> {
+            Response response = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl());
+            etag[0] = response.getHeader("ETag");
+            return ("revision " + revision).equals(response.path("info.description"));
+        }, 30000);
+        return etag[0];
+    }
+
+    private JsonNode readTree(Response response) throws IOException {
+        // rest assured does not parse the patch content type
+        return objectMapper.readTree(response.asByteArray());
+    }
+}
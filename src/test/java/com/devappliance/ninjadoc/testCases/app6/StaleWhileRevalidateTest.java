@@ -0,0 +1,76 @@
+package com.devappliance.ninjadoc.testCases.app6;
+
+import com.devappliance.ninjadoc.controllers.OpenApiResource;
+import com.devappliance.ninjadoc.testCases.app6.conf.Module;
+import conf.AbstractNinjaDocTest;
+import conf.TestPropertySource;
+import io.restassured.response.Response;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Serves the published api docs while they are rebuilt in the background, once their refresh ttl elapsed.
+ */
+@TestPropertySource(properties = {
+        "ninjadoc.cache.stale-while-revalidate-enabled=true",
+        "ninjadoc.cache.refresh-ttl=500"})
+public class StaleWhileRevalidateTest extends AbstractNinjaDocTest {
+
+    private static final long REFRESH_TTL = 500;
+
+    @After
+    public void resetRevision() {
+        Module.REVISION.set("1");
+    }
+
+    @Test
+    public void shouldServeTheStaleDocumentWhileRefreshing() throws Exception {
+        assertRevision("1");
+        Module.REVISION.set("2");
+        // not refreshed before the ttl elapsed
+        assertRevision("1");
+
+        Thread.sleep(REFRESH_TTL);
+        // this request starts the refresh, and is served the published document
+        assertRevision("1");
+        awaitRevision("2");
+    }
+
+    @Test
+    public void shouldServeTheLastDocumentWhileTheBuildsFail() throws Exception {
+        OpenApiResource openApiResource = injector.getInstance(OpenApiResource.class);
+        assertRevision("1");
+        Module.REVISION.set(Module.FAILING_REVISION);
+
+        await(() -> {
+            givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                    .then().statusCode(200)
+                    .body("info.description", equalTo("revision 1"));
+            return openApiResource.getFailedBuildCount() > 0;
+        }, 30000);
+        assertTrue(getMetric("ninjadocDefault", "BuildFailureCount") > 0);
+        assertRevision("1");
+
+        // the next refresh recovers
+        Module.REVISION.set("3");
+        awaitRevision("3");
+    }
+
+    private void assertRevision(String revision) {
+        givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl())
+                .then().statusCode(200)
+                .body("info.description", equalTo("revision " + revision));
+    }
+
+    private void awaitRevision(String revision) throws InterruptedException {
+        await(() -> {
+            Response response = givenAsSent().when().get(ninjaDocConfig.getApiDocsUrl());
+            assertEquals(200, response.getStatusCode());
+            return ("revision " + revision).equals(response.path("info.description"));
+        }, 30000);
+    }
+}
@@ -0,0 +1,48 @@
+package com.devappliance.ninjadoc.testCases.app6.conf;
+
+import com.devappliance.ninjadoc.config.NinjaDocModule;
+import com.devappliance.ninjadoc.customizers.OpenApiCustomiser;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.google.inject.multibindings.ProvidesIntoSet;
+import ninja.utils.NinjaProperties;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An application whose api docs describe a revision set by the tests, so each build can give another document.
+ */
+public class Module extends AbstractModule {
+
+    /**
+     * The revision described by the next build, a build fails while it is {@value #FAILING_REVISION}.
+     */
+    public static final AtomicReference<String> REVISION = new AtomicReference<>("1");
+
+    /**
+     * The revision failing the builds.
+     */
+    public static final String FAILING_REVISION = "failing";
+
+    private NinjaProperties ninjaProperties;
+
+    @Inject
+    public Module(NinjaProperties ninjaProperties) {
+        this.ninjaProperties = ninjaProperties;
+    }
+
+    @Override
+    protected void configure() {
+        install(new NinjaDocModule(ninjaProperties));
+    }
+
+    @ProvidesIntoSet
+    private OpenApiCustomiser revisionCustomiser() {
+        return openApi -> {
+            String revision = REVISION.get();
+            if (FAILING_REVISION.equals(revision))
+                throw new IllegalStateException("The build of revision " + revision + " fails");
+            openApi.getInfo().setDescription("revision " + revision);
+        };
+    }
+}
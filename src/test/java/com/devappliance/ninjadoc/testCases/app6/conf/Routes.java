@@ -0,0 +1,32 @@
+package com.devappliance.ninjadoc.testCases.app6.conf;
+
+import com.devappliance.ninjadoc.config.NinjaDocRoutes;
+import com.google.inject.Inject;
+import ninja.Result;
+import ninja.Results;
+import ninja.Router;
+import ninja.application.ApplicationRoutes;
+
+import javax.inject.Named;
+
+/**
+ * Serves the revision described by the api docs.
+ */
+@Named
+public class Routes implements ApplicationRoutes {
+
+    @Inject
+    private NinjaDocRoutes ninjaDocRoutes;
+
+    @Override
+    public void init(Router router) {
+        ninjaDocRoutes.register(router);
+        router.GET().route("/api/v1/revision").with(RevisionController::getRevision);
+    }
+
+    public static class RevisionController {
+        public Result getRevision() {
+            return Results.json().render(Module.REVISION.get());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.devappliance.ninjadoc.ui.app1;
+
+import conf.AbstractNinjaDocTest;
+import org.hamcrest.CoreMatchers;
+import org.junit.Test;
+
+import static io.restassured.RestAssured.given;
+
+public class NinjaDocSwaggerConfigPerOriginTest extends AbstractNinjaDocTest {
+
+	@Test
+	public void shouldCalculateOauth2RedirectUrlPerHost() {
+		given().header("Host", "first.example.com")
+				.when()
+				.get("/v3/api-docs/swagger-config")
+				.then().statusCode(200)
+				.body("oauth2RedirectUrl", CoreMatchers.equalTo("http://first.example.com/swagger-ui/oauth2-redirect.html"));
+
+		given().header("Host", "second.example.com")
+				.when()
+				.get("/v3/api-docs/swagger-config")
+				.then().statusCode(200)
+				.body("oauth2RedirectUrl", CoreMatchers.equalTo("http://second.example.com/swagger-ui/oauth2-redirect.html"));
+	}
+
+}
@@ -3,21 +3,28 @@ package conf;
 import com.devappliance.ninjadoc.NinjaDocConfigProperties;
 import com.devappliance.ninjadoc.SwaggerUiConfigProperties;
 import com.devappliance.ninjadoc.config.NinjaDocConfig;
+import com.devappliance.ninjadoc.metrics.JmxNinjaDocMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.gson.Gson;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.specification.RequestSpecification;
 import ninja.utils.NinjaConstant;
 import ninja.utils.NinjaTestServer;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.Before;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * @author Gibah Joseph
@@ -91,4 +98,43 @@ public abstract class AbstractNinjaDocTest {
     protected String getServerAddress() {
         return ninjaDocTestServer.getServerAddress();
     }
+
+    /**
+     * Request specification receiving the responses as they are sent: nothing is decoded, and no compression
+     * is asked for unless the request sets its own Accept-Encoding header.
+     *
+     * @return the request specification
+     */
+    protected RequestSpecification givenAsSent() {
+        return RestAssured.given().config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()));
+    }
+
+    /**
+     * Gets a metric of a group, as exposed over JMX.
+     *
+     * @param groupName the group name
+     * @param attribute the attribute of the metrics MBean, such as BuildCount
+     * @return the metric
+     * @throws JMException the jm exception
+     */
+    protected long getMetric(String groupName, String attribute) throws JMException {
+        ObjectName objectName = new ObjectName(JmxNinjaDocMetrics.DOMAIN + ":type=Metrics,group=" + ObjectName.quote(groupName));
+        return (Long) ManagementFactory.getPlatformMBeanServer().getAttribute(objectName, attribute);
+    }
+
+    /**
+     * Wait until a condition holds, such as the end of a background build.
+     *
+     * @param condition     the condition
+     * @param timeoutMillis the timeout in milliseconds
+     * @throws InterruptedException the interrupted exception
+     */
+    protected void await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline)
+                throw new AssertionError("Condition not met within " + timeoutMillis + " ms");
+            Thread.sleep(20);
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package conf;
+
+import io.restassured.response.Response;
+import org.json.JSONException;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Builds the api docs of an application in parallel, then sequentially, and checks both are the same bytes
+ * and match the expected result of the application.
+ */
+public abstract class NinjaDocParallelBuildTest extends AbstractNinjaDocTest {
+
+    @Override
+    protected Map<String, String> getConfigsForTest() {
+        Map<String, String> properties = super.getConfigsForTest();
+        properties.put("ninjadoc.parallel-build-enabled", "true");
+        // every request builds the api docs again
+        properties.put("ninjadoc.cache.disabled", "true");
+        return properties;
+    }
+
+    /**
+     * Gets the name of the expected result, the one of the sequential test of the application.
+     *
+     * @return the result name
+     */
+    protected String getResultName() {
+        return getClass().getSimpleName().replace("ParallelBuildTest", "Test");
+    }
+
+    @Test
+    public void testParallelBuild() throws IOException, URISyntaxException, JSONException {
+        Response parallelResponse = given().when().get(ninjaDocConfig.getApiDocsUrl());
+        parallelResponse.then().statusCode(200);
+        String parallel = parallelResponse.asString();
+
+        ninjaDocConfigProperties.setParallelBuildEnabled(false);
+        Response sequentialResponse = given().when().get(ninjaDocConfig.getApiDocsUrl());
+        sequentialResponse.then().statusCode(200);
+        assertEquals(sequentialResponse.asString(), parallel);
+
+        URL testResultResource = getClass().getClassLoader().getResource("results/" + getResultName() + ".json");
+        assertNotNull(testResultResource);
+        String expected = new String(Files.readAllBytes(Paths.get(testResultResource.toURI())));
+        org.skyscreamer.jsonassert.JSONAssert.assertEquals(expected, parallel, true);
+    }
+}